@@ -0,0 +1,63 @@
+package research;
+
+import research.model.Location;
+import research.model.Project;
+import research.model.ResearchGroup;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Linked test entities for the benchmarks, generated with a fixed seed so runs are comparable.
+ */
+public class BenchmarkData {
+    private static final long SEED=20220719L;
+
+    private BenchmarkData() {
+    }
+
+    public static List<Project> projects(int count, int groupsPerProject) {
+        List<Project> projects=new ArrayList<>(count);
+        for (long i = 0; i < count; i++) {
+            Project project=project(i);
+            for (long j = 0; j < groupsPerProject; j++) {
+                ResearchGroup researchGroup=researchGroup(i*groupsPerProject+j);
+                researchGroup.getProjectSet().add(project);
+                project.addGroup(researchGroup);
+            }
+            projects.add(project);
+        }
+        return projects;
+    }
+
+    public static List<ResearchGroup> shuffledResearchGroups(int count) {
+        List<ResearchGroup> researchGroups=new ArrayList<>(count);
+        for (long i = 0; i < count; i++) {
+            researchGroups.add(researchGroup(i));
+        }
+        Collections.shuffle(researchGroups,new Random(SEED));
+        return researchGroups;
+    }
+
+    public static Project project(long id) {
+        Project project=new Project();
+        project.setId(id);
+        project.setName("Projekt "+id);
+        project.setStartDate(LocalDate.of(2020,1,1).plusDays(id%3650));
+        project.setBudget((int) (id%500));
+        return project;
+    }
+
+    public static ResearchGroup researchGroup(long id) {
+        ResearchGroup researchGroup=new ResearchGroup();
+        researchGroup.setId(id);
+        researchGroup.setName("Csoport "+id);
+        researchGroup.setFounded(LocalDate.of(2000,1,1).plusDays(id%7300));
+        researchGroup.setCountOfResearchers((int) (id%40)+1);
+        researchGroup.setLocation(Location.values()[(int) (id%Location.values().length)]);
+        researchGroup.setBudget((int) (id%100));
+        return researchGroup;
+    }
+}
@@ -0,0 +1,39 @@
+package research.dtos;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import research.BenchmarkData;
+import research.mapper.ProjectsAndGroupsMapperImpl;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON rendering of a project listing, with the object mapper settings Spring Boot uses for the controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private static final int GROUPS_PER_PROJECT=3;
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<ProjectDto> projects;
+
+    @Setup
+    public void setUp() {
+        writer=Jackson2ObjectMapperBuilder.json().build().writerFor(new TypeReference<List<ProjectDto>>(){});
+        projects=new ProjectsAndGroupsMapperImpl().toProjectDtos(BenchmarkData.projects(size,GROUPS_PER_PROJECT));
+    }
+
+    @Benchmark
+    public void writeProjectList() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(),projects);
+    }
+}
@@ -0,0 +1,88 @@
+package research.execution;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import research.ResearchApplication;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Load test: every JMH thread is a client waiting for its own list request, the sample mode reports the percentiles.
+// Compare the pool alone with the pool behind the fair limiter at the same thread count, e.g. -t 400 -p limited=false,true.
+// On a Java 21 runtime -p virtualThreads=true runs the requests on virtual threads (always limited, the limit defaults to the pool size).
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(200)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class RequestConcurrencyBenchmark {
+    private static final int PROJECT_COUNT=1000;
+
+    @Param({"false"})
+    private boolean virtualThreads;
+
+    @Param({"false", "true"})
+    private boolean limited;
+
+    @Param({"200"})
+    private int maxThreads;
+
+    @Param({"10"})
+    private int databaseConcurrency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        context=new SpringApplicationBuilder(ResearchApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--server.tomcat.threads.max="+maxThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--research.reactive.url=r2dbc:h2:mem:///benchmark",
+                        "--spring.datasource.hikari.maximum-pool-size="+databaseConcurrency,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--research.query-cache.enabled=false",
+                        "--research.execution.virtual-threads="+virtualThreads,
+                        "--research.execution.database-concurrency="+(limited ? databaseConcurrency : 0));
+
+        List<Object[]> projects=new ArrayList<>();
+        for (int i = 0; i < PROJECT_COUNT; i++) {
+            projects.add(new Object[]{"Projekt "+i, "projekt "+i, Date.valueOf(LocalDate.of(2020,1,1).plusDays(i)), i});
+        }
+        context.getBean(JdbcTemplate.class).batchUpdate("INSERT INTO projects (project_name, project_name_search, start_date, budget) VALUES (?,?,?,?)", projects);
+
+        String port=context.getEnvironment().getProperty("local.server.port");
+        httpClient=HttpClient.newHttpClient();
+        request=HttpRequest.newBuilder(URI.create("http://localhost:"+port+"/api/projects?size=50&orderType=desc")).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String listProjects() throws IOException, InterruptedException {
+        HttpResponse<String> response=httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if(response.statusCode()!=200){
+            throw new IllegalStateException("Unexpected status: "+response.statusCode());
+        }
+        return response.body();
+    }
+}
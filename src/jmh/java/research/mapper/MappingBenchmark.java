@@ -0,0 +1,70 @@
+package research.mapper;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeToken;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+import research.BenchmarkData;
+import research.dtos.ProjectDto;
+import research.dtos.ResearchGroupDto;
+import research.model.Project;
+import research.model.ResearchGroup;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-entity cost of mapping a listing to DTOs: the former ModelMapper configuration against the generated mapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+    private static final int LIST_SIZE=100;
+    private static final int GROUPS_PER_PROJECT=3;
+
+    private final Type projectDtoListType=new TypeToken<List<ProjectDto>>(){}.getType();
+    private final Type researchGroupDtoListType=new TypeToken<List<ResearchGroupDto>>(){}.getType();
+
+    private ModelMapper modelMapper;
+    private ProjectsAndGroupsMapper generatedMapper;
+    private List<Project> projects;
+    private List<ResearchGroup> researchGroups;
+
+    @Setup
+    public void setUp() {
+        modelMapper=new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        generatedMapper=new ProjectsAndGroupsMapperImpl();
+
+        projects=BenchmarkData.projects(LIST_SIZE,GROUPS_PER_PROJECT);
+        researchGroups=projects.stream()
+                .flatMap(project -> project.getResearchGroupSet().stream())
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIST_SIZE)
+    public List<ProjectDto> projectsWithModelMapper() {
+        return modelMapper.map(projects,projectDtoListType);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIST_SIZE)
+    public List<ProjectDto> projectsWithGeneratedMapper() {
+        return generatedMapper.toProjectDtos(projects);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIST_SIZE*GROUPS_PER_PROJECT)
+    public List<ResearchGroupDto> researchGroupsWithModelMapper() {
+        return modelMapper.map(researchGroups,researchGroupDtoListType);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIST_SIZE*GROUPS_PER_PROJECT)
+    public List<ResearchGroupDto> researchGroupsWithGeneratedMapper() {
+        return generatedMapper.toResearchGroupDtos(researchGroups);
+    }
+}
@@ -0,0 +1,119 @@
+package research.replica;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import research.ResearchApplication;
+import research.criteria.OrderType;
+import research.criteria.ProjectCriteria;
+import research.criteria.ProjectOrderBy;
+import research.dtos.ProjectDto;
+import research.dtos.UpdateProjectCommand;
+import research.service.ProjectsAndGroupsService;
+import research.service.ReplicatedReadService;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Reads through the service with the replica off (database) and on, e.g. -p mode=OFF,EVENTUAL -p projectCount=100000.
+// The query result cache is off, so the database path runs its queries every time. The write cases update a project:
+// updateProject measures the commit, updateProjectApplied waits until the replica holds the change as well.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ReadReplicaBenchmark {
+    private static final int GROUP_COUNT=100;
+
+    @Param({"OFF","EVENTUAL","STRONG"})
+    private ReplicaMode mode;
+
+    @Param({"10000"})
+    private int projectCount;
+
+    private ConfigurableApplicationContext context;
+    private ReadReplica readReplica;
+    private ReplicatedReadService service;
+    private ProjectsAndGroupsService projectsAndGroupsService;
+    private List<Long> projectIds;
+    private ProjectCriteria pageCriteria;
+
+    @Setup
+    public void setUp() {
+        context=new SpringApplicationBuilder(ResearchApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:replica-benchmark",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--research.reactive.url=r2dbc:h2:mem:///replica-benchmark",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--research.query-cache.enabled=false",
+                        "--research.replica.mode="+mode);
+
+        JdbcTemplate jdbcTemplate=context.getBean(JdbcTemplate.class);
+        List<Object[]> groups=new ArrayList<>();
+        for (int i = 0; i < GROUP_COUNT; i++) {
+            groups.add(new Object[]{"Csoport "+i, "csoport "+i, Date.valueOf(LocalDate.of(2010,1,1).plusDays(i)), i+1, "BIOFIZIKA", i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO research_groups (researchgroup_name, researchgroup_name_search, founded, count_of_researchers, location, budget) VALUES (?,?,?,?,?,?)", groups);
+        List<Object[]> projects=new ArrayList<>();
+        for (int i = 0; i < projectCount; i++) {
+            projects.add(new Object[]{"Projekt "+i, "projekt "+i, Date.valueOf(LocalDate.of(2000,1,1).plusDays(i)), i % 1000});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO projects (project_name, project_name_search, start_date, budget) VALUES (?,?,?,?)", projects);
+        projectIds=jdbcTemplate.queryForList("SELECT id FROM projects ORDER BY id", Long.class);
+        List<Long> groupIds=jdbcTemplate.queryForList("SELECT id FROM research_groups ORDER BY id", Long.class);
+        List<Object[]> links=new ArrayList<>();
+        for (int i = 0; i < projectIds.size(); i++) {
+            links.add(new Object[]{projectIds.get(i), groupIds.get(i % GROUP_COUNT)});
+            links.add(new Object[]{projectIds.get(i), groupIds.get((i + 1) % GROUP_COUNT)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO project_researchgroup (project_id, researchgroup_id) VALUES (?,?)", links);
+        // The rows above bypass the change events.
+        readReplica=context.getBean(ReadReplica.class);
+        readReplica.rebuild();
+
+        service=context.getBean(ReplicatedReadService.class);
+        projectsAndGroupsService=context.getBean(ProjectsAndGroupsService.class);
+        pageCriteria=new ProjectCriteria();
+        pageCriteria.setOrderBy(ProjectOrderBy.budget);
+        pageCriteria.setOrderType(OrderType.desc);
+        pageCriteria.setSize(50);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProjectDto> projectPage() {
+        return service.getProjects(pageCriteria);
+    }
+
+    @Benchmark
+    public ProjectDto projectById() {
+        long id=projectIds.get(ThreadLocalRandom.current().nextInt(projectIds.size()));
+        return service.getProjectById(id, service.getProjectToken(id));
+    }
+
+    @Benchmark
+    public ProjectDto updateProject() {
+        long id=projectIds.get(ThreadLocalRandom.current().nextInt(projectIds.size()));
+        return projectsAndGroupsService.updateProject(id, null, new UpdateProjectCommand(null, null, ThreadLocalRandom.current().nextInt(1000))).getBody();
+    }
+
+    @Benchmark
+    public ProjectDto updateProjectApplied() throws InterruptedException {
+        ProjectDto project=updateProject();
+        readReplica.awaitApplied();
+        return project;
+    }
+}
@@ -0,0 +1,43 @@
+package research.search;
+
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class NameIndexBenchmark {
+    private static final String[] WORDS={"Élettani","vizsgálata","Őssejt","kutatás","Neuroendokrin","hatásai","Szívizom",
+            "regeneráció","Lézeres","spektroszkópia","Fehérje","szerkezet","Ösztrogén","receptor","Hippocampus","plaszticitás"};
+
+    @Param({"10000","1000000"})
+    private int size;
+
+    private NameIndex index;
+
+    @Setup
+    public void setUp() {
+        index=new NameIndex();
+        Random random=new Random(20220719L);
+        for (long id = 0; id < size; id++) {
+            index.put(id,WORDS[random.nextInt(WORDS.length)]+" "+WORDS[random.nextInt(WORDS.length)]+" "+id);
+        }
+    }
+
+    @Benchmark
+    public List<Long> substringOfCommonWord() {
+        return index.search("ossejt kut",NameMatch.SUBSTRING,100);
+    }
+
+    @Benchmark
+    public List<Long> prefixWithoutAccents() {
+        return index.search("elettani",NameMatch.PREFIX,100);
+    }
+
+    @Benchmark
+    public List<Long> selectiveSubstring() {
+        return index.search("plaszticitás 4242",NameMatch.SUBSTRING,100);
+    }
+}
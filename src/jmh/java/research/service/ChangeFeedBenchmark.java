@@ -0,0 +1,81 @@
+package research.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import research.ResearchApplication;
+import research.dtos.ProjectDto;
+import research.dtos.UpdateProjectCommand;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Commit throughput of concurrent writers with the change feed off and on, e.g. -t 8 -p enabled=false,true.
+// Every thread updates projects of its own, so the writers share no project row, only the change feed.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ChangeFeedBenchmark {
+    private static final int PROJECTS_PER_THREAD=100;
+    private static final int MAX_THREADS=64;
+
+    @Param({"false", "true"})
+    private boolean enabled;
+
+    private ConfigurableApplicationContext context;
+    private ProjectsAndGroupsService service;
+    private List<Long> projectIds;
+    private final AtomicInteger nextThread=new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        context=new SpringApplicationBuilder(ResearchApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:change-feed-benchmark",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--research.reactive.url=r2dbc:h2:mem:///change-feed-benchmark",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--research.changes.enabled="+enabled);
+
+        List<Object[]> projects=new ArrayList<>();
+        for (int i = 0; i < PROJECTS_PER_THREAD*MAX_THREADS; i++) {
+            projects.add(new Object[]{"Projekt "+i, "projekt "+i, Date.valueOf(LocalDate.of(2000,1,1).plusDays(i)), i % 1000});
+        }
+        JdbcTemplate jdbcTemplate=context.getBean(JdbcTemplate.class);
+        jdbcTemplate.batchUpdate("INSERT INTO projects (project_name, project_name_search, start_date, budget) VALUES (?,?,?,?)", projects);
+        projectIds=jdbcTemplate.queryForList("SELECT id FROM projects ORDER BY id", Long.class);
+        service=context.getBean(ProjectsAndGroupsService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private int first;
+
+        @Setup
+        public void setUp(ChangeFeedBenchmark benchmark) {
+            first=benchmark.nextThread.getAndIncrement()*PROJECTS_PER_THREAD;
+        }
+    }
+
+    @Benchmark
+    public ProjectDto updateProject(Writer writer) {
+        long id=projectIds.get(writer.first+ThreadLocalRandom.current().nextInt(PROJECTS_PER_THREAD));
+        return service.updateProject(id, null, new UpdateProjectCommand(null, null, ThreadLocalRandom.current().nextInt(1000))).getBody();
+    }
+}
@@ -0,0 +1,45 @@
+package research.service;
+
+import org.openjdk.jmh.annotations.*;
+import research.BenchmarkData;
+import research.criteria.OrderType;
+import research.criteria.ResearchGroupCriteria;
+import research.criteria.ResearchGroupOrderBy;
+import research.model.ResearchGroup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory ordering of the unpaged research group listing. Projects are ordered by the database since paging was added.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SortingBenchmark {
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    @Param({"id", "name", "founded", "budget"})
+    private ResearchGroupOrderBy orderBy;
+
+    @Param({"asc", "desc"})
+    private OrderType orderType;
+
+    private final ResearchGroupSorting researchGroupSorting=new ResearchGroupSorting();
+
+    private List<ResearchGroup> researchGroups;
+    private ResearchGroupCriteria criteria;
+
+    @Setup
+    public void setUp() {
+        researchGroups=BenchmarkData.shuffledResearchGroups(size);
+        criteria=new ResearchGroupCriteria();
+        criteria.setOrderBy(orderBy);
+        criteria.setOrderType(orderType);
+    }
+
+    @Benchmark
+    public List<ResearchGroup> sortResearchGroups() {
+        return researchGroupSorting.sortResearchGroups(researchGroups,criteria);
+    }
+}
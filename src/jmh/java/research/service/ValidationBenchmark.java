@@ -0,0 +1,33 @@
+package research.service;
+
+import org.openjdk.jmh.annotations.*;
+import research.BenchmarkData;
+import research.model.Project;
+import research.model.ResearchGroup;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+    private final Validation validation=new Validation();
+
+    private Project project;
+    private ResearchGroup researchGroup;
+
+    @Setup
+    public void setUp() {
+        project=BenchmarkData.project(42);
+        researchGroup=BenchmarkData.researchGroup(42);
+    }
+
+    @Benchmark
+    public Project validProject() {
+        return validation.validProject(project);
+    }
+
+    @Benchmark
+    public ResearchGroup validResearchGroup() {
+        return validation.validResearchGroup(researchGroup);
+    }
+}
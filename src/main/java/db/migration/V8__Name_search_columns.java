@@ -0,0 +1,55 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Adds the names as the name index stores them, lower-cased and without accents, so a nameLike filter evaluated by the
+ * database matches the same names as the index. The existing rows are filled with a copy of the normalization the
+ * index had when this migration was written, so a later change of the index can't change what this version does.
+ */
+public class V8__Name_search_columns extends BaseJavaMigration {
+    private static final int BATCH_SIZE=500;
+    private static final Pattern COMBINING_MARKS=Pattern.compile("\\p{M}+");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection=context.getConnection();
+        try (Statement statement=connection.createStatement()) {
+            statement.execute("ALTER TABLE projects ADD COLUMN project_name_search VARCHAR(765) NULL");
+            statement.execute("ALTER TABLE research_groups ADD COLUMN researchgroup_name_search VARCHAR(765) NULL");
+        }
+        fill(connection, "projects", "project_name", "project_name_search");
+        fill(connection, "research_groups", "researchgroup_name", "researchgroup_name_search");
+    }
+
+    private void fill(Connection connection, String table, String nameColumn, String searchColumn) throws SQLException {
+        try (Statement select=connection.createStatement();
+             ResultSet rows=select.executeQuery("SELECT id, "+nameColumn+" FROM "+table+" WHERE "+nameColumn+" IS NOT NULL");
+             PreparedStatement update=connection.prepareStatement("UPDATE "+table+" SET "+searchColumn+"=? WHERE id=?")) {
+            int batched=0;
+            while (rows.next()) {
+                update.setString(1, normalize(rows.getString(2)));
+                update.setLong(2, rows.getLong(1));
+                update.addBatch();
+                if(++batched%BATCH_SIZE==0){
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+        }
+    }
+
+    private static String normalize(String name) {
+        String decomposed=Normalizer.normalize(name,Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,21 +1,15 @@
 package research;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// The R2DBC connection factory of the reactive reads is created by ReactiveReadRepository, an auto-configured one
+// would switch off the JDBC DataSource.
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class ResearchApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(ResearchApplication.class, args);
     }
-    @Bean
-    public ModelMapper modelMapper(){
-        ModelMapper modelMapper=new ModelMapper();
-        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
-        return modelMapper;
-    }
 }
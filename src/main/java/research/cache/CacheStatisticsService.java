@@ -0,0 +1,62 @@
+package research.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.stereotype.Service;
+import research.dtos.CacheStatisticsDto;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads the JCache statistics MBeans Ehcache registers for the second-level cache regions,
+ * together with the counters of the query result cache.
+ */
+@Service
+public class CacheStatisticsService {
+    private static final String STATISTICS_QUERY="javax.cache:type=CacheStatistics,*";
+
+    private final MBeanServer mBeanServer=ManagementFactory.getPlatformMBeanServer();
+    private final QueryResultCache queryResultCache;
+
+    public CacheStatisticsService(QueryResultCache queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
+    public List<CacheStatisticsDto> getCacheStatistics() {
+        try {
+            return Stream.concat(
+                            mBeanServer.queryNames(new ObjectName(STATISTICS_QUERY), null).stream().map(this::toCacheStatistics),
+                            Stream.of(queryResultCacheStatistics()))
+                    .sorted(Comparator.comparing(CacheStatisticsDto::getName))
+                    .collect(Collectors.toList());
+        } catch (JMException e) {
+            throw new IllegalStateException("Cache statistics are not available", e);
+        }
+    }
+
+    private CacheStatisticsDto queryResultCacheStatistics() {
+        CacheStats stats=queryResultCache.getStats();
+        return new CacheStatisticsDto(QueryResultCache.NAME, stats.hitCount(), stats.missCount(), stats.loadSuccessCount(),
+                0, stats.evictionCount(), (float) stats.hitRate()*100);
+    }
+
+    private CacheStatisticsDto toCacheStatistics(ObjectName objectName) {
+        try {
+            return new CacheStatisticsDto(
+                    objectName.getKeyProperty("Cache"),
+                    (Long) mBeanServer.getAttribute(objectName, "CacheHits"),
+                    (Long) mBeanServer.getAttribute(objectName, "CacheMisses"),
+                    (Long) mBeanServer.getAttribute(objectName, "CachePuts"),
+                    (Long) mBeanServer.getAttribute(objectName, "CacheRemovals"),
+                    (Long) mBeanServer.getAttribute(objectName, "CacheEvictions"),
+                    (Float) mBeanServer.getAttribute(objectName, "CacheHitPercentage"));
+        } catch (JMException e) {
+            throw new IllegalStateException("Cache statistics are not available for " + objectName, e);
+        }
+    }
+}
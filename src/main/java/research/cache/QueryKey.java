@@ -0,0 +1,15 @@
+package research.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class QueryKey {
+    private long generation;
+    private String query;
+    private List<Object> parameters;
+}
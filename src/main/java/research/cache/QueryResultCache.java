@@ -0,0 +1,66 @@
+package research.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import research.events.ResearchDataChangedEvent;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Results of list queries keyed by the normalized criteria and the data generation.
+ * Every committed mutation starts a new generation, so results read before it are never served again.
+ * The generation is taken before the query runs: a result that may already contain a later commit is
+ * stored under the older generation and simply ages out.
+ */
+@Component
+public class QueryResultCache {
+    public static final String NAME="queryResults";
+
+    private final AtomicLong generation=new AtomicLong();
+    private final boolean enabled;
+    private final Cache<QueryKey, Object> cache;
+
+    public QueryResultCache(@Value("${research.query-cache.enabled:true}") boolean enabled,
+                            @Value("${research.query-cache.maximum-size:1000}") long maximumSize,
+                            @Value("${research.query-cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String query, Supplier<T> loader, Object... parameters) {
+        if(!enabled){
+            return loader.get();
+        }
+        QueryKey key=new QueryKey(generation.get(), query, Arrays.asList(parameters));
+        return (T) cache.get(key, k -> loader.get());
+    }
+
+    @TransactionalEventListener
+    public void onDataChanged(ResearchDataChangedEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+}
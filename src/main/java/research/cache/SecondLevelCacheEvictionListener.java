@@ -0,0 +1,51 @@
+package research.cache;
+
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import research.events.ResearchDataChangedEvent;
+import research.model.Project;
+import research.model.ResearchGroup;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Hibernate keeps cached entities and the owning researchGroupSet current on its own, but not the inverse
+ * projectSet collections or rows changed without loading the entities. Those are evicted here after commit.
+ * The summary columns of the projects change with every link and with every change of a linked research group, only
+ * those projects are evicted. The projects of a deleted research group are evicted by the unlink events published for them.
+ */
+@Component
+public class SecondLevelCacheEvictionListener {
+    public static final String PROJECT_GROUPS_ROLE=Project.class.getName()+".researchGroupSet";
+    public static final String GROUP_PROJECTS_ROLE=ResearchGroup.class.getName()+".projectSet";
+
+    private final Cache cache;
+
+    public SecondLevelCacheEvictionListener(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+
+    @TransactionalEventListener
+    public void evict(ResearchDataChangedEvent event) {
+        switch (event.getChangeType()) {
+            case GROUP_LINKED:
+            case GROUP_UNLINKED:
+                cache.evictEntityData(Project.class, event.getProjectId());
+                cache.evictCollectionData(PROJECT_GROUPS_ROLE, event.getProjectId());
+                cache.evictCollectionData(GROUP_PROJECTS_ROLE, event.getResearchGroupId());
+                break;
+            case PROJECT_DELETED:
+                cache.evictEntityData(Project.class, event.getProjectId());
+                cache.evictCollectionData(PROJECT_GROUPS_ROLE, event.getProjectId());
+                break;
+            case RESEARCH_GROUP_UPDATED:
+                event.getSummaryChangedProjectIds().forEach(projectId -> cache.evictEntityData(Project.class, projectId));
+                break;
+            case RESEARCH_GROUP_DELETED:
+                cache.evictEntityData(ResearchGroup.class, event.getResearchGroupId());
+                cache.evictCollectionData(GROUP_PROJECTS_ROLE, event.getResearchGroupId());
+                break;
+            default:
+        }
+    }
+}
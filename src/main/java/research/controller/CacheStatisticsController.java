@@ -0,0 +1,27 @@
+package research.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import research.cache.CacheStatisticsService;
+import research.dtos.CacheStatisticsDto;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache-statistics")
+public class CacheStatisticsController {
+    private final CacheStatisticsService cacheStatisticsService;
+
+    public CacheStatisticsController(CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @Operation(summary = "Get hit, miss and eviction counters of the entity and collection caches")
+    @GetMapping
+    @Tag(name="21. Read cache statistics")
+    public List<CacheStatisticsDto> getCacheStatistics(){
+        return cacheStatisticsService.getCacheStatistics();
+    }
+}
@@ -0,0 +1,49 @@
+package research.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import research.dtos.ChangeDto;
+import research.service.ChangeFeedService;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @Operation(summary = "Get the changes of projects, research groups and their links after a sequence number")
+    @GetMapping
+    @Tag(name="27. Follow the changes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes in sequence order, empty when there is no newer change"),
+            @ApiResponse(responseCode = "400", description = "The sequence or the size is not valid")
+    })
+    public List<ChangeDto> getChanges(@RequestParam(defaultValue = "0") @Parameter(description = "Sequence of the last change already processed", example = "0") long since,
+                                      @RequestParam(defaultValue = "100") int size){
+        return changeFeedService.getChanges(since,size);
+    }
+
+    @Operation(summary = "Stream the changes after a sequence number as server-sent events, then every new change")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Tag(name="27. Follow the changes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes as events, the event id is the sequence"),
+            @ApiResponse(responseCode = "400", description = "The sequence is not valid")
+    })
+    public Flux<ServerSentEvent<ChangeDto>> streamChanges(@RequestParam(defaultValue = "0") @Parameter(description = "Sequence of the last change already processed", example = "0") long since,
+                                                          @RequestHeader(value = "Last-Event-ID", required = false) @Parameter(description = "Sent by reconnecting clients, overrides since") Long lastEventId){
+        return changeFeedService.streamChanges(lastEventId==null ? since : lastEventId)
+                .map(change -> ServerSentEvent.builder(change).id(String.valueOf(change.getSequence())).build());
+    }
+}
@@ -0,0 +1,33 @@
+package research.controller;
+
+import research.dtos.ChangeToken;
+import research.exceptions.ParameterNotValidException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// The entity tag of a single project or research group is its version, revision and neighbour hash, e.g. "3.7.5f0c2e81a4b3d6c9".
+final class EntityTags {
+    private static final Pattern ENTITY_TAG=Pattern.compile("\"(\\d{1,18})\\.(\\d{1,18})\\.([0-9a-f]{1,16})\"");
+
+    private EntityTags() {
+    }
+
+    static String of(ChangeToken token) {
+        return "\""+token.getVersion()+"."+token.getRevision()+"."+Long.toHexString(token.getNeighbourHash())+"\"";
+    }
+
+    /**
+     * The state an If-Match header requires, null when the header is missing or is {@code *}. The whole tag is compared,
+     * so a link change since the client's read makes the update conflict as well. A tag carries no modification time.
+     */
+    static ChangeToken parseIfMatch(String ifMatch) {
+        if(ifMatch==null || ifMatch.trim().equals("*")){
+            return null;
+        }
+        Matcher matcher=ENTITY_TAG.matcher(ifMatch.trim());
+        if(!matcher.matches()){
+            throw new ParameterNotValidException("If-Match must be a single entity tag, e.g. \"3.7.5f0c2e81a4b3d6c9\"!");
+        }
+        return new ChangeToken(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)), Long.parseUnsignedLong(matcher.group(3), 16), null);
+    }
+}
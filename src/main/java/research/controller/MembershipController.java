@@ -0,0 +1,60 @@
+package research.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.*;
+import research.membership.MembershipService;
+
+@RestController
+@RequestMapping("/api/membership")
+public class MembershipController {
+    private final MembershipService membershipService;
+
+    public MembershipController(MembershipService membershipService) {
+        this.membershipService = membershipService;
+    }
+
+    @Operation(summary = "Get the ids of the research groups of a project")
+    @GetMapping("/projects/{id}/research-groups")
+    @Tag(name="26. Read project - research group membership")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Project has been found"),
+            @ApiResponse(responseCode = "404", description = "No project found with this ID")
+    })
+    public long[] getResearchGroupIdsOfProject(@PathVariable("id") long projectId){
+        return membershipService.getResearchGroupIdsOfProject(projectId);
+    }
+
+    @Operation(summary = "Get the ids of the projects of a research group")
+    @GetMapping("/research-groups/{id}/projects")
+    @Tag(name="26. Read project - research group membership")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Research group has been found"),
+            @ApiResponse(responseCode = "404", description = "No research group found with this ID")
+    })
+    public long[] getProjectIdsOfResearchGroup(@PathVariable("id") long researchGroupId){
+        return membershipService.getProjectIdsOfResearchGroup(researchGroupId);
+    }
+
+    @Operation(summary = "Get the ids of the projects both research groups work on")
+    @GetMapping("/shared-projects")
+    @Tag(name="26. Read project - research group membership")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Both research groups have been found"),
+            @ApiResponse(responseCode = "404", description = "No research group found with one of the IDs")
+    })
+    public long[] getSharedProjectIds(@RequestParam @Parameter(name = "groupId", description = "ID of the first group", example = "1") long groupId,
+                                      @RequestParam @Parameter(name = "otherGroupId", description = "ID of the second group", example = "2") long otherGroupId){
+        return membershipService.getSharedProjectIds(groupId,otherGroupId);
+    }
+
+    @Operation(summary = "Get the ids of the research groups without any project")
+    @GetMapping("/research-groups-without-project")
+    @Tag(name="26. Read project - research group membership")
+    public long[] getResearchGroupIdsWithoutProject(){
+        return membershipService.getResearchGroupIdsWithoutProject();
+    }
+}
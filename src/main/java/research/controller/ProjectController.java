@@ -5,11 +5,24 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import research.criteria.ListView;
 import research.criteria.ProjectCriteria;
 import research.dtos.*;
+import research.search.NameMatch;
+import research.service.BulkCreateService;
+import research.service.GroupLinkService;
+import research.service.ProjectExportService;
 import research.service.ProjectsAndGroupsService;
+import research.service.ReactiveReadService;
+import research.service.ReplicatedReadService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 import javax.validation.Valid;
 import java.util.List;
 
@@ -17,9 +30,19 @@ import java.util.List;
 @RequestMapping("/api/projects")
 public class ProjectController {
     private final ProjectsAndGroupsService projectsAndGroupsService;
+    private final BulkCreateService bulkCreateService;
+    private final ProjectExportService projectExportService;
+    private final GroupLinkService groupLinkService;
+    private final ReactiveReadService reactiveReadService;
+    private final ReplicatedReadService replicatedReadService;
 
-    public ProjectController(ProjectsAndGroupsService projectsAndGroupsService) {
+    public ProjectController(ProjectsAndGroupsService projectsAndGroupsService, BulkCreateService bulkCreateService, ProjectExportService projectExportService, GroupLinkService groupLinkService, ReactiveReadService reactiveReadService, ReplicatedReadService replicatedReadService) {
         this.projectsAndGroupsService = projectsAndGroupsService;
+        this.bulkCreateService = bulkCreateService;
+        this.projectExportService = projectExportService;
+        this.groupLinkService = groupLinkService;
+        this.reactiveReadService = reactiveReadService;
+        this.replicatedReadService = replicatedReadService;
     }
 
     @Operation(summary = "Create project")
@@ -35,34 +58,93 @@ public class ProjectController {
         return projectsAndGroupsService.createProject(createCarCommand);
     }
 
+    @Operation(summary = "Create projects in bulk")
+    @PostMapping("/bulk")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The batch has been processed, the result of each item is listed"),
+            @ApiResponse(responseCode = "400", description = "The batch is empty or too large")
+    })
+    @Tag(name="19. Create projects in bulk")
+    public BulkCreateResultDto createProjects(@RequestBody List<CreateProjectCommand> commands){
+        return bulkCreateService.createProjects(commands);
+    }
+
     @Operation(summary = "Get projects")
     @GetMapping
     @Tag(name="12. Read all or filtered projects")
-    public List<ProjectDto> getProjects(ProjectCriteria projectCriteria){
-        return  projectsAndGroupsService.getProjects(projectCriteria);
+    public List<?> getProjects(ProjectCriteria projectCriteria,
+                               @RequestParam(defaultValue = "full") @Parameter(description = "summary leaves out the research groups of the projects") ListView view){
+        if(view==ListView.summary){
+            return projectsAndGroupsService.getProjectSummaries(projectCriteria);
+        }
+        return  replicatedReadService.getProjects(projectCriteria);
+    }
+
+    @Operation(summary = "Stream all or filtered projects as newline-delimited JSON, read over R2DBC")
+    @GetMapping(value = "/reactive", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Projects matching the criteria, one per line"),
+            @ApiResponse(responseCode = "400", description = "The page or the size is not valid")
+    })
+    @Tag(name="24. Stream filtered projects reactively")
+    public Flux<ProjectDto> getProjectsReactive(ProjectCriteria projectCriteria){
+        return reactiveReadService.getProjects(projectCriteria);
+    }
+
+    @Operation(summary = "Export all projects with their research groups as newline-delimited JSON")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Tag(name="20. Export projects")
+    public ResponseEntity<StreamingResponseBody> exportProjects(){
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(projectExportService::exportProjects);
     }
 
-    @Operation(summary = "Get project by id")
+    @Operation(summary = "Search projects by name, ignoring case and accents")
+    @GetMapping("/search")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching projects ordered by id"),
+            @ApiResponse(responseCode = "400", description = "The name is blank or the size is not valid")
+    })
+    @Tag(name="23. Search projects by name")
+    public List<ProjectWithoutGroupsDto> searchProjects(@RequestParam @Parameter(name = "name", description = "Name or part of the name", example = "sejt") String name, @RequestParam(defaultValue = "SUBSTRING") NameMatch match, @RequestParam(defaultValue = "100") int size){
+        return projectsAndGroupsService.searchProjects(name,match,size);
+    }
+
+    @Operation(summary = "Get project by id, answers If-None-Match and If-Modified-Since with 304 when it hasn't changed")
     @GetMapping("/{id}")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Project has been successfully found"),
+            @ApiResponse(responseCode = "304", description = "Project hasn't changed since the given ETag or date"),
             @ApiResponse(responseCode = "404", description = "No project found with this ID")
     })
     @Tag(name="13. Read project  by id")
-    public ProjectDto getProjectById( @PathVariable("id") long projectId){
-        return projectsAndGroupsService.getProjectById(projectId);
+    public ResponseEntity<ProjectDto> getProjectById( @PathVariable("id") long projectId, WebRequest request){
+        ChangeToken token=replicatedReadService.getProjectToken(projectId);
+        if(request.checkNotModified(EntityTags.of(token), token.getLastModified().toEpochMilli())){
+            return null;
+        }
+        // checkNotModified has already set the ETag and Last-Modified headers
+        return ResponseEntity.ok().body(replicatedReadService.getProjectById(projectId, token));
     }
 
-    @Operation(summary = "Update project by id")
+    @Operation(summary = "Update project by id, only in the state of the ETag in If-Match when it is given")
     @PutMapping("/update/{id}")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Project has been successfully updated"),
             @ApiResponse(responseCode = "400", description = "Problem with input date"),
-            @ApiResponse(responseCode = "404", description = "No project found with this ID")
+            @ApiResponse(responseCode = "404", description = "No project found with this ID"),
+            @ApiResponse(responseCode = "409", description = "Project has been modified, the problem carries its current version")
     })
     @Tag(name="14. Update project")
-    public ProjectDto updateProject(@PathVariable("id") @Parameter(name = "id", description = "Project ID to update", example = "2") long id, @RequestBody UpdateProjectCommand updateProjectCommand){
-        return projectsAndGroupsService.updateProject(id, updateProjectCommand);
+    public ResponseEntity<ProjectDto> updateProject(@PathVariable("id") @Parameter(name = "id", description = "Project ID to update", example = "2") long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "ETag the project must still have", example = "\"0.0.0\"") String ifMatch,
+                                                    @RequestBody UpdateProjectCommand updateProjectCommand){
+        Tagged<ProjectDto> updated=projectsAndGroupsService.updateProject(id, EntityTags.parseIfMatch(ifMatch), updateProjectCommand);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(updated.getToken()))
+                .lastModified(updated.getToken().getLastModified())
+                .body(updated.getBody());
     }
 
     @Operation(summary = "Add a new group to a project")
@@ -102,6 +184,17 @@ public class ProjectController {
         return projectsAndGroupsService.deleteGroupFromProject(projectId,groupId);
     }
 
+    @Operation(summary = "Link and unlink research groups and projects in bulk")
+    @PostMapping("/group-links")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Links have been updated, pairs with unknown ids are listed as rejected"),
+            @ApiResponse(responseCode = "400", description = "The request is empty, too large or adds and removes the same link")
+    })
+    @Tag(name="22. Link and unlink research groups in bulk")
+    public GroupLinksResultDto updateGroupLinks(@RequestBody UpdateGroupLinksCommand updateGroupLinksCommand){
+        return groupLinkService.updateGroupLinks(updateGroupLinksCommand);
+    }
+
     @Operation(summary = "Delete project")
     @DeleteMapping("/delete/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -7,11 +7,21 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import research.criteria.ListView;
 import research.criteria.ResearchGroupCriteria;
 import research.dtos.*;
+import research.search.NameMatch;
+import research.service.BulkCreateService;
 import research.service.ProjectsAndGroupsService;
+import research.service.ReactiveReadService;
+import research.service.ReplicatedReadService;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import javax.validation.Valid;
 import java.util.List;
 
@@ -19,9 +29,15 @@ import java.util.List;
 @RequestMapping("/api/research-groups")
 public class ResearchGroupController {
     private final ProjectsAndGroupsService projectsAndGroupsService;
+    private final BulkCreateService bulkCreateService;
+    private final ReactiveReadService reactiveReadService;
+    private final ReplicatedReadService replicatedReadService;
 
-    public ResearchGroupController(ProjectsAndGroupsService projectsAndGroupsService) {
+    public ResearchGroupController(ProjectsAndGroupsService projectsAndGroupsService, BulkCreateService bulkCreateService, ReactiveReadService reactiveReadService, ReplicatedReadService replicatedReadService) {
         this.projectsAndGroupsService = projectsAndGroupsService;
+        this.bulkCreateService = bulkCreateService;
+        this.reactiveReadService = reactiveReadService;
+        this.replicatedReadService = replicatedReadService;
     }
 
     @Operation(summary = "Create research group")
@@ -37,34 +53,91 @@ public class ResearchGroupController {
         return projectsAndGroupsService.createResearchGroup(createResearchGroupCommand);
     }
 
+    @Operation(summary = "Create research groups in bulk")
+    @PostMapping("/bulk")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The batch has been processed, the result of each item is listed"),
+            @ApiResponse(responseCode = "400", description = "The batch is empty or too large")
+    })
+    @Tag(name="07. Create research groups in bulk")
+    public BulkCreateResultDto createResearchGroups(@RequestBody List<CreateResearchGroupCommand> commands){
+        return bulkCreateService.createResearchGroups(commands);
+    }
+
     @Operation(summary = "Get research groups")
     @GetMapping
     @Tag(name="02. Read all or filtered research groups")
-    public List<ResearchGroupDto> getResearchGroups(ResearchGroupCriteria researchGroupCriteria){
-        return  projectsAndGroupsService.getResearchGroups(researchGroupCriteria);
+    public List<?> getResearchGroups(ResearchGroupCriteria researchGroupCriteria,
+                                     @RequestParam(defaultValue = "full") @Parameter(description = "summary leaves out the projects of the research groups") ListView view){
+        if(view==ListView.summary){
+            return projectsAndGroupsService.getResearchGroupSummaries(researchGroupCriteria);
+        }
+        return  replicatedReadService.getResearchGroups(researchGroupCriteria);
     }
 
-    @Operation(summary = "Get research group by id")
+    @Operation(summary = "Stream all or filtered research groups as newline-delimited JSON, read over R2DBC")
+    @GetMapping(value = "/reactive", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Tag(name="09. Stream filtered research groups reactively")
+    public Flux<ResearchGroupDto> getResearchGroupsReactive(ResearchGroupCriteria researchGroupCriteria){
+        return reactiveReadService.getResearchGroups(researchGroupCriteria);
+    }
+
+    @Operation(summary = "Get research groups page by page")
+    @GetMapping("/page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of research groups, nextCursor is empty on the last page"),
+            @ApiResponse(responseCode = "400", description = "Not valid cursor or page size")
+    })
+    @Tag(name="06. Read research groups page by page")
+    public ResearchGroupPageDto getResearchGroupPage(ResearchGroupCriteria researchGroupCriteria){
+        return  projectsAndGroupsService.getResearchGroupPage(researchGroupCriteria);
+    }
+
+    @Operation(summary = "Search research groups by name, ignoring case and accents")
+    @GetMapping("/search")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Matching research groups ordered by id"),
+            @ApiResponse(responseCode = "400", description = "The name is blank or the size is not valid")
+    })
+    @Tag(name="08. Search research groups by name")
+    public List<ResearchGroupWithoutProjectsDto> searchResearchGroups(@RequestParam @Parameter(name = "name", description = "Name or part of the name", example = "sejt") String name, @RequestParam(defaultValue = "SUBSTRING") NameMatch match, @RequestParam(defaultValue = "100") int size){
+        return projectsAndGroupsService.searchResearchGroups(name,match,size);
+    }
+
+    @Operation(summary = "Get research group by id, answers If-None-Match and If-Modified-Since with 304 when it hasn't changed")
     @GetMapping("/{id}")
     @Tag(name="03. Read research group by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Research group has been found"),
+            @ApiResponse(responseCode = "304", description = "Research group hasn't changed since the given ETag or date"),
             @ApiResponse(responseCode = "404", description = "No research group found with this ID")
     })
-    public ResearchGroupDto getResearchGroupById(@PathVariable("id") long id){
-        return projectsAndGroupsService.getResearchGroupById(id);
+    public ResponseEntity<ResearchGroupDto> getResearchGroupById(@PathVariable("id") long id, WebRequest request){
+        ChangeToken token=replicatedReadService.getResearchGroupToken(id);
+        if(request.checkNotModified(EntityTags.of(token), token.getLastModified().toEpochMilli())){
+            return null;
+        }
+        // checkNotModified has already set the ETag and Last-Modified headers
+        return ResponseEntity.ok().body(replicatedReadService.getResearchGroupById(id, token));
     }
 
-    @Operation(summary = "Update research group by id")
+    @Operation(summary = "Update research group by id, only in the state of the ETag in If-Match when it is given")
     @PutMapping("/update/{id}")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Research group has been updated"),
             @ApiResponse(responseCode = "400", description = "Problem with input date"),
-            @ApiResponse(responseCode = "404", description = "No research group found with this ID")
+            @ApiResponse(responseCode = "404", description = "No research group found with this ID"),
+            @ApiResponse(responseCode = "409", description = "Research group has been modified, the problem carries its current version")
     })
     @Tag(name="04. Update research group")
-    public ResearchGroupDto updateResearchGroupById(@PathVariable("id") @Parameter(name = "id", description = "Research group ID to update", example = "2") long id, @RequestBody UpdateResearchGroupCommand updateResearchGroupCommand){
-        return projectsAndGroupsService.updateResearchGroupById(id, updateResearchGroupCommand);
+    public ResponseEntity<ResearchGroupDto> updateResearchGroupById(@PathVariable("id") @Parameter(name = "id", description = "Research group ID to update", example = "2") long id,
+                                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "ETag the research group must still have", example = "\"0.0.0\"") String ifMatch,
+                                                                    @RequestBody UpdateResearchGroupCommand updateResearchGroupCommand){
+        Tagged<ResearchGroupDto> updated=projectsAndGroupsService.updateResearchGroupById(id, EntityTags.parseIfMatch(ifMatch), updateResearchGroupCommand);
+        return ResponseEntity.ok()
+                .eTag(EntityTags.of(updated.getToken()))
+                .lastModified(updated.getToken().getLastModified())
+                .body(updated.getBody());
     }
 
     @Operation(summary = "Delete research group")
@@ -0,0 +1,44 @@
+package research.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import research.dtos.ProjectParticipationDto;
+import research.dtos.StatisticsDto;
+import research.service.StatisticsService;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/statistics")
+public class StatisticsController {
+    private final StatisticsService statisticsService;
+
+    public StatisticsController(StatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
+    @Operation(summary = "Get budget and researcher totals per location, projects per start year and projects per number of research groups")
+    @GetMapping
+    @Tag(name="25. Read statistics")
+    public StatisticsDto getStatistics(){
+        return statisticsService.getStatistics();
+    }
+
+    @Operation(summary = "Get the number of research groups of each project, page by page in id order")
+    @GetMapping("/project-participations")
+    @Tag(name="25. Read statistics")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "One page of projects with the number of their research groups"),
+            @ApiResponse(responseCode = "400", description = "The page or the size is not valid")
+    })
+    public List<ProjectParticipationDto> getProjectParticipations(@RequestParam(defaultValue = "0") @Parameter(description = "Zero based page number", example = "0") int page,
+                                                                  @RequestParam(defaultValue = "100") int size){
+        return statisticsService.getProjectParticipations(page,size);
+    }
+}
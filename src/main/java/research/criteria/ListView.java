@@ -0,0 +1,5 @@
+package research.criteria;
+
+public enum ListView {
+    full,summary
+}
@@ -12,11 +12,20 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProjectCriteria {
+    public static final int DEFAULT_PAGE_SIZE=100;
+    public static final int MAX_PAGE_SIZE=1000;
+
     private String nameLike="";
     private LocalDate startBefore=Project.LAST_DATE;
     private LocalDate startAfter=Project.FIRST_DATE;
     private int minBudget=0;
+    private int minGroupCount=0;
+    private long minGroupBudget=0;
+    private int minResearcherCount=0;
 
     private ProjectOrderBy orderBy=ProjectOrderBy.id;
     private OrderType orderType=OrderType.asc;
+
+    private int page=0;
+    private int size=DEFAULT_PAGE_SIZE;
 }
@@ -1,5 +1,5 @@
 package research.criteria;
 
 public enum ProjectOrderBy {
-    id,name,startDate,budget
+    id,name,startDate,budget,groupCount,groupBudget,researcherCount
 }
@@ -10,10 +10,16 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ResearchGroupCriteria {
+    public static final int DEFAULT_PAGE_SIZE=100;
+    public static final int MAX_PAGE_SIZE=1000;
+
     private String nameLike="";
     private int minCountOfResearchers=0;
     private int minBudget=0;
 
     private ResearchGroupOrderBy orderBy=ResearchGroupOrderBy.id;
     private OrderType orderType=OrderType.asc;
-}
\ No newline at end of file
+
+    private String cursor;
+    private int size=DEFAULT_PAGE_SIZE;
+}
@@ -0,0 +1,63 @@
+package research.criteria;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import research.exceptions.ParameterNotValidException;
+import research.model.ResearchGroup;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position of the last research group of a page: the sort key and the id of that group.
+ * Clients get it as an opaque string and send it back to read the next page.
+ */
+@Getter
+@AllArgsConstructor
+public class ResearchGroupCursor {
+    private static final String SEPARATOR="|";
+
+    private ResearchGroupOrderBy orderBy;
+    private OrderType orderType;
+    private String key;
+    private long id;
+
+    public static ResearchGroupCursor after(ResearchGroup researchGroup, ResearchGroupOrderBy orderBy, OrderType orderType) {
+        String key;
+        switch (orderBy) {
+            case name: key=researchGroup.getName(); break;
+            case founded: key=researchGroup.getFounded().toString(); break;
+            case countOfResearchers: key=Integer.toString(researchGroup.getCountOfResearchers()); break;
+            case budget: key=Integer.toString(researchGroup.getBudget()); break;
+            default: key="";
+        }
+        return new ResearchGroupCursor(orderBy, orderType, key, researchGroup.getId());
+    }
+
+    public static ResearchGroupCursor decode(String cursor) {
+        try {
+            String decoded=new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts=decoded.split("\\|", 4);
+            ResearchGroupCursor result=new ResearchGroupCursor(ResearchGroupOrderBy.valueOf(parts[0]), OrderType.valueOf(parts[1]), parts[3], Long.parseLong(parts[2]));
+            result.keyValue();
+            return result;
+        } catch (RuntimeException e) {
+            throw new ParameterNotValidException("Cursor is not valid!");
+        }
+    }
+
+    public String encode() {
+        String raw=orderBy.name()+SEPARATOR+orderType.name()+SEPARATOR+id+SEPARATOR+key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Object keyValue() {
+        switch (orderBy) {
+            case name: return key;
+            case founded: return LocalDate.parse(key);
+            case countOfResearchers:
+            case budget: return Integer.valueOf(key);
+            default: return null;
+        }
+    }
+}
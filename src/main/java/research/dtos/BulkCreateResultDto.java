@@ -0,0 +1,18 @@
+package research.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateResultDto {
+    private int created;
+    private int rejected;
+    private List<BulkItemResultDto> items = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package research.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDto {
+    private int index;
+    private BulkItemStatus status;
+    private Long id;
+    private String message;
+}
@@ -0,0 +1,5 @@
+package research.dtos;
+
+public enum BulkItemStatus {
+    CREATED,NOT_VALID,ALREADY_EXISTS
+}
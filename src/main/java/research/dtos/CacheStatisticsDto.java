@@ -0,0 +1,20 @@
+package research.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatisticsDto {
+    private String name;
+    private long hits;
+    private long misses;
+    private long puts;
+    private long removals;
+    private long evictions;
+    private float hitPercentage;
+}
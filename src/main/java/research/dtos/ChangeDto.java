@@ -0,0 +1,26 @@
+package research.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import research.events.ChangeType;
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeDto {
+    @Schema(description = "Position of the change in the feed, consecutive, in commit order",example ="42")
+    private long sequence;
+    @Schema(description = "Kind of the change",example ="GROUP_LINKED")
+    private ChangeType changeType;
+    @Schema(description = "ID of the project, null for research group changes",example ="2")
+    private Long projectId;
+    @Schema(description = "ID of the research group, null for project changes",example ="1")
+    private Long researchGroupId;
+    @Schema(description = "Time of the change",example ="2022-08-19T10:15:30.123Z")
+    private Instant changedAt;
+}
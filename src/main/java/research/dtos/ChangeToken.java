@@ -0,0 +1,60 @@
+package research.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.time.Instant;
+
+/**
+ * State of a single project or research group as far as its representation is concerned. The version changes with
+ * the entity's own fields, the revision and the last modification time of its row with its own fields and its links.
+ * The fields of the linked entities are taken in when the token is read: the neighbour hash covers their ids and
+ * versions, and the last modification time is the latest of the entity and its neighbours. So a change never has to
+ * write the rows of the neighbours.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangeToken {
+    private long version;
+    private long revision;
+    private long neighbourHash;
+    private Instant lastModified;
+
+    public static Builder builder(long version, long revision, Instant lastModified) {
+        return new Builder(version, revision, lastModified);
+    }
+
+    public boolean isSameState(ChangeToken other) {
+        return version==other.version && revision==other.revision && neighbourHash==other.neighbourHash;
+    }
+
+    /**
+     * Takes the linked entities in ascending id order, the database and the read replica build the same token this way.
+     */
+    public static final class Builder {
+        private static final long MULTIPLIER=0x9E3779B97F4A7C15L;
+
+        private final long version;
+        private final long revision;
+        private long neighbourHash;
+        private Instant lastModified;
+
+        private Builder(long version, long revision, Instant lastModified) {
+            this.version = version;
+            this.revision = revision;
+            this.lastModified = lastModified;
+        }
+
+        public Builder neighbour(long id, long version, Instant lastModified) {
+            neighbourHash=Long.rotateLeft((neighbourHash^id)*MULTIPLIER, 31);
+            neighbourHash=Long.rotateLeft((neighbourHash^version)*MULTIPLIER, 31)|1;
+            if(lastModified.isAfter(this.lastModified)){
+                this.lastModified=lastModified;
+            }
+            return this;
+        }
+
+        public ChangeToken build() {
+            return new ChangeToken(version, revision, neighbourHash, lastModified);
+        }
+    }
+}
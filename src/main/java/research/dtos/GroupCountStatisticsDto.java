@@ -0,0 +1,15 @@
+package research.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupCountStatisticsDto {
+    private Integer researchGroupCount;
+    private Long projectCount;
+}
@@ -0,0 +1,20 @@
+package research.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class GroupLinkDto {
+    @Schema(description = "ID of the project",example ="2")
+    private long projectId;
+    @Schema(description = "ID of the research group",example ="1")
+    private long researchGroupId;
+}
@@ -0,0 +1,19 @@
+package research.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupLinksResultDto {
+    private int added;
+    private int removed;
+    private int unchanged;
+    private List<GroupLinkDto> rejected = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package research.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import research.model.Location;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationStatisticsDto {
+    private Location location;
+    private Long researchGroupCount;
+    private Long totalBudget;
+    private Double averageBudget;
+    private Long totalResearchers;
+}
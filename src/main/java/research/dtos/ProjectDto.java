@@ -15,9 +15,13 @@ import java.util.Set;
 @AllArgsConstructor
 public class ProjectDto {
     private Long id;
+    private long version;
     private String name;
     private LocalDate startDate;
     private int budget;
+    private int groupCount;
+    private long groupBudget;
+    private int researcherCount;
     private Set<ResearchGroupWithoutProjectsDto> researchGroupSet = new HashSet<>();
 
     @Override
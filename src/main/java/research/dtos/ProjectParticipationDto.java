@@ -0,0 +1,16 @@
+package research.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectParticipationDto {
+    private Long projectId;
+    private String name;
+    private Integer researchGroupCount;
+}
@@ -16,6 +16,7 @@ import java.util.Set;
 @AllArgsConstructor
 public class ResearchGroupDto {
     private Long id;
+    private long version;
     private String name;
     private LocalDate founded;
     private int countOfResearchers;
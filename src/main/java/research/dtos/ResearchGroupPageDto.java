@@ -0,0 +1,17 @@
+package research.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResearchGroupPageDto {
+    private List<ResearchGroupDto> content = new ArrayList<>();
+    private String nextCursor;
+}
@@ -0,0 +1,16 @@
+package research.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StartYearStatisticsDto {
+    private Integer year;
+    private Long projectCount;
+    private Long totalBudget;
+}
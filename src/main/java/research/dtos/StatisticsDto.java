@@ -0,0 +1,18 @@
+package research.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatisticsDto {
+    private List<LocationStatisticsDto> locations=new ArrayList<>();
+    private List<StartYearStatisticsDto> startYears=new ArrayList<>();
+    private List<GroupCountStatisticsDto> groupCounts=new ArrayList<>();
+}
@@ -0,0 +1,15 @@
+package research.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A representation together with the change token of the state it was built from, the response takes its ETag and
+ * Last-Modified from the token.
+ */
+@Getter
+@AllArgsConstructor
+public class Tagged<T> {
+    private T body;
+    private ChangeToken token;
+}
@@ -0,0 +1,20 @@
+package research.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateGroupLinksCommand {
+    @Schema(description = "Project - research group pairs to link")
+    private List<GroupLinkDto> add = new ArrayList<>();
+    @Schema(description = "Project - research group pairs to unlink")
+    private List<GroupLinkDto> remove = new ArrayList<>();
+}
@@ -0,0 +1,7 @@
+package research.events;
+
+public enum ChangeType {
+    PROJECT_CREATED,PROJECT_UPDATED,PROJECT_DELETED,
+    RESEARCH_GROUP_CREATED,RESEARCH_GROUP_UPDATED,RESEARCH_GROUP_DELETED,
+    GROUP_LINKED,GROUP_UNLINKED
+}
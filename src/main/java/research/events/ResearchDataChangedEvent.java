@@ -0,0 +1,42 @@
+package research.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+
+/**
+ * Published by the service for every mutation of projects, research groups and their links.
+ * Listeners that keep derived data (caches, indexes) up to date react to it after the transaction commits.
+ * {@code nameChanged} tells whether the entity got a new name: always when it is created, on an update only when the
+ * name differs from the old one. {@code summaryChangedProjectIds} lists the projects whose summary columns an update of
+ * a research group changed, it is empty for every other change.
+ */
+@Getter
+@AllArgsConstructor
+public class ResearchDataChangedEvent {
+    private ChangeType changeType;
+    private Long projectId;
+    private Long researchGroupId;
+    private boolean nameChanged;
+    private List<Long> summaryChangedProjectIds;
+
+    public static ResearchDataChangedEvent ofProject(ChangeType changeType, long projectId) {
+        return new ResearchDataChangedEvent(changeType, projectId, null, changeType==ChangeType.PROJECT_CREATED, List.of());
+    }
+
+    public static ResearchDataChangedEvent ofResearchGroup(ChangeType changeType, long researchGroupId) {
+        return new ResearchDataChangedEvent(changeType, null, researchGroupId, changeType==ChangeType.RESEARCH_GROUP_CREATED, List.of());
+    }
+
+    public static ResearchDataChangedEvent ofUpdatedProject(long projectId, boolean nameChanged) {
+        return new ResearchDataChangedEvent(ChangeType.PROJECT_UPDATED, projectId, null, nameChanged, List.of());
+    }
+
+    public static ResearchDataChangedEvent ofUpdatedResearchGroup(long researchGroupId, boolean nameChanged, List<Long> summaryChangedProjectIds) {
+        return new ResearchDataChangedEvent(ChangeType.RESEARCH_GROUP_UPDATED, null, researchGroupId, nameChanged, summaryChangedProjectIds);
+    }
+
+    public static ResearchDataChangedEvent ofLink(ChangeType changeType, long projectId, long researchGroupId) {
+        return new ResearchDataChangedEvent(changeType, projectId, researchGroupId, false, List.of());
+    }
+}
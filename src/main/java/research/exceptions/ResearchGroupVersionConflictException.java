@@ -0,0 +1,18 @@
+package research.exceptions;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+import java.net.URI;
+import java.util.Map;
+
+public class ResearchGroupVersionConflictException extends AbstractThrowableProblem {
+    public ResearchGroupVersionConflictException(long id, long currentVersion) {
+        super(URI.create("research-groups/version-conflict"),
+                "Version Conflict",
+                Status.CONFLICT,
+                String.format("Research group with id: %d has been modified, current version: %d", id, currentVersion),
+                null,
+                null,
+                Map.of("currentVersion", currentVersion));
+    }
+}
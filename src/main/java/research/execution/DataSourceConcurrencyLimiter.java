@@ -0,0 +1,34 @@
+package research.execution;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts the {@link ConcurrencyLimitingDataSource} in front of the connection pool when
+ * {@code research.execution.database-concurrency} is positive. In the virtual thread mode the limit defaults
+ * to the pool size, so the unbounded number of request threads queue in front of the pool instead of inside it.
+ */
+@Component
+public class DataSourceConcurrencyLimiter implements BeanPostProcessor {
+    private final int maxConcurrency;
+    private final Duration acquireTimeout;
+
+    public DataSourceConcurrencyLimiter(@Value("${research.execution.database-concurrency:0}") int maxConcurrency,
+                                        @Value("${research.execution.database-acquire-timeout:PT30S}") Duration acquireTimeout,
+                                        @Value("${research.execution.virtual-threads:false}") boolean virtualThreads,
+                                        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        this.maxConcurrency = maxConcurrency==0 && virtualThreads ? poolSize : maxConcurrency;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if(maxConcurrency>0 && bean instanceof DataSource && !(bean instanceof ConcurrencyLimitingDataSource)){
+            return new ConcurrencyLimitingDataSource((DataSource) bean, maxConcurrency, acquireTimeout);
+        }
+        return bean;
+    }
+}
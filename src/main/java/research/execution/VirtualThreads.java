@@ -0,0 +1,30 @@
+package research.execution;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The project is still compiled for Java 17, so the virtual thread executor is looked up at runtime.
+ * The jar built here uses virtual threads when it runs on Java 21 or newer.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return Runtime.version().feature()>=21;
+    }
+
+    static ExecutorService newThreadPerTaskExecutor() {
+        if(!isSupported()){
+            throw new IllegalStateException("Virtual threads need Java 21 or newer, the application runs on Java "+Runtime.version().feature()+"!");
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Virtual thread executor can't be created", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package research.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+import org.mapstruct.ReportingPolicy;
+import research.dtos.*;
+import research.model.Project;
+import research.model.ResearchGroup;
+import java.util.List;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface ProjectsAndGroupsMapper {
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "researchGroupSet", ignore = true)
+    @Mapping(target = "groupCount", ignore = true)
+    @Mapping(target = "groupBudget", ignore = true)
+    @Mapping(target = "researcherCount", ignore = true)
+    Project toProject(CreateProjectCommand createProjectCommand);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "projectSet", ignore = true)
+    ResearchGroup toResearchGroup(CreateResearchGroupCommand createResearchGroupCommand);
+
+    ProjectDto toProjectDto(Project project);
+
+    List<ProjectDto> toProjectDtos(List<Project> projects);
+
+    @Named("withoutResearchGroups")
+    @Mapping(target = "researchGroupSet", ignore = true)
+    ProjectDto toProjectDtoWithoutResearchGroups(Project project);
+
+    ProjectWithoutGroupsDto toProjectWithoutGroupsDto(Project project);
+
+    ResearchGroupDto toResearchGroupDto(ResearchGroup researchGroup);
+
+    List<ResearchGroupDto> toResearchGroupDtos(List<ResearchGroup> researchGroups);
+
+    ResearchGroupWithoutProjectsDto toResearchGroupWithoutProjectsDto(ResearchGroup researchGroup);
+}
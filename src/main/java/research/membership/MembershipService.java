@@ -0,0 +1,70 @@
+package research.membership;
+
+import org.springframework.stereotype.Service;
+import research.exceptions.ProjectNotFoundException;
+import research.exceptions.ResearchGroupNotFoundException;
+import research.replica.GraphSnapshot;
+import research.replica.ReadReplica;
+import research.repository.GroupLinkRepository;
+import research.repository.ProjectsRepository;
+import research.repository.ResearchGroupsRepository;
+import java.util.List;
+
+/**
+ * Answers membership questions without loading entities: from the snapshot of the {@link ReadReplica}, which keeps the
+ * links in both directions as sorted id arrays, or from the join table when the replica is off. While a committed
+ * change is not applied to the snapshot yet the join table answers as well, so a client always reads its own changes.
+ */
+@Service
+public class MembershipService {
+    private final ReadReplica readReplica;
+    private final GroupLinkRepository groupLinkRepository;
+    private final ProjectsRepository projectsRepository;
+    private final ResearchGroupsRepository researchGroupsRepository;
+
+    public MembershipService(ReadReplica readReplica, GroupLinkRepository groupLinkRepository,
+                             ProjectsRepository projectsRepository, ResearchGroupsRepository researchGroupsRepository) {
+        this.readReplica = readReplica;
+        this.groupLinkRepository = groupLinkRepository;
+        this.projectsRepository = projectsRepository;
+        this.researchGroupsRepository = researchGroupsRepository;
+    }
+
+    public long[] getResearchGroupIdsOfProject(long projectId) {
+        GraphSnapshot snapshot=readReplica.getSnapshotInSync();
+        if(!(snapshot==null ? projectsRepository.existsById(projectId) : snapshot.containsProject(projectId))){
+            throw new ProjectNotFoundException(projectId);
+        }
+        return snapshot==null ? toArray(groupLinkRepository.findResearchGroupIdsOfProject(projectId)) : snapshot.researchGroupIdsOf(projectId);
+    }
+
+    public long[] getProjectIdsOfResearchGroup(long researchGroupId) {
+        GraphSnapshot snapshot=readReplica.getSnapshotInSync();
+        checkResearchGroup(snapshot, researchGroupId);
+        return snapshot==null ? toArray(groupLinkRepository.findProjectIdsOfResearchGroup(researchGroupId)) : snapshot.projectIdsOf(researchGroupId);
+    }
+
+    public long[] getSharedProjectIds(long researchGroupId, long otherResearchGroupId) {
+        GraphSnapshot snapshot=readReplica.getSnapshotInSync();
+        checkResearchGroup(snapshot, researchGroupId);
+        checkResearchGroup(snapshot, otherResearchGroupId);
+        return snapshot==null
+                ? toArray(groupLinkRepository.findSharedProjectIds(researchGroupId, otherResearchGroupId))
+                : snapshot.sharedProjectIds(researchGroupId, otherResearchGroupId);
+    }
+
+    public long[] getResearchGroupIdsWithoutProject() {
+        GraphSnapshot snapshot=readReplica.getSnapshotInSync();
+        return snapshot==null ? toArray(groupLinkRepository.findResearchGroupIdsWithoutProject()) : snapshot.researchGroupIdsWithoutProject();
+    }
+
+    private void checkResearchGroup(GraphSnapshot snapshot, long researchGroupId) {
+        if(!(snapshot==null ? researchGroupsRepository.existsById(researchGroupId) : snapshot.containsResearchGroup(researchGroupId))){
+            throw new ResearchGroupNotFoundException(researchGroupId);
+        }
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,75 @@
+package research.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Times every executed statement by its kind and counts the rows read from the result sets,
+ * both in total and for the current request ({@link RequestJdbcUsage}).
+ */
+@Component
+public class JdbcMetrics implements QueryExecutionListener, MethodExecutionListener {
+    private static final List<String> STATEMENT_KINDS=List.of("select","insert","update","delete","other");
+
+    private final Map<String, Timer> statementTimers;
+    private final Counter rowCounter;
+
+    public JdbcMetrics(MeterRegistry meterRegistry) {
+        this.statementTimers = STATEMENT_KINDS.stream()
+                .collect(Collectors.toMap(Function.identity(), kind -> Timer.builder("research.jdbc.statements")
+                        .description("Execution time of the JDBC statements")
+                        .tag("kind", kind)
+                        .register(meterRegistry)));
+        this.rowCounter = Counter.builder("research.jdbc.rows")
+                .description("Rows read from JDBC result sets")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String query=queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        statementTimers.get(kind(query)).record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+        RequestJdbcUsage.statementExecuted();
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if(executionContext.getTarget() instanceof ResultSet && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())){
+            rowCounter.increment();
+            RequestJdbcUsage.rowRead();
+        }
+    }
+
+    private String kind(String query) {
+        String start=query.stripLeading();
+        int end=0;
+        while (end<start.length() && Character.isLetter(start.charAt(end))) {
+            end++;
+        }
+        String keyword=start.substring(0,end).toLowerCase(Locale.ROOT);
+        return statementTimers.containsKey(keyword) ? keyword : "other";
+    }
+}
@@ -0,0 +1,96 @@
+package research.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Routes the statements and result sets of the DataSource through {@link JdbcMetrics} and {@link SlowQueryLog}. It wraps
+ * the pool before the concurrency limiter does, and looks the listeners up once, on the first statement, so the meter
+ * registry isn't created while the post-processors are still being registered.
+ */
+@Component
+public class JdbcMetricsDataSourceWrapper implements BeanPostProcessor, Ordered {
+    private final ObjectProvider<JdbcMetrics> jdbcMetricsProvider;
+    private final ObjectProvider<SlowQueryLog> slowQueryLogProvider;
+
+    public JdbcMetricsDataSourceWrapper(ObjectProvider<JdbcMetrics> jdbcMetricsProvider, ObjectProvider<SlowQueryLog> slowQueryLogProvider) {
+        this.jdbcMetricsProvider = jdbcMetricsProvider;
+        this.slowQueryLogProvider = slowQueryLogProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if(bean instanceof DataSource && !(bean instanceof ProxyDataSource)){
+            LazyListener listener=new LazyListener();
+            return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                    .listener(listener)
+                    .methodListener(listener)
+                    .proxyResultSet()
+                    .build();
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    private class LazyListener implements QueryExecutionListener, MethodExecutionListener {
+        private volatile JdbcMetrics jdbcMetrics;
+        private volatile SlowQueryLog slowQueryLog;
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            jdbcMetrics().afterQuery(execInfo, queryInfoList);
+            slowQueryLog().afterQuery(execInfo, queryInfoList);
+        }
+
+        @Override
+        public void beforeMethod(MethodExecutionContext executionContext) {
+        }
+
+        // Called for every JDBC method, only ResultSet.next is counted.
+        @Override
+        public void afterMethod(MethodExecutionContext executionContext) {
+            if(!(executionContext.getTarget() instanceof ResultSet) || !"next".equals(executionContext.getMethod().getName())){
+                return;
+            }
+            jdbcMetrics().afterMethod(executionContext);
+        }
+
+        private JdbcMetrics jdbcMetrics() {
+            JdbcMetrics resolved=jdbcMetrics;
+            if(resolved==null){
+                resolved=jdbcMetricsProvider.getObject();
+                jdbcMetrics=resolved;
+            }
+            return resolved;
+        }
+
+        private SlowQueryLog slowQueryLog() {
+            SlowQueryLog resolved=slowQueryLog;
+            if(resolved==null){
+                resolved=slowQueryLogProvider.getObject();
+                slowQueryLog=resolved;
+            }
+            return resolved;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package research.metrics;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration(proxyBeanMethods = false)
+public class MetricsConfig implements WebMvcConfigurer {
+    private final RequestMetricsInterceptor requestMetricsInterceptor;
+
+    public MetricsConfig(RequestMetricsInterceptor requestMetricsInterceptor) {
+        this.requestMetricsInterceptor = requestMetricsInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestMetricsInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,47 @@
+package research.metrics;
+
+/**
+ * JDBC statements executed and rows read on the thread of the current request. Work that continues on another
+ * thread (asynchronous responses) isn't counted.
+ */
+public final class RequestJdbcUsage {
+    private static final ThreadLocal<RequestJdbcUsage> CURRENT=new ThreadLocal<>();
+
+    private long statements;
+    private long rows;
+
+    private RequestJdbcUsage() {
+    }
+
+    static void start() {
+        CURRENT.set(new RequestJdbcUsage());
+    }
+
+    static RequestJdbcUsage end() {
+        RequestJdbcUsage usage=CURRENT.get();
+        CURRENT.remove();
+        return usage;
+    }
+
+    static void statementExecuted() {
+        RequestJdbcUsage usage=CURRENT.get();
+        if(usage!=null){
+            usage.statements++;
+        }
+    }
+
+    static void rowRead() {
+        RequestJdbcUsage usage=CURRENT.get();
+        if(usage!=null){
+            usage.rows++;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,52 @@
+package research.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records the number of statements and rows of every request, tagged like the {@code http.server.requests} timers.
+ */
+@Component
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+    private final MeterRegistry meterRegistry;
+
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestJdbcUsage.start();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestJdbcUsage.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestJdbcUsage usage=RequestJdbcUsage.end();
+        if(usage==null){
+            return;
+        }
+        Object pattern=request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri=pattern==null ? "UNKNOWN" : pattern.toString();
+        summary("research.request.statements", "JDBC statements executed by a request", request.getMethod(), uri).record(usage.getStatements());
+        summary("research.request.rows", "Rows read by a request", request.getMethod(), uri).record(usage.getRows());
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+}
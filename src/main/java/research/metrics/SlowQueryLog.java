@@ -0,0 +1,129 @@
+package research.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Logs the statements slower than the threshold, and a sampled fraction of all statements, with a summary of their
+ * bind parameters and the application method that issued them. The request thread only builds the entry and offers it
+ * to a bounded queue, a single background thread writes the log; entries that don't fit in the queue are dropped and counted.
+ */
+@Slf4j
+@Component
+public class SlowQueryLog {
+    private static final int MAX_PARAMETERS=10;
+    private static final int MAX_VALUE_LENGTH=50;
+
+    private final long thresholdMillis;
+    private final double sampleRate;
+    private final BlockingQueue<String> queue;
+    private final Counter droppedCounter;
+
+    private Thread writer;
+
+    public SlowQueryLog(@Value("${research.slow-query-log.threshold:PT0.5S}") Duration threshold,
+                        @Value("${research.slow-query-log.sample-rate:0}") double sampleRate,
+                        @Value("${research.slow-query-log.queue-capacity:1000}") int queueCapacity,
+                        MeterRegistry meterRegistry) {
+        this.thresholdMillis = threshold.toMillis();
+        this.sampleRate = sampleRate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.droppedCounter = Counter.builder("research.slow-query-log.dropped")
+                .description("Slow or sampled statements not logged because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer=new Thread(this::writeEntries, "slow-query-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        writer.interrupt();
+        writer.join(1000);
+    }
+
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        boolean slow=execInfo.getElapsedTime()>=thresholdMillis;
+        if(!slow && (sampleRate<=0 || ThreadLocalRandom.current().nextDouble()>=sampleRate)){
+            return;
+        }
+        String entry=String.format("%s statement, %d ms, from %s: %s %s",
+                slow ? "Slow" : "Sampled", execInfo.getElapsedTime(), caller(),
+                queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")),
+                parameters(execInfo, queryInfoList));
+        if(!queue.offer(entry)){
+            droppedCounter.increment();
+        }
+    }
+
+    private void writeEntries() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                log.warn(queue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<String> remaining=new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(log::warn);
+    }
+
+    // The first frame of the application outside the JDBC observation, preferably a service method.
+    private String caller() {
+        List<StackWalker.StackFrame> frames=StackWalker.getInstance().walk(stream -> stream
+                .filter(frame -> frame.getClassName().startsWith("research.")
+                        && !frame.getClassName().startsWith("research.metrics.")
+                        && !frame.getClassName().startsWith("research.execution."))
+                .collect(Collectors.toList()));
+        return frames.stream()
+                .filter(frame -> frame.getClassName().startsWith("research.service."))
+                .findFirst()
+                .or(() -> frames.stream().findFirst())
+                .map(frame -> simpleName(frame.getClassName())+"."+frame.getMethodName())
+                .orElse("unknown");
+    }
+
+    private String simpleName(String className) {
+        int proxySuffix=className.indexOf("$$");
+        return className.substring(className.lastIndexOf('.')+1, proxySuffix<0 ? className.length() : proxySuffix);
+    }
+
+    private String parameters(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if(queryInfoList.isEmpty() || queryInfoList.get(0).getParametersList().isEmpty()){
+            return "";
+        }
+        List<List<ParameterSetOperation>> parametersList=queryInfoList.get(0).getParametersList();
+        String first=parametersList.get(0).stream()
+                .limit(MAX_PARAMETERS)
+                .map(operation -> value(operation.getArgs().length>1 ? operation.getArgs()[1] : null))
+                .collect(Collectors.joining(", ", "[", parametersList.get(0).size()>MAX_PARAMETERS ? ", ...]" : "]"));
+        return execInfo.isBatch() && parametersList.size()>1
+                ? String.format("batch of %d, first parameters %s", parametersList.size(), first)
+                : "parameters "+first;
+    }
+
+    private String value(Object value) {
+        String text=String.valueOf(value);
+        return text.length()>MAX_VALUE_LENGTH ? text.substring(0,MAX_VALUE_LENGTH)+"..." : text;
+    }
+}
@@ -1,9 +1,14 @@
 package research.model;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import research.search.NameIndex;
+import org.hibernate.annotations.OptimisticLock;
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.util.HashSet;
@@ -15,6 +20,8 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name="projects")
 public class Project {
     public static final LocalDate FIRST_DATE=LocalDate.of(1899, 12, 31);
@@ -23,21 +30,56 @@ public class Project {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @Version
+    private long version;
     @Column(name="project_name")
     private String name;
+    // The name as the name index stores it, for the nameLike filters the database evaluates.
+    @Setter(AccessLevel.NONE)
+    @Column(name="project_name_search")
+    private String nameSearch;
     private LocalDate startDate;
     private int budget;
+    // Maintained by ProjectSummaryRepository with relative updates, Hibernate never writes them.
+    @Column(insertable = false, updatable = false)
+    private int groupCount;
+    @Column(insertable = false, updatable = false)
+    private long groupBudget;
+    @Column(insertable = false, updatable = false)
+    private int researcherCount;
+    // Linking and unlinking groups doesn't conflict with updates of the project's own fields.
+    @OptimisticLock(excluded = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany
     @JoinTable(name="project_researchgroup",
             joinColumns=@JoinColumn(name="project_ID"),
             inverseJoinColumns=@JoinColumn(name="researchgroup_ID"))
     private Set<ResearchGroup> researchGroupSet = new HashSet<>();
 
-    public void addGroup(ResearchGroup researchGroup){
-        researchGroupSet.add(researchGroup);
+    public boolean addGroup(ResearchGroup researchGroup){
+        if(!researchGroupSet.add(researchGroup)){
+            return false;
+        }
+        changeSummary(researchGroup,1);
+        return true;
     }
-    public void removeGroup(ResearchGroup researchGroup){
-        researchGroupSet.remove(researchGroup);
+    public boolean removeGroup(ResearchGroup researchGroup){
+        if(!researchGroupSet.remove(researchGroup)){
+            return false;
+        }
+        changeSummary(researchGroup,-1);
+        return true;
+    }
+
+    private void changeSummary(ResearchGroup researchGroup, int sign){
+        groupCount+=sign;
+        groupBudget+=sign*(long)researchGroup.getBudget();
+        researcherCount+=sign*researchGroup.getCountOfResearchers();
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.nameSearch = name==null ? null : NameIndex.normalize(name);
     }
 
     @Override
@@ -1,9 +1,13 @@
 package research.model;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import research.search.NameIndex;
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.util.HashSet;
@@ -15,21 +19,35 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "research_groups")
 public class ResearchGroup {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @Version
+    private long version;
     @Column(name="researchgroup_name")
     private String name;
+    // The name as the name index stores it, for the nameLike filters the database evaluates.
+    @Setter(AccessLevel.NONE)
+    @Column(name="researchgroup_name_search")
+    private String nameSearch;
     private LocalDate founded;
     private int countOfResearchers;
     @Enumerated(EnumType.STRING)
     private Location location;
     private int budget;
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @ManyToMany(mappedBy="researchGroupSet")
     private Set<Project> projectSet = new HashSet<>();
 
+    public void setName(String name) {
+        this.name = name;
+        this.nameSearch = name==null ? null : NameIndex.normalize(name);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
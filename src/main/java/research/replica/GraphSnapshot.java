@@ -0,0 +1,476 @@
+package research.replica;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import research.criteria.*;
+import research.dtos.*;
+import research.model.Location;
+import java.text.Collator;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Immutable copy of the projects, the research groups and their links. A published snapshot never changes:
+ * a {@link Patch} builds a new snapshot sharing every part the changes don't touch, so readers need no locking.
+ * Projects are kept in one array sorted by id, links in both directions as sorted id arrays.
+ */
+public final class GraphSnapshot {
+    private static final long[] NO_IDS=new long[0];
+    private static final Locale HUNGARIAN=Locale.forLanguageTag("hu-HU");
+    static final GraphSnapshot EMPTY=new GraphSnapshot(new ProjectNode[0], Map.of(), Map.of(), Map.of());
+
+    private final ProjectNode[] projectsById;
+    private final Map<Long, ResearchGroupNode> researchGroups;
+    private final Map<Long, long[]> groupsOfProject;
+    private final Map<Long, long[]> projectsOfGroup;
+
+    private GraphSnapshot(ProjectNode[] projectsById, Map<Long, ResearchGroupNode> researchGroups,
+                          Map<Long, long[]> groupsOfProject, Map<Long, long[]> projectsOfGroup) {
+        this.projectsById = projectsById;
+        this.researchGroups = researchGroups;
+        this.groupsOfProject = groupsOfProject;
+        this.projectsOfGroup = projectsOfGroup;
+    }
+
+    public int getProjectCount() {
+        return projectsById.length;
+    }
+
+    public int getResearchGroupCount() {
+        return researchGroups.size();
+    }
+
+    /**
+     * The change token of the project as this snapshot holds it, built the same way as from the database.
+     */
+    public Optional<ChangeToken> findProjectToken(long id) {
+        ProjectNode project=project(id);
+        if(project==null){
+            return Optional.empty();
+        }
+        ChangeToken.Builder builder=ChangeToken.builder(project.getVersion(), project.getRevision(), project.getLastModified());
+        for (long researchGroupId : groupsOfProject.getOrDefault(id, NO_IDS)) {
+            ResearchGroupNode researchGroup=researchGroups.get(researchGroupId);
+            if(researchGroup!=null){
+                builder.neighbour(researchGroupId, researchGroup.getVersion(), researchGroup.getLastModified());
+            }
+        }
+        return Optional.of(builder.build());
+    }
+
+    public Optional<ChangeToken> findResearchGroupToken(long id) {
+        ResearchGroupNode researchGroup=researchGroups.get(id);
+        if(researchGroup==null){
+            return Optional.empty();
+        }
+        ChangeToken.Builder builder=ChangeToken.builder(researchGroup.getVersion(), researchGroup.getRevision(), researchGroup.getLastModified());
+        for (long projectId : projectsOfGroup.getOrDefault(id, NO_IDS)) {
+            ProjectNode project=project(projectId);
+            if(project!=null){
+                builder.neighbour(projectId, project.getVersion(), project.getLastModified());
+            }
+        }
+        return Optional.of(builder.build());
+    }
+
+    /**
+     * The project as the change token describes it, empty when this snapshot holds another state of it.
+     */
+    public Optional<ProjectDto> findProject(long id, ChangeToken token) {
+        return findProjectToken(id)
+                .filter(token::isSameState)
+                .map(snapshotToken -> toProjectDto(new ProjectView(project(id))));
+    }
+
+    public Optional<ResearchGroupDto> findResearchGroup(long id, ChangeToken token) {
+        return findResearchGroupToken(id)
+                .filter(token::isSameState)
+                .map(snapshotToken -> toResearchGroupDto(researchGroups.get(id)));
+    }
+
+    /**
+     * Same filtering, ordering and paging as the database query. {@code ids} are the name matches, null without a name filter.
+     */
+    public List<ProjectDto> findProjects(ProjectCriteria criteria, Set<Long> ids) {
+        ProjectOrderBy orderBy=criteria.getOrderBy()==null ? ProjectOrderBy.id : criteria.getOrderBy();
+        boolean descending=criteria.getOrderType()==OrderType.desc;
+        Stream<ProjectNode> candidates=ids==null
+                ? IntStream.range(0, projectsById.length).mapToObj(i -> projectsById[descending ? projectsById.length-1-i : i])
+                : ids.stream().map(this::project).filter(Objects::nonNull);
+        Stream<ProjectView> matching=candidates
+                .filter(project -> !project.getStartDate().isAfter(criteria.getStartBefore())
+                        && !project.getStartDate().isBefore(criteria.getStartAfter())
+                        && project.getBudget()>=criteria.getMinBudget())
+                .map(ProjectView::new)
+                .filter(view -> view.groupCount>=criteria.getMinGroupCount()
+                        && view.groupBudget>=criteria.getMinGroupBudget()
+                        && view.researcherCount>=criteria.getMinResearcherCount());
+        if(ids!=null || orderBy!=ProjectOrderBy.id){
+            Comparator<ProjectView> order=projectOrder(orderBy).thenComparingLong(view -> view.project.getId());
+            matching=matching.sorted(descending ? order.reversed() : order);
+        }
+        return matching
+                .skip((long) criteria.getPage()*criteria.getSize())
+                .limit(criteria.getSize())
+                .map(this::toProjectDto)
+                .collect(Collectors.toList());
+    }
+
+    public List<ResearchGroupDto> findResearchGroups(ResearchGroupCriteria criteria, Set<Long> ids) {
+        ResearchGroupOrderBy orderBy=criteria.getOrderBy()==null ? ResearchGroupOrderBy.id : criteria.getOrderBy();
+        Comparator<ResearchGroupNode> order=researchGroupOrder(orderBy).thenComparingLong(ResearchGroupNode::getId);
+        Stream<ResearchGroupNode> candidates=ids==null
+                ? researchGroups.values().stream()
+                : ids.stream().map(researchGroups::get).filter(Objects::nonNull);
+        return candidates
+                .filter(researchGroup -> researchGroup.getCountOfResearchers()>=criteria.getMinCountOfResearchers()
+                        && researchGroup.getBudget()>=criteria.getMinBudget())
+                .sorted(criteria.getOrderType()==OrderType.desc ? order.reversed() : order)
+                .map(this::toResearchGroupDto)
+                .collect(Collectors.toList());
+    }
+
+    Patch patch() {
+        return new Patch(this);
+    }
+
+    public boolean containsProject(long id) {
+        return indexOf(projectsById, id)>=0;
+    }
+
+    public boolean containsResearchGroup(long id) {
+        return researchGroups.containsKey(id);
+    }
+
+    /**
+     * Ids of the research groups of the project in increasing order. The array mustn't be modified.
+     */
+    public long[] researchGroupIdsOf(long projectId) {
+        return groupsOfProject.getOrDefault(projectId, NO_IDS);
+    }
+
+    /**
+     * Ids of the projects of the research group in increasing order. The array mustn't be modified.
+     */
+    public long[] projectIdsOf(long researchGroupId) {
+        return projectsOfGroup.getOrDefault(researchGroupId, NO_IDS);
+    }
+
+    public long[] sharedProjectIds(long researchGroupId, long otherResearchGroupId) {
+        return intersect(projectIdsOf(researchGroupId), projectIdsOf(otherResearchGroupId));
+    }
+
+    public long[] researchGroupIdsWithoutProject() {
+        return researchGroups.keySet().stream()
+                .filter(id -> !projectsOfGroup.containsKey(id))
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+    }
+
+    // Walks the shorter array and looks its ids up in the longer one, starting each search after the previous match.
+    static long[] intersect(long[] first, long[] second) {
+        long[] shorter=first.length<=second.length ? first : second;
+        long[] longer=shorter==first ? second : first;
+        long[] result=new long[shorter.length];
+        int size=0;
+        int from=0;
+        for (long id : shorter) {
+            int index=Arrays.binarySearch(longer, from, longer.length, id);
+            if(index>=0){
+                result[size++]=id;
+                from=index+1;
+            }
+            else {
+                from=-index-1;
+            }
+            if(from==longer.length){
+                break;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private ProjectNode project(long id) {
+        int index=indexOf(projectsById, id);
+        return index<0 ? null : projectsById[index];
+    }
+
+    private static int indexOf(ProjectNode[] projectsById, long id) {
+        int low=0;
+        int high=projectsById.length-1;
+        while (low<=high) {
+            int middle=(low+high)>>>1;
+            long middleId=projectsById[middle].getId();
+            if(middleId<id){
+                low=middle+1;
+            }
+            else if(middleId>id){
+                high=middle-1;
+            }
+            else {
+                return middle;
+            }
+        }
+        return -(low+1);
+    }
+
+    // Names are ordered like the utf8_hungarian_ci collation of the database: Hungarian letters (cs after c, ö after o),
+    // case and accents ignored otherwise. getInstance returns a new collator, so the sorts don't share its lock.
+    private static Comparator<String> nameOrder() {
+        Collator collator=Collator.getInstance(HUNGARIAN);
+        collator.setStrength(Collator.PRIMARY);
+        return collator::compare;
+    }
+
+    private Comparator<ProjectView> projectOrder(ProjectOrderBy orderBy) {
+        switch (orderBy) {
+            case name:
+                return Comparator.comparing(view -> view.project.getName(), nameOrder());
+            case startDate:
+                return Comparator.comparing(view -> view.project.getStartDate());
+            case budget:
+                return Comparator.comparingInt(view -> view.project.getBudget());
+            case groupCount:
+                return Comparator.comparingInt(view -> view.groupCount);
+            case groupBudget:
+                return Comparator.comparingLong(view -> view.groupBudget);
+            case researcherCount:
+                return Comparator.comparingInt(view -> view.researcherCount);
+            default:
+                return Comparator.comparingLong(view -> view.project.getId());
+        }
+    }
+
+    private Comparator<ResearchGroupNode> researchGroupOrder(ResearchGroupOrderBy orderBy) {
+        switch (orderBy) {
+            case name:
+                return Comparator.comparing(ResearchGroupNode::getName, nameOrder());
+            case founded:
+                return Comparator.comparing(ResearchGroupNode::getFounded);
+            case countOfResearchers:
+                return Comparator.comparingInt(ResearchGroupNode::getCountOfResearchers);
+            case budget:
+                return Comparator.comparingInt(ResearchGroupNode::getBudget);
+            default:
+                return Comparator.comparingLong(ResearchGroupNode::getId);
+        }
+    }
+
+    private ProjectDto toProjectDto(ProjectView view) {
+        ProjectNode project=view.project;
+        Set<ResearchGroupWithoutProjectsDto> researchGroupSet=new HashSet<>();
+        for (long researchGroupId : groupsOfProject.getOrDefault(project.getId(), NO_IDS)) {
+            ResearchGroupNode researchGroup=researchGroups.get(researchGroupId);
+            if(researchGroup!=null){
+                researchGroupSet.add(new ResearchGroupWithoutProjectsDto(researchGroup.getId(), researchGroup.getName(), researchGroup.getFounded(),
+                        researchGroup.getCountOfResearchers(), researchGroup.getLocation(), researchGroup.getBudget()));
+            }
+        }
+        return new ProjectDto(project.getId(), project.getVersion(), project.getName(), project.getStartDate(), project.getBudget(),
+                view.groupCount, view.groupBudget, view.researcherCount, researchGroupSet);
+    }
+
+    private ResearchGroupDto toResearchGroupDto(ResearchGroupNode researchGroup) {
+        Set<ProjectWithoutGroupsDto> projectSet=new HashSet<>();
+        for (long projectId : projectsOfGroup.getOrDefault(researchGroup.getId(), NO_IDS)) {
+            ProjectNode project=project(projectId);
+            if(project!=null){
+                projectSet.add(new ProjectWithoutGroupsDto(project.getId(), project.getName(), project.getStartDate(), project.getBudget()));
+            }
+        }
+        return new ResearchGroupDto(researchGroup.getId(), researchGroup.getVersion(), researchGroup.getName(), researchGroup.getFounded(),
+                researchGroup.getCountOfResearchers(), researchGroup.getLocation(), researchGroup.getBudget(), projectSet);
+    }
+
+    // A project with the summary of its linked research groups, computed from this snapshot.
+    private final class ProjectView {
+        private final ProjectNode project;
+        private int groupCount;
+        private long groupBudget;
+        private int researcherCount;
+
+        private ProjectView(ProjectNode project) {
+            this.project = project;
+            for (long researchGroupId : groupsOfProject.getOrDefault(project.getId(), NO_IDS)) {
+                ResearchGroupNode researchGroup=researchGroups.get(researchGroupId);
+                if(researchGroup!=null){
+                    groupCount++;
+                    groupBudget+=researchGroup.getBudget();
+                    researcherCount+=researchGroup.getCountOfResearchers();
+                }
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static final class ProjectNode {
+        private final long id;
+        private final long version;
+        private final long revision;
+        private final Instant lastModified;
+        private final String name;
+        private final LocalDate startDate;
+        private final int budget;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static final class ResearchGroupNode {
+        private final long id;
+        private final long version;
+        private final long revision;
+        private final Instant lastModified;
+        private final String name;
+        private final LocalDate founded;
+        private final int countOfResearchers;
+        private final Location location;
+        private final int budget;
+    }
+
+    /**
+     * Collects the changes for the next snapshot. Only the parts that really change are copied: the project array is
+     * merged with the changed projects in one pass, a map is copied when an entry of it changes, and a link array is
+     * rebuilt when its ids differ from the ones read again. Everything else is shared with the base snapshot.
+     */
+    static final class Patch {
+        private final GraphSnapshot base;
+        // A null value removes the entry.
+        private final Map<Long, ProjectNode> changedProjects=new HashMap<>();
+        private final Map<Long, ResearchGroupNode> changedResearchGroups=new HashMap<>();
+        private final Map<Long, Set<Long>> changedGroupsOfProject=new HashMap<>();
+        private final Map<Long, Set<Long>> changedProjectsOfGroup=new HashMap<>();
+
+        private Patch(GraphSnapshot base) {
+            this.base = base;
+        }
+
+        void putProject(ProjectNode project) {
+            changedProjects.put(project.getId(), project);
+        }
+
+        void removeProject(long id) {
+            changedProjects.put(id, null);
+        }
+
+        void putResearchGroup(ResearchGroupNode researchGroup) {
+            changedResearchGroups.put(researchGroup.getId(), researchGroup);
+        }
+
+        void removeResearchGroup(long id) {
+            changedResearchGroups.put(id, null);
+        }
+
+        void setGroupsOfProject(long projectId, Set<Long> researchGroupIds) {
+            if(!changedGroupsOfProject.containsKey(projectId) && sameIds(base.researchGroupIdsOf(projectId), researchGroupIds)){
+                return;
+            }
+            Set<Long> current=changed(changedGroupsOfProject, base.groupsOfProject, projectId);
+            for (Long researchGroupId : new ArrayList<>(current)) {
+                if(!researchGroupIds.contains(researchGroupId)){
+                    current.remove(researchGroupId);
+                    changed(changedProjectsOfGroup, base.projectsOfGroup, researchGroupId).remove(projectId);
+                }
+            }
+            for (Long researchGroupId : researchGroupIds) {
+                if(current.add(researchGroupId)){
+                    changed(changedProjectsOfGroup, base.projectsOfGroup, researchGroupId).add(projectId);
+                }
+            }
+        }
+
+        void setProjectsOfGroup(long researchGroupId, Set<Long> projectIds) {
+            if(!changedProjectsOfGroup.containsKey(researchGroupId) && sameIds(base.projectIdsOf(researchGroupId), projectIds)){
+                return;
+            }
+            Set<Long> current=changed(changedProjectsOfGroup, base.projectsOfGroup, researchGroupId);
+            for (Long projectId : new ArrayList<>(current)) {
+                if(!projectIds.contains(projectId)){
+                    current.remove(projectId);
+                    changed(changedGroupsOfProject, base.groupsOfProject, projectId).remove(researchGroupId);
+                }
+            }
+            for (Long projectId : projectIds) {
+                if(current.add(projectId)){
+                    changed(changedGroupsOfProject, base.groupsOfProject, projectId).add(researchGroupId);
+                }
+            }
+        }
+
+        GraphSnapshot build() {
+            return new GraphSnapshot(
+                    changedProjects.isEmpty() ? base.projectsById : mergeProjects(),
+                    apply(changedResearchGroups, base.researchGroups),
+                    applyLinks(changedGroupsOfProject, base.groupsOfProject),
+                    applyLinks(changedProjectsOfGroup, base.projectsOfGroup));
+        }
+
+        // Walks the sorted base array and the sorted changed ids together, so the result needs no sorting.
+        private ProjectNode[] mergeProjects() {
+            long[] changedIds=changedProjects.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            ProjectNode[] projectsById=base.projectsById;
+            ProjectNode[] result=new ProjectNode[projectsById.length+changedIds.length];
+            int size=0;
+            int next=0;
+            for (long changedId : changedIds) {
+                while (next<projectsById.length && projectsById[next].getId()<changedId) {
+                    result[size++]=projectsById[next++];
+                }
+                if(next<projectsById.length && projectsById[next].getId()==changedId){
+                    next++;
+                }
+                ProjectNode project=changedProjects.get(changedId);
+                if(project!=null){
+                    result[size++]=project;
+                }
+            }
+            int rest=projectsById.length-next;
+            System.arraycopy(projectsById, next, result, size, rest);
+            size+=rest;
+            return size==result.length ? result : Arrays.copyOf(result, size);
+        }
+
+        private static boolean sameIds(long[] current, Set<Long> ids) {
+            if(current.length!=ids.size()){
+                return false;
+            }
+            for (long id : current) {
+                if(!ids.contains(id)){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static Set<Long> changed(Map<Long, Set<Long>> changes, Map<Long, long[]> links, long id) {
+            return changes.computeIfAbsent(id, key -> Arrays.stream(links.getOrDefault(key, NO_IDS)).boxed().collect(Collectors.toCollection(HashSet::new)));
+        }
+
+        private static <T> Map<Long, T> apply(Map<Long, T> changes, Map<Long, T> base) {
+            if(changes.isEmpty()){
+                return base;
+            }
+            Map<Long, T> result=new HashMap<>(base);
+            changes.forEach((id, value) -> {
+                if(value==null){
+                    result.remove(id);
+                }
+                else {
+                    result.put(id, value);
+                }
+            });
+            return result;
+        }
+
+        private static Map<Long, long[]> applyLinks(Map<Long, Set<Long>> changes, Map<Long, long[]> base) {
+            Map<Long, long[]> arrays=new HashMap<>();
+            changes.forEach((id, ids) -> arrays.put(id, ids.isEmpty() ? null : ids.stream().mapToLong(Long::longValue).sorted().toArray()));
+            return apply(arrays, base);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package research.replica;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import research.events.ResearchDataChangedEvent;
+import research.model.Location;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process read model of the whole project - research group graph, kept only when {@code research.replica.mode} is
+ * not off. The project and research group reads use it as the mode says, the membership queries whenever it is in sync.
+ * The snapshot is built when the application starts and patched after the transactions commit: the committing thread only queues the changes, a single background thread
+ * takes every transaction queued so far, reads the rows and links of the projects and research groups they changed
+ * again and replaces the snapshot once for all of them. Patches re-read the committed state instead of replaying the
+ * events, so patches of concurrent transactions applied in any order end in the state of the database. A change
+ * doesn't write the rows of the neighbours, so they are not read again.
+ */
+@Slf4j
+@Component
+public class ReadReplica {
+    private static final int CHUNK_SIZE=1000;
+    private static final String PROJECT_COLUMNS="SELECT id, version, revision, last_modified, project_name, start_date, budget FROM projects";
+    private static final String RESEARCH_GROUP_COLUMNS="SELECT id, version, revision, last_modified, researchgroup_name, founded, count_of_researchers, location, budget FROM research_groups";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ReplicaMode mode;
+    // Transactions from their commit until the snapshot holds their changes.
+    private final AtomicInteger committing=new AtomicInteger();
+    private final BlockingQueue<List<ResearchDataChangedEvent>> committed=new LinkedBlockingQueue<>();
+    private final Object appliedMonitor=new Object();
+    private long queuedCount;
+    private long appliedCount;
+
+    private volatile GraphSnapshot snapshot;
+    private Thread applier;
+
+    public ReadReplica(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                       @Value("${research.replica.mode:off}") ReplicaMode mode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.mode = mode;
+    }
+
+    public ReplicaMode getMode() {
+        return mode;
+    }
+
+    /**
+     * The snapshot the project and research group reads can be answered from, or null when they have to go to the database.
+     */
+    public GraphSnapshot getSnapshot() {
+        if(mode==ReplicaMode.OFF || mode==ReplicaMode.STRONG && committing.get()>0){
+            return null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * The snapshot when every committed transaction has been applied to it, null otherwise or when the replica is off.
+     */
+    public GraphSnapshot getSnapshotInSync() {
+        if(committing.get()>0){
+            return null;
+        }
+        return snapshot;
+    }
+
+    @PostConstruct
+    public void start() {
+        if(mode==ReplicaMode.OFF){
+            return;
+        }
+        applier=new Thread(this::applyCommitted, "read-replica-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if(applier!=null){
+            applier.interrupt();
+            applier.join(1000);
+        }
+    }
+
+    /**
+     * Waits until the snapshot holds every transaction committed before the call.
+     */
+    public void awaitApplied() throws InterruptedException {
+        synchronized (appliedMonitor) {
+            long target=queuedCount;
+            while (appliedCount<target) {
+                appliedMonitor.wait();
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if(mode==ReplicaMode.OFF){
+            return;
+        }
+        GraphSnapshot.Patch patch=GraphSnapshot.EMPTY.patch();
+        jdbcTemplate.query(PROJECT_COLUMNS, PROJECT_MAPPER).forEach(patch::putProject);
+        jdbcTemplate.query(RESEARCH_GROUP_COLUMNS, RESEARCH_GROUP_MAPPER).forEach(patch::putResearchGroup);
+        linksByProject(jdbcTemplate.query("SELECT project_id, researchgroup_id FROM project_researchgroup", LINK_MAPPER))
+                .forEach(patch::setGroupsOfProject);
+        snapshot=patch.build();
+    }
+
+    // Collects the changes of a transaction, they are applied together after it commits.
+    @EventListener
+    public void onDataChanged(ResearchDataChangedEvent event) {
+        if(mode==ReplicaMode.OFF){
+            return;
+        }
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            committing.incrementAndGet();
+            queue(List.of(event));
+            return;
+        }
+        PendingChanges pendingChanges=(PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if(pendingChanges==null){
+            pendingChanges=new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pendingChanges);
+            TransactionSynchronizationManager.registerSynchronization(pendingChanges);
+        }
+        pendingChanges.events.add(event);
+    }
+
+    private void queue(List<ResearchDataChangedEvent> events) {
+        synchronized (appliedMonitor) {
+            queuedCount++;
+            committed.add(events);
+        }
+    }
+
+    // Under a steady stream of commits every pass takes all the transactions that committed during the previous one,
+    // so the copies a patch makes are shared by them.
+    private void applyCommitted() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<List<ResearchDataChangedEvent>> transactions=new ArrayList<>();
+                transactions.add(committed.take());
+                committed.drainTo(transactions);
+                try {
+                    apply(transactions);
+                } catch (RuntimeException e) {
+                    log.warn("Patching the read replica failed, rebuilding it", e);
+                    rebuildAfterFailure();
+                } finally {
+                    committing.addAndGet(-transactions.size());
+                    synchronized (appliedMonitor) {
+                        appliedCount+=transactions.size();
+                        appliedMonitor.notifyAll();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void rebuildAfterFailure() {
+        snapshot=null;
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.error("Rebuilding the read replica failed, reads go to the database", e);
+        }
+    }
+
+    private synchronized void apply(List<List<ResearchDataChangedEvent>> transactions) {
+        GraphSnapshot current=snapshot;
+        if(current==null){
+            return;
+        }
+        Set<Long> projectIds=new HashSet<>();
+        Set<Long> researchGroupIds=new HashSet<>();
+        for (List<ResearchDataChangedEvent> events : transactions) {
+            for (ResearchDataChangedEvent event : events) {
+                if(event.getProjectId()!=null){
+                    projectIds.add(event.getProjectId());
+                }
+                if(event.getResearchGroupId()!=null){
+                    researchGroupIds.add(event.getResearchGroupId());
+                }
+            }
+        }
+
+        GraphSnapshot.Patch patch=current.patch();
+        Map<Long, GraphSnapshot.ProjectNode> projects=new HashMap<>();
+        queryInChunks(PROJECT_COLUMNS+" WHERE id IN (:ids)", projectIds, PROJECT_MAPPER)
+                .forEach(project -> projects.put(project.getId(), project));
+        Map<Long, Set<Long>> groupsOfProject=linksByProject(queryInChunks(
+                "SELECT project_id, researchgroup_id FROM project_researchgroup WHERE project_id IN (:ids)", projectIds, LINK_MAPPER));
+        for (Long projectId : projectIds) {
+            if(projects.containsKey(projectId)){
+                patch.putProject(projects.get(projectId));
+            }
+            else {
+                patch.removeProject(projectId);
+            }
+            patch.setGroupsOfProject(projectId, groupsOfProject.getOrDefault(projectId, Set.of()));
+        }
+
+        Map<Long, GraphSnapshot.ResearchGroupNode> researchGroups=new HashMap<>();
+        queryInChunks(RESEARCH_GROUP_COLUMNS+" WHERE id IN (:ids)", researchGroupIds, RESEARCH_GROUP_MAPPER)
+                .forEach(researchGroup -> researchGroups.put(researchGroup.getId(), researchGroup));
+        Map<Long, Set<Long>> projectsOfGroup=new HashMap<>();
+        queryInChunks("SELECT project_id, researchgroup_id FROM project_researchgroup WHERE researchgroup_id IN (:ids)", researchGroupIds, LINK_MAPPER)
+                .forEach(link -> projectsOfGroup.computeIfAbsent(link[1], id -> new HashSet<>()).add(link[0]));
+        for (Long researchGroupId : researchGroupIds) {
+            if(researchGroups.containsKey(researchGroupId)){
+                patch.putResearchGroup(researchGroups.get(researchGroupId));
+            }
+            else {
+                patch.removeResearchGroup(researchGroupId);
+            }
+            patch.setProjectsOfGroup(researchGroupId, projectsOfGroup.getOrDefault(researchGroupId, Set.of()));
+        }
+
+        snapshot=patch.build();
+    }
+
+    private <T> List<T> queryInChunks(String sql, Collection<Long> ids, RowMapper<T> rowMapper) {
+        List<Long> idList=new ArrayList<>(ids);
+        List<T> result=new ArrayList<>();
+        for (int from = 0; from < idList.size(); from += CHUNK_SIZE) {
+            result.addAll(namedParameterJdbcTemplate.query(sql, Map.of("ids", idList.subList(from, Math.min(from+CHUNK_SIZE, idList.size()))), rowMapper));
+        }
+        return result;
+    }
+
+    private static Map<Long, Set<Long>> linksByProject(List<long[]> links) {
+        Map<Long, Set<Long>> result=new HashMap<>();
+        links.forEach(link -> result.computeIfAbsent(link[0], id -> new HashSet<>()).add(link[1]));
+        return result;
+    }
+
+    private static final RowMapper<GraphSnapshot.ProjectNode> PROJECT_MAPPER=(rs, rowNum) -> new GraphSnapshot.ProjectNode(
+            rs.getLong("id"), rs.getLong("version"), rs.getLong("revision"), rs.getTimestamp("last_modified").toInstant(), rs.getString("project_name"), rs.getObject("start_date", LocalDate.class), rs.getInt("budget"));
+
+    private static final RowMapper<GraphSnapshot.ResearchGroupNode> RESEARCH_GROUP_MAPPER=(rs, rowNum) -> new GraphSnapshot.ResearchGroupNode(
+            rs.getLong("id"), rs.getLong("version"), rs.getLong("revision"), rs.getTimestamp("last_modified").toInstant(), rs.getString("researchgroup_name"), rs.getObject("founded", LocalDate.class),
+            rs.getInt("count_of_researchers"), Location.valueOf(rs.getString("location")), rs.getInt("budget"));
+
+    private static final RowMapper<long[]> LINK_MAPPER=(rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)};
+
+    private class PendingChanges implements TransactionSynchronization {
+        private final List<ResearchDataChangedEvent> events=new ArrayList<>();
+        private boolean counted;
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            committing.incrementAndGet();
+            counted=true;
+        }
+
+        // The background thread counts the transaction off once the snapshot holds it.
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ReadReplica.this);
+            if(status==STATUS_COMMITTED){
+                if(!counted){
+                    committing.incrementAndGet();
+                }
+                queue(events);
+            }
+            else if(counted){
+                committing.decrementAndGet();
+            }
+        }
+    }
+}
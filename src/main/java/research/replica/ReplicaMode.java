@@ -0,0 +1,10 @@
+package research.replica;
+
+public enum ReplicaMode {
+    /** Every read goes to the database. */
+    OFF,
+    /** Reads are answered from the snapshot, which follows a commit once the committing thread has patched it. */
+    EVENTUAL,
+    /** Reads are answered from the snapshot only while no commit is waiting to be applied, otherwise from the database. */
+    STRONG
+}
@@ -0,0 +1,77 @@
+package research.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Repository;
+import research.model.Project;
+import research.model.ResearchGroup;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain JDBC batch inserts. Hibernate can't batch inserts of IDENTITY generated entities,
+ * here the rows go in batches and the generated ids are read back from each batch.
+ */
+@Repository
+public class BulkInsertRepository {
+    private static final int BATCH_SIZE=500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkInsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Long> insertProjects(List<Project> projects) {
+        return insert("INSERT INTO projects (project_name, project_name_search, start_date, budget) VALUES (?,?,?,?)", projects, (ps, project) -> {
+            ps.setString(1, project.getName());
+            ps.setString(2, project.getNameSearch());
+            ps.setDate(3, Date.valueOf(project.getStartDate()));
+            ps.setInt(4, project.getBudget());
+        });
+    }
+
+    public List<Long> insertResearchGroups(List<ResearchGroup> researchGroups) {
+        return insert("INSERT INTO research_groups (researchgroup_name, researchgroup_name_search, founded, count_of_researchers, location, budget) VALUES (?,?,?,?,?,?)", researchGroups, (ps, researchGroup) -> {
+            ps.setString(1, researchGroup.getName());
+            ps.setString(2, researchGroup.getNameSearch());
+            ps.setDate(3, Date.valueOf(researchGroup.getFounded()));
+            ps.setInt(4, researchGroup.getCountOfResearchers());
+            ps.setString(5, researchGroup.getLocation().name());
+            ps.setInt(6, researchGroup.getBudget());
+        });
+    }
+
+    private <T> List<Long> insert(String sql, List<T> rows, ParameterizedPreparedStatementSetter<T> setter) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> generatedIds = new ArrayList<>(rows.size());
+            try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                    for (T row : rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()))) {
+                        setter.setValues(ps, row);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            generatedIds.add(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return generatedIds;
+        });
+        if (ids == null || ids.size() != rows.size()) {
+            throw new IllegalStateException("Generated ids are missing after batch insert");
+        }
+        return ids;
+    }
+}
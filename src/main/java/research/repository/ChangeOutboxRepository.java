@@ -0,0 +1,73 @@
+package research.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import research.dtos.ChangeDto;
+import research.events.ChangeType;
+import research.events.ResearchDataChangedEvent;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of the changes. The writers insert their changes without a number, so they never wait for each other.
+ * The sequence numbers are assigned after the commit by a single sequencer, which numbers the committed rows in one
+ * transaction following the last number. A reader therefore sees the numbers without gaps and in commit order: a
+ * transaction that commits later gets a higher number, however long ago it inserted its rows.
+ */
+@Repository
+public class ChangeOutboxRepository {
+    private static final RowMapper<ChangeDto> CHANGE_ROW_MAPPER=(rs, rowNum) -> new ChangeDto(rs.getLong("sequence_number"),
+            ChangeType.valueOf(rs.getString("change_type")), rs.getObject("project_id", Long.class),
+            rs.getObject("researchgroup_id", Long.class), rs.getTimestamp("changed_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ChangeOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the changes without a sequence number, in the order of the list.
+     */
+    public void insertChanges(List<ResearchDataChangedEvent> events, Instant changedAt) {
+        jdbcTemplate.batchUpdate("INSERT INTO change_outbox (change_type, project_id, researchgroup_id, changed_at) VALUES (?,?,?,?)",
+                events, events.size(), (statement, event) -> {
+                    statement.setString(1, event.getChangeType().name());
+                    statement.setObject(2, event.getProjectId(), Types.BIGINT);
+                    statement.setObject(3, event.getResearchGroupId(), Types.BIGINT);
+                    statement.setTimestamp(4, Timestamp.from(changedAt));
+                });
+    }
+
+    /**
+     * Numbers at most {@code size} committed changes without a number in the order they were inserted, following the last
+     * number, and returns them with their numbers. Needs a transaction; two sequencers numbering at the same time break
+     * the unique key of the number, the one that commits later fails.
+     */
+    public List<ChangeDto> numberChanges(int size) {
+        List<Long> ids=jdbcTemplate.queryForList("SELECT id FROM change_outbox WHERE sequence_number IS NULL ORDER BY id LIMIT ?", Long.class, size);
+        if(ids.isEmpty()){
+            return List.of();
+        }
+        long lastSequence=findLastSequence();
+        List<Object[]> numbers=new ArrayList<>();
+        for (Long id : ids) {
+            numbers.add(new Object[]{++lastSequence, id});
+        }
+        jdbcTemplate.batchUpdate("UPDATE change_outbox SET sequence_number=? WHERE id=?", numbers);
+        return findChangesSince(lastSequence-ids.size(), ids.size());
+    }
+
+    public long findLastSequence() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(sequence_number),0) FROM change_outbox", Long.class);
+    }
+
+    public List<ChangeDto> findChangesSince(long sequence, int size) {
+        return jdbcTemplate.query("SELECT sequence_number, change_type, project_id, researchgroup_id, changed_at FROM change_outbox WHERE sequence_number>? ORDER BY sequence_number LIMIT ?",
+                CHANGE_ROW_MAPPER, sequence, size);
+    }
+}
@@ -0,0 +1,70 @@
+package research.repository;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import research.dtos.ChangeToken;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads and advances the version, revision and last_modified columns. A token is read with one query that joins the
+ * linked entities, their versions and modification times make up the rest of it, see {@link ChangeToken}. Reads go past
+ * the persistence context: they are primary key lookups and still work after an optimistic lock failure has broken the context.
+ */
+@Repository
+public class ChangeTokenRepository {
+    private static final int CHUNK_SIZE=1000;
+    private static final String CHANGED="revision=revision+1, last_modified=CURRENT_TIMESTAMP(3)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ChangeTokenRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<ChangeToken> findProjectToken(long id) {
+        return findToken("SELECT p.version, p.revision, p.last_modified, rg.id, rg.version, rg.last_modified FROM projects p"
+                + " LEFT JOIN project_researchgroup pr ON pr.project_id=p.id LEFT JOIN research_groups rg ON rg.id=pr.researchgroup_id"
+                + " WHERE p.id=:id ORDER BY rg.id", id);
+    }
+
+    public Optional<ChangeToken> findResearchGroupToken(long id) {
+        return findToken("SELECT rg.version, rg.revision, rg.last_modified, p.id, p.version, p.last_modified FROM research_groups rg"
+                + " LEFT JOIN project_researchgroup pr ON pr.researchgroup_id=rg.id LEFT JOIN projects p ON p.id=pr.project_id"
+                + " WHERE rg.id=:id ORDER BY p.id", id);
+    }
+
+    public void markProjectsChanged(Collection<Long> ids) {
+        updateInChunks("UPDATE projects SET "+CHANGED+" WHERE id IN (:ids)", ids);
+    }
+
+    public void markResearchGroupsChanged(Collection<Long> ids) {
+        updateInChunks("UPDATE research_groups SET "+CHANGED+" WHERE id IN (:ids)", ids);
+    }
+
+    private Optional<ChangeToken> findToken(String sql, long id) {
+        return Optional.ofNullable(jdbcTemplate.query(sql, Map.of("id", id), rs -> {
+            if(!rs.next()){
+                return null;
+            }
+            ChangeToken.Builder builder=ChangeToken.builder(rs.getLong(1), rs.getLong(2), rs.getTimestamp(3).toInstant());
+            do {
+                long neighbourId=rs.getLong(4);
+                if(!rs.wasNull()){
+                    builder.neighbour(neighbourId, rs.getLong(5), rs.getTimestamp(6).toInstant());
+                }
+            } while (rs.next());
+            return builder.build();
+        }));
+    }
+
+    private void updateInChunks(String sql, Collection<Long> ids) {
+        List<Long> idList=new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += CHUNK_SIZE) {
+            jdbcTemplate.update(sql, Map.of("ids", idList.subList(from, Math.min(from+CHUNK_SIZE, idList.size()))));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package research.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import research.dtos.GroupLinkDto;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Works directly on the project_researchgroup join table, without loading the linked entities.
+ */
+@Repository
+public class GroupLinkRepository {
+    private static final int BATCH_SIZE=500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public GroupLinkRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    public List<GroupLinkDto> findLinksOfProjects(Collection<Long> projectIds) {
+        return namedParameterJdbcTemplate.query("SELECT project_id, researchgroup_id FROM project_researchgroup WHERE project_id IN (:projectIds)",
+                Map.of("projectIds", projectIds),
+                (rs, rowNum) -> new GroupLinkDto(rs.getLong(1), rs.getLong(2)));
+    }
+
+    public List<Long> findProjectIdsOfResearchGroup(long researchGroupId) {
+        return jdbcTemplate.queryForList("SELECT project_id FROM project_researchgroup WHERE researchgroup_id=? ORDER BY project_id", Long.class, researchGroupId);
+    }
+
+    public List<Long> findResearchGroupIdsOfProject(long projectId) {
+        return jdbcTemplate.queryForList("SELECT researchgroup_id FROM project_researchgroup WHERE project_id=? ORDER BY researchgroup_id", Long.class, projectId);
+    }
+
+    public List<Long> findSharedProjectIds(long researchGroupId, long otherResearchGroupId) {
+        return jdbcTemplate.queryForList("SELECT pr.project_id FROM project_researchgroup pr JOIN project_researchgroup other ON other.project_id=pr.project_id"
+                + " WHERE pr.researchgroup_id=? AND other.researchgroup_id=? ORDER BY pr.project_id", Long.class, researchGroupId, otherResearchGroupId);
+    }
+
+    public List<Long> findResearchGroupIdsWithoutProject() {
+        return jdbcTemplate.queryForList("SELECT rg.id FROM research_groups rg"
+                + " WHERE NOT EXISTS (SELECT 1 FROM project_researchgroup pr WHERE pr.researchgroup_id=rg.id) ORDER BY rg.id", Long.class);
+    }
+
+    public void insertLinks(Collection<GroupLinkDto> links) {
+        jdbcTemplate.batchUpdate("INSERT INTO project_researchgroup (project_id, researchgroup_id) VALUES (?,?)", links, BATCH_SIZE, (ps, link) -> {
+            ps.setLong(1, link.getProjectId());
+            ps.setLong(2, link.getResearchGroupId());
+        });
+    }
+
+    public void deleteLinks(Collection<GroupLinkDto> links) {
+        jdbcTemplate.batchUpdate("DELETE FROM project_researchgroup WHERE project_id=? AND researchgroup_id=?", links, BATCH_SIZE, (ps, link) -> {
+            ps.setLong(1, link.getProjectId());
+            ps.setLong(2, link.getResearchGroupId());
+        });
+    }
+}
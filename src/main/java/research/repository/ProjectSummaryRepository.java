@@ -0,0 +1,87 @@
+package research.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import research.dtos.GroupLinkDto;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the group_count, group_budget and researcher_count columns of the projects in step with their research groups.
+ * Every change is applied as a relative update of the affected rows, so the summary never has to be recomputed
+ * from the whole graph. A relative update is only right when it sees every link and the latest budget of the group,
+ * so the links of a research group change only while its row is locked, the same row an update of the group writes.
+ * Research group rows are always locked before project rows, in the order of their ids.
+ */
+@Repository
+public class ProjectSummaryRepository {
+    private static final int BATCH_SIZE=500;
+    private static final String LINK_SQL="UPDATE projects SET group_count=group_count%1$s1,"
+            + " group_budget=group_budget%1$s(SELECT budget FROM research_groups WHERE id=?),"
+            + " researcher_count=researcher_count%1$s(SELECT count_of_researchers FROM research_groups WHERE id=?)"
+            + " WHERE id=?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public ProjectSummaryRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    // Locks the rows of the existing research groups until the end of the transaction and returns their ids.
+    public List<Long> lockResearchGroups(Collection<Long> researchGroupIds) {
+        return lock("SELECT id FROM research_groups WHERE id IN (:ids) ORDER BY id FOR UPDATE", researchGroupIds);
+    }
+
+    // Only after the research groups of the same transaction.
+    public List<Long> lockProjects(Collection<Long> projectIds) {
+        return lock("SELECT id FROM projects WHERE id IN (:ids) ORDER BY id FOR UPDATE", projectIds);
+    }
+
+    public void addLinks(Collection<GroupLinkDto> links) {
+        updateLinks(String.format(LINK_SQL, "+"), links);
+    }
+
+    public void removeLinks(Collection<GroupLinkDto> links) {
+        updateLinks(String.format(LINK_SQL, "-"), links);
+    }
+
+    // Returns the ids of the changed projects. Runs after the update of the group, which holds its row lock.
+    public List<Long> changeResearchGroup(long researchGroupId, long budgetDelta, int researcherDelta) {
+        if(budgetDelta==0 && researcherDelta==0){
+            return List.of();
+        }
+        List<Long> projectIds=jdbcTemplate.queryForList("SELECT project_id FROM project_researchgroup WHERE researchgroup_id=?", Long.class, researchGroupId);
+        jdbcTemplate.update("UPDATE projects SET group_budget=group_budget+?, researcher_count=researcher_count+?"
+                        + " WHERE id IN (SELECT project_id FROM project_researchgroup WHERE researchgroup_id=?)",
+                budgetDelta, researcherDelta, researchGroupId);
+        return projectIds;
+    }
+
+    // Has to run while the links of the research group still exist.
+    public void removeResearchGroup(long researchGroupId) {
+        jdbcTemplate.update("UPDATE projects SET group_count=group_count-1,"
+                        + " group_budget=group_budget-(SELECT budget FROM research_groups WHERE id=?),"
+                        + " researcher_count=researcher_count-(SELECT count_of_researchers FROM research_groups WHERE id=?)"
+                        + " WHERE id IN (SELECT project_id FROM project_researchgroup WHERE researchgroup_id=?)",
+                researchGroupId, researchGroupId, researchGroupId);
+    }
+
+    private List<Long> lock(String sql, Collection<Long> ids) {
+        if(ids.isEmpty()){
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.queryForList(sql, Map.of("ids", ids), Long.class);
+    }
+
+    private void updateLinks(String sql, Collection<GroupLinkDto> links) {
+        jdbcTemplate.batchUpdate(sql, links, BATCH_SIZE, (ps, link) -> {
+            ps.setLong(1, link.getResearchGroupId());
+            ps.setLong(2, link.getResearchGroupId());
+            ps.setLong(3, link.getProjectId());
+        });
+    }
+}
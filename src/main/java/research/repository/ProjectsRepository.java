@@ -1,22 +1,84 @@
 package research.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import research.dtos.GroupCountStatisticsDto;
+import research.dtos.ProjectParticipationDto;
+import research.dtos.ProjectWithoutGroupsDto;
+import research.dtos.StartYearStatisticsDto;
 import research.model.Project;
-import research.model.ResearchGroup;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.QueryHints.*;
 
+// A criterion left at its default is switched off with a parameter check instead of an always true range, so the
+// database can page along the index of the order.
 @Repository
 public interface ProjectsRepository extends JpaRepository<Project,Long> {
-    @Query("FROM Project p WHERE :researchGroup MEMBER p.researchGroupSet")
-    List<Project> findProjectsByParticipatingGroup(@Param("researchGroup") ResearchGroup researchGroup);
+    @Query("select  p from Project p where (:namePattern ='' or p.nameSearch like :namePattern escape '!') and (:startBefore is null or p.startDate<=:startBefore) and (:startAfter is null or p.startDate>=:startAfter)"
+            + " and (:minBudget=0 or p.budget>=:minBudget) and (:minGroupCount=0 or p.groupCount>=:minGroupCount) and (:minGroupBudget=0L or p.groupBudget>=:minGroupBudget)"
+            + " and (:minResearcherCount=0 or p.researcherCount>=:minResearcherCount)")
+    List<Project> findAllByCriteria(@Param("namePattern") String namePattern, @Param("startBefore") LocalDate startBefore, @Param("startAfter") LocalDate startAfter, @Param("minBudget") int minBudget,
+                                    @Param("minGroupCount") int minGroupCount, @Param("minGroupBudget") long minGroupBudget, @Param("minResearcherCount") int minResearcherCount, Pageable pageable);
 
-    @Query("select  p from Project p where (:nameLike ='' or p.name like %:nameLike%) and (p.startDate<=:startBefore) and (p.startDate>=:startAfter) and (:minBudget is null or p.budget>=:minBudget)")
-    List<Project> findAllByCriteria(@Param("nameLike") String nameLike, @Param("startBefore") LocalDate startBefore, @Param("startAfter") LocalDate startAfter, @Param("minBudget") int minBudget);
+    @Query("select  p from Project p where p.id in :ids and (:startBefore is null or p.startDate<=:startBefore) and (:startAfter is null or p.startDate>=:startAfter)"
+            + " and (:minBudget=0 or p.budget>=:minBudget) and (:minGroupCount=0 or p.groupCount>=:minGroupCount) and (:minGroupBudget=0L or p.groupBudget>=:minGroupBudget)"
+            + " and (:minResearcherCount=0 or p.researcherCount>=:minResearcherCount)")
+    List<Project> findAllByCriteriaAndIdIn(@Param("ids") Collection<Long> ids, @Param("startBefore") LocalDate startBefore, @Param("startAfter") LocalDate startAfter, @Param("minBudget") int minBudget,
+                                           @Param("minGroupCount") int minGroupCount, @Param("minGroupBudget") long minGroupBudget, @Param("minResearcherCount") int minResearcherCount, Pageable pageable);
 
-    Project findByNameIgnoreCase(String name);
+    @Query("select new research.dtos.ProjectWithoutGroupsDto(p.id, p.name, p.startDate, p.budget) from Project p where (:namePattern ='' or p.nameSearch like :namePattern escape '!') and (:startBefore is null or p.startDate<=:startBefore) and (:startAfter is null or p.startDate>=:startAfter)"
+            + " and (:minBudget=0 or p.budget>=:minBudget) and (:minGroupCount=0 or p.groupCount>=:minGroupCount) and (:minGroupBudget=0L or p.groupBudget>=:minGroupBudget)"
+            + " and (:minResearcherCount=0 or p.researcherCount>=:minResearcherCount)")
+    List<ProjectWithoutGroupsDto> findSummariesByCriteria(@Param("namePattern") String namePattern, @Param("startBefore") LocalDate startBefore, @Param("startAfter") LocalDate startAfter, @Param("minBudget") int minBudget,
+                                                          @Param("minGroupCount") int minGroupCount, @Param("minGroupBudget") long minGroupBudget, @Param("minResearcherCount") int minResearcherCount, Pageable pageable);
+
+    @Query("select new research.dtos.ProjectWithoutGroupsDto(p.id, p.name, p.startDate, p.budget) from Project p where p.id in :ids and (:startBefore is null or p.startDate<=:startBefore) and (:startAfter is null or p.startDate>=:startAfter)"
+            + " and (:minBudget=0 or p.budget>=:minBudget) and (:minGroupCount=0 or p.groupCount>=:minGroupCount) and (:minGroupBudget=0L or p.groupBudget>=:minGroupBudget)"
+            + " and (:minResearcherCount=0 or p.researcherCount>=:minResearcherCount)")
+    List<ProjectWithoutGroupsDto> findSummariesByCriteriaAndIdIn(@Param("ids") Collection<Long> ids, @Param("startBefore") LocalDate startBefore, @Param("startAfter") LocalDate startAfter, @Param("minBudget") int minBudget,
+                                                                 @Param("minGroupCount") int minGroupCount, @Param("minGroupBudget") long minGroupBudget, @Param("minResearcherCount") int minResearcherCount, Pageable pageable);
+
+    // Reads the row past the second level cache under the lock the summary updates take, so the state Hibernate
+    // caches after the update carries the current summary instead of the one read before a concurrent change.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Project p where p.id=:id")
+    Optional<Project> findByIdForUpdate(@Param("id") long id);
+
+    @Query("select distinct p from Project p left join fetch p.researchGroupSet where p.id in :ids")
+    List<Project> fetchResearchGroupsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select p, rg from Project p left join p.researchGroupSet rg order by p.id")
+    Stream<Object[]> streamAllWithResearchGroups();
+
+    @Query(value = "SELECT * FROM projects WHERE project_name_key=UPPER(:name)", nativeQuery = true)
+    Project findByNameIgnoreCase(@Param("name") String name);
+
+    @Query(value = "SELECT * FROM projects WHERE project_name_key IN (:upperNames)", nativeQuery = true)
+    List<Project> findByUpperNameIn(@Param("upperNames") Collection<String> upperNames);
+
+    @Query("select new research.dtos.StartYearStatisticsDto(year(p.startDate), count(p), sum(p.budget)) from Project p group by year(p.startDate) order by year(p.startDate)")
+    List<StartYearStatisticsDto> findStartYearStatistics();
+
+    @Query("select new research.dtos.GroupCountStatisticsDto(p.groupCount, count(p)) from Project p group by p.groupCount order by p.groupCount")
+    List<GroupCountStatisticsDto> findGroupCountStatistics();
+
+    @Query("select new research.dtos.ProjectParticipationDto(p.id, p.name, p.groupCount) from Project p")
+    List<ProjectParticipationDto> findProjectParticipations(Pageable pageable);
 }
@@ -0,0 +1,192 @@
+package research.repository;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import research.criteria.OrderType;
+import research.criteria.ProjectCriteria;
+import research.criteria.ProjectOrderBy;
+import research.criteria.ResearchGroupCriteria;
+import research.criteria.ResearchGroupOrderBy;
+import research.dtos.ProjectDto;
+import research.dtos.ProjectWithoutGroupsDto;
+import research.dtos.ResearchGroupDto;
+import research.dtos.ResearchGroupWithoutProjectsDto;
+import research.model.Location;
+import research.search.NameIndex;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only queries of the criteria lists over R2DBC. The rows are streamed in batches: the associations of every
+ * batch are read with one query, so a slow consumer holds back the reading of the following batches.
+ * The connection factory isn't a bean, otherwise the JDBC DataSource of the JPA repositories would back off.
+ */
+@Repository
+public class ReactiveReadRepository {
+    private static final int BATCH_SIZE=100;
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveReadRepository(@Value("${research.reactive.url}") String url,
+                                  @Value("${research.reactive.username:${spring.datasource.username}}") String username,
+                                  @Value("${research.reactive.password:${spring.datasource.password}}") String password) {
+        this.connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    @PreDestroy
+    public void close() {
+        if(connectionFactory instanceof io.r2dbc.spi.Closeable){
+            Mono.from(((io.r2dbc.spi.Closeable) connectionFactory).close()).block();
+        }
+    }
+
+    public Flux<ProjectDto> findProjects(ProjectCriteria projectCriteria, Collection<Long> ids) {
+        String direction=direction(projectCriteria.getOrderType());
+        StringBuilder sql=new StringBuilder("SELECT id, version, project_name, start_date, budget, group_count, group_budget, researcher_count FROM projects WHERE ")
+                .append(ids==null ? "(:namePattern='' OR project_name_search LIKE :namePattern ESCAPE '!')" : "id IN (:ids)")
+                .append(" AND start_date<=:startBefore AND start_date>=:startAfter AND budget>=:minBudget")
+                .append(" AND group_count>=:minGroupCount AND group_budget>=:minGroupBudget AND researcher_count>=:minResearcherCount ORDER BY ");
+        if(projectCriteria.getOrderBy()!=ProjectOrderBy.id){
+            sql.append(projectColumn(projectCriteria.getOrderBy())).append(" ").append(direction).append(", ");
+        }
+        sql.append("id ").append(direction).append(" LIMIT :limit OFFSET :offset");
+
+        DatabaseClient.GenericExecuteSpec spec=nameFilter(databaseClient.sql(sql.toString()), projectCriteria.getNameLike(), ids)
+                .bind("startBefore", projectCriteria.getStartBefore())
+                .bind("startAfter", projectCriteria.getStartAfter())
+                .bind("minBudget", projectCriteria.getMinBudget())
+                .bind("minGroupCount", projectCriteria.getMinGroupCount())
+                .bind("minGroupBudget", projectCriteria.getMinGroupBudget())
+                .bind("minResearcherCount", projectCriteria.getMinResearcherCount())
+                .bind("limit", projectCriteria.getSize())
+                .bind("offset", (long) projectCriteria.getPage()*projectCriteria.getSize());
+        return withAssociations(spec.map(this::toProject).all(), ProjectDto::getId,
+                "SELECT pr.project_id AS owner_id, rg.id, rg.researchgroup_name, rg.founded, rg.count_of_researchers, rg.location, rg.budget"
+                        + " FROM project_researchgroup pr JOIN research_groups rg ON rg.id=pr.researchgroup_id WHERE pr.project_id IN (:ids)",
+                this::toResearchGroupWithoutProjects,
+                (project, researchGroups) -> {
+                    project.setResearchGroupSet(researchGroups);
+                    return project;
+                });
+    }
+
+    public Flux<ResearchGroupDto> findResearchGroups(ResearchGroupCriteria researchGroupCriteria, Collection<Long> ids) {
+        String direction=direction(researchGroupCriteria.getOrderType());
+        StringBuilder sql=new StringBuilder("SELECT id, version, researchgroup_name, founded, count_of_researchers, location, budget FROM research_groups WHERE ")
+                .append(ids==null ? "(:namePattern='' OR researchgroup_name_search LIKE :namePattern ESCAPE '!')" : "id IN (:ids)")
+                .append(" AND count_of_researchers>=:minCountOfResearchers AND budget>=:minBudget ORDER BY ");
+        if(researchGroupCriteria.getOrderBy()!=ResearchGroupOrderBy.id){
+            sql.append(researchGroupColumn(researchGroupCriteria.getOrderBy())).append(" ").append(direction).append(", ");
+        }
+        sql.append("id ").append(direction);
+
+        DatabaseClient.GenericExecuteSpec spec=nameFilter(databaseClient.sql(sql.toString()), researchGroupCriteria.getNameLike(), ids)
+                .bind("minCountOfResearchers", researchGroupCriteria.getMinCountOfResearchers())
+                .bind("minBudget", researchGroupCriteria.getMinBudget());
+        return withAssociations(spec.map(this::toResearchGroup).all(), ResearchGroupDto::getId,
+                "SELECT pr.researchgroup_id AS owner_id, p.id, p.project_name, p.start_date, p.budget"
+                        + " FROM project_researchgroup pr JOIN projects p ON p.id=pr.project_id WHERE pr.researchgroup_id IN (:ids)",
+                this::toProjectWithoutGroups,
+                (researchGroup, projects) -> {
+                    researchGroup.setProjectSet(projects);
+                    return researchGroup;
+                });
+    }
+
+    private DatabaseClient.GenericExecuteSpec nameFilter(DatabaseClient.GenericExecuteSpec spec, String nameLike, Collection<Long> ids) {
+        if(ids!=null){
+            return spec.bind("ids", ids);
+        }
+        return spec.bind("namePattern", NameIndex.substringLikePattern(nameLike));
+    }
+
+    private <T, A, R> Flux<R> withAssociations(Flux<T> owners, Function<T, Long> idOf, String associationSql,
+                                               Function<Readable, A> associationMapper, BiFunction<T, Set<A>, R> combiner) {
+        return owners.buffer(BATCH_SIZE)
+                .concatMap(batch -> databaseClient.sql(associationSql)
+                        .bind("ids", batch.stream().map(idOf).collect(Collectors.toList()))
+                        .map(row -> Map.entry(row.get("owner_id", Long.class), associationMapper.apply(row)))
+                        .all()
+                        .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.mapping(Map.Entry::getValue, Collectors.toCollection(HashSet::new))))
+                        .flatMapIterable(associations -> batch.stream()
+                                .map(owner -> combiner.apply(owner, associations.getOrDefault(idOf.apply(owner), new HashSet<>())))
+                                .collect(Collectors.toList())));
+    }
+
+    private ProjectDto toProject(Readable row) {
+        return new ProjectDto(row.get("id", Long.class), row.get("version", Long.class), row.get("project_name", String.class),
+                row.get("start_date", LocalDate.class), row.get("budget", Integer.class), row.get("group_count", Integer.class),
+                row.get("group_budget", Long.class), row.get("researcher_count", Integer.class), new HashSet<>());
+    }
+
+    private ResearchGroupDto toResearchGroup(Readable row) {
+        return new ResearchGroupDto(row.get("id", Long.class), row.get("version", Long.class), row.get("researchgroup_name", String.class),
+                row.get("founded", LocalDate.class), row.get("count_of_researchers", Integer.class),
+                Location.valueOf(row.get("location", String.class)), row.get("budget", Integer.class), new HashSet<>());
+    }
+
+    private ProjectWithoutGroupsDto toProjectWithoutGroups(Readable row) {
+        return new ProjectWithoutGroupsDto(row.get("id", Long.class), row.get("project_name", String.class),
+                row.get("start_date", LocalDate.class), row.get("budget", Integer.class));
+    }
+
+    private ResearchGroupWithoutProjectsDto toResearchGroupWithoutProjects(Readable row) {
+        return new ResearchGroupWithoutProjectsDto(row.get("id", Long.class), row.get("researchgroup_name", String.class),
+                row.get("founded", LocalDate.class), row.get("count_of_researchers", Integer.class),
+                Location.valueOf(row.get("location", String.class)), row.get("budget", Integer.class));
+    }
+
+    private String direction(OrderType orderType) {
+        return orderType==OrderType.desc ? "DESC" : "ASC";
+    }
+
+    private String projectColumn(ProjectOrderBy orderBy) {
+        switch (orderBy) {
+            case name:
+                return "project_name";
+            case startDate:
+                return "start_date";
+            case budget:
+                return "budget";
+            case groupCount:
+                return "group_count";
+            case groupBudget:
+                return "group_budget";
+            case researcherCount:
+                return "researcher_count";
+            default:
+                return "id";
+        }
+    }
+
+    private String researchGroupColumn(ResearchGroupOrderBy orderBy) {
+        switch (orderBy) {
+            case name:
+                return "researchgroup_name";
+            case founded:
+                return "founded";
+            case countOfResearchers:
+                return "count_of_researchers";
+            case budget:
+                return "budget";
+            default:
+                return "id";
+        }
+    }
+}
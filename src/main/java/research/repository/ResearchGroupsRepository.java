@@ -1,16 +1,47 @@
 package research.repository;
 
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import research.dtos.LocationStatisticsDto;
+import research.dtos.ResearchGroupWithoutProjectsDto;
 import research.model.Location;
 import research.model.ResearchGroup;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface ResearchGroupsRepository extends JpaRepository<ResearchGroup,Long> {
-    @Query("select  rg from ResearchGroup rg where (:nameLike ='' or rg.name like %:nameLike%) and (:minCountOfResearchers is null or rg.countOfResearchers>=:minCountOfResearchers) and (:minBudget is null or rg.budget>=:minBudget)")
-    List<ResearchGroup> findAllByCriteria(@Param("nameLike") String nameLike, @Param("minCountOfResearchers") Integer minCountOfResearchers, @Param("minBudget")  Integer minBudget);
+public interface ResearchGroupsRepository extends JpaRepository<ResearchGroup,Long>, ResearchGroupsRepositoryCustom {
+    @EntityGraph(attributePaths = "projectSet")
+    @Query("select distinct rg from ResearchGroup rg where (:namePattern ='' or rg.nameSearch like :namePattern escape '!') and (:minCountOfResearchers=0 or rg.countOfResearchers>=:minCountOfResearchers) and (:minBudget=0 or rg.budget>=:minBudget)")
+    List<ResearchGroup> findAllByCriteria(@Param("namePattern") String namePattern, @Param("minCountOfResearchers") int minCountOfResearchers, @Param("minBudget") int minBudget);
 
-    ResearchGroup findByNameIgnoreCaseAndLocation(String name, Location location);
+    @EntityGraph(attributePaths = "projectSet")
+    @Query("select distinct rg from ResearchGroup rg where rg.id in :ids and (:minCountOfResearchers=0 or rg.countOfResearchers>=:minCountOfResearchers) and (:minBudget=0 or rg.budget>=:minBudget)")
+    List<ResearchGroup> findAllByCriteriaAndIdIn(@Param("ids") Collection<Long> ids, @Param("minCountOfResearchers") int minCountOfResearchers, @Param("minBudget") int minBudget);
+
+    @Query("select new research.dtos.ResearchGroupWithoutProjectsDto(rg.id, rg.name, rg.founded, rg.countOfResearchers, rg.location, rg.budget) from ResearchGroup rg where (:namePattern ='' or rg.nameSearch like :namePattern escape '!') and (:minCountOfResearchers=0 or rg.countOfResearchers>=:minCountOfResearchers) and (:minBudget=0 or rg.budget>=:minBudget)")
+    List<ResearchGroupWithoutProjectsDto> findSummariesByCriteria(@Param("namePattern") String namePattern, @Param("minCountOfResearchers") int minCountOfResearchers, @Param("minBudget") int minBudget, Sort sort);
+
+    @Query("select new research.dtos.ResearchGroupWithoutProjectsDto(rg.id, rg.name, rg.founded, rg.countOfResearchers, rg.location, rg.budget) from ResearchGroup rg where rg.id in :ids and (:minCountOfResearchers=0 or rg.countOfResearchers>=:minCountOfResearchers) and (:minBudget=0 or rg.budget>=:minBudget)")
+    List<ResearchGroupWithoutProjectsDto> findSummariesByCriteriaAndIdIn(@Param("ids") Collection<Long> ids, @Param("minCountOfResearchers") int minCountOfResearchers, @Param("minBudget") int minBudget, Sort sort);
+
+    @Query("select distinct rg from ResearchGroup rg left join fetch rg.projectSet where rg.id in :ids")
+    List<ResearchGroup> fetchProjectsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT * FROM research_groups WHERE researchgroup_name_key=UPPER(:name) AND location=:#{#location.name()}", nativeQuery = true)
+    ResearchGroup findByNameIgnoreCaseAndLocation(@Param("name") String name, @Param("location") Location location);
+
+    @Modifying
+    @Query("delete from ResearchGroup rg where rg.id=:id")
+    int deleteResearchGroupById(@Param("id") long id);
+
+    @Query(value = "SELECT * FROM research_groups WHERE researchgroup_name_key IN (:upperNames)", nativeQuery = true)
+    List<ResearchGroup> findByUpperNameIn(@Param("upperNames") Collection<String> upperNames);
+
+    @Query("select new research.dtos.LocationStatisticsDto(rg.location, count(rg), sum(rg.budget), avg(rg.budget), sum(rg.countOfResearchers)) from ResearchGroup rg group by rg.location order by rg.location")
+    List<LocationStatisticsDto> findLocationStatistics();
 }
@@ -0,0 +1,11 @@
+package research.repository;
+
+import research.criteria.ResearchGroupCriteria;
+import research.criteria.ResearchGroupCursor;
+import research.model.ResearchGroup;
+import java.util.Collection;
+import java.util.List;
+
+public interface ResearchGroupsRepositoryCustom {
+    List<ResearchGroup> findPageByCriteria(ResearchGroupCriteria researchGroupCriteria, Collection<Long> ids, ResearchGroupCursor after, int limit);
+}
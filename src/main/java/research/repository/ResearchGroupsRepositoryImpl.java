@@ -0,0 +1,62 @@
+package research.repository;
+
+import research.criteria.OrderType;
+import research.criteria.ResearchGroupCriteria;
+import research.criteria.ResearchGroupCursor;
+import research.criteria.ResearchGroupOrderBy;
+import research.model.ResearchGroup;
+import research.search.NameIndex;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.Collection;
+import java.util.List;
+
+public class ResearchGroupsRepositoryImpl implements ResearchGroupsRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ResearchGroup> findPageByCriteria(ResearchGroupCriteria researchGroupCriteria, Collection<Long> ids, ResearchGroupCursor after, int limit) {
+        ResearchGroupOrderBy orderBy=researchGroupCriteria.getOrderBy();
+        String direction=researchGroupCriteria.getOrderType()== OrderType.desc ? "desc" : "asc";
+        String comparison=researchGroupCriteria.getOrderType()== OrderType.desc ? "<" : ">";
+
+        StringBuilder jpql=new StringBuilder("select rg from ResearchGroup rg where ")
+                .append(ids==null ? "(:namePattern ='' or rg.nameSearch like :namePattern escape '!')" : "rg.id in :ids")
+                .append(" and (:minCountOfResearchers=0 or rg.countOfResearchers>=:minCountOfResearchers) and (:minBudget=0 or rg.budget>=:minBudget)");
+        if(after!=null){
+            if(orderBy== ResearchGroupOrderBy.id){
+                jpql.append(" and rg.id").append(comparison).append(":lastId");
+            }
+            else{
+                String key="rg."+orderBy.name();
+                jpql.append(" and (").append(key).append(comparison).append(":lastKey or (")
+                        .append(key).append("=:lastKey and rg.id").append(comparison).append(":lastId))");
+            }
+        }
+        jpql.append(" order by ");
+        if(orderBy!= ResearchGroupOrderBy.id){
+            jpql.append("rg.").append(orderBy.name()).append(" ").append(direction).append(", ");
+        }
+        jpql.append("rg.id ").append(direction);
+
+        TypedQuery<ResearchGroup> query=entityManager.createQuery(jpql.toString(), ResearchGroup.class)
+                .setParameter("minCountOfResearchers", researchGroupCriteria.getMinCountOfResearchers())
+                .setParameter("minBudget", researchGroupCriteria.getMinBudget())
+                .setMaxResults(limit);
+        if(ids==null){
+            query.setParameter("namePattern", NameIndex.substringLikePattern(researchGroupCriteria.getNameLike()));
+        }
+        else{
+            query.setParameter("ids", ids);
+        }
+        if(after!=null){
+            query.setParameter("lastId", after.getId());
+            if(orderBy!= ResearchGroupOrderBy.id){
+                query.setParameter("lastKey", after.keyValue());
+            }
+        }
+        return query.getResultList();
+    }
+}
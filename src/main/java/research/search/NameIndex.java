@@ -0,0 +1,147 @@
+package research.search;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index of names. Names are stored lower-cased and without accents, a search walks the ids of the
+ * rarest trigram of the query, keeps those present in the lists of all its other trigrams and finally those whose
+ * name really starts with or contains the query. Queries shorter than
+ * a trigram check every name in id order until the limit is reached.
+ */
+public class NameIndex {
+    private static final int GRAM=3;
+    private static final Pattern COMBINING_MARKS=Pattern.compile("\\p{M}+");
+    private static final Pattern LIKE_SPECIAL_CHARACTERS=Pattern.compile("[!%_]");
+
+    private final NavigableMap<Long,String> names=new TreeMap<>();
+    private final Map<Long,PostingList> postings=new HashMap<>();
+    private final ReadWriteLock lock=new ReentrantReadWriteLock();
+
+    public static String normalize(String name) {
+        String decomposed=Normalizer.normalize(name,Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The SQL LIKE pattern, with {@code '!'} as escape character, of a substring search in the normalized names,
+     * or an empty string for a blank query.
+     */
+    public static String substringLikePattern(String query) {
+        if(query==null || query.isBlank()){
+            return "";
+        }
+        String escaped=LIKE_SPECIAL_CHARACTERS.matcher(normalize(query)).replaceAll("!$0");
+        return "%"+escaped+"%";
+    }
+
+    public void put(long id, String name) {
+        String normalized=normalize(name);
+        lock.writeLock().lock();
+        try {
+            String previous=names.put(id,normalized);
+            if(previous!=null){
+                trigrams(previous).forEach(trigram -> removePosting(trigram,id));
+            }
+            trigrams(normalized).forEach(trigram -> postings.computeIfAbsent(trigram,key -> new PostingList()).add(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String previous=names.remove(id);
+            if(previous!=null){
+                trigrams(previous).forEach(trigram -> removePosting(trigram,id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns at most {@code limit} matching ids in increasing order.
+     */
+    public List<Long> search(String query, NameMatch match, int limit) {
+        String normalized=normalize(query);
+        List<Long> result=new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if(normalized.length()<GRAM){
+                for (Map.Entry<Long,String> entry : names.entrySet()) {
+                    if(result.size()>=limit){
+                        break;
+                    }
+                    if(matches(entry.getValue(),normalized,match)){
+                        result.add(entry.getKey());
+                    }
+                }
+                return result;
+            }
+            List<PostingList> lists=new ArrayList<>();
+            for (long trigram : trigrams(normalized)) {
+                PostingList posting=postings.get(trigram);
+                if(posting==null){
+                    return result;
+                }
+                lists.add(posting);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            PostingList rarest=lists.get(0);
+            for (int i = 0; i < rarest.size() && result.size() < limit; i++) {
+                long id=rarest.get(i);
+                if(inAll(lists,id) && matches(names.get(id),normalized,match)){
+                    result.add(id);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean inAll(List<PostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if(!lists.get(i).contains(id)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(String name, String query, NameMatch match) {
+        return match==NameMatch.PREFIX ? name.startsWith(query) : name.contains(query);
+    }
+
+    private void removePosting(long trigram, long id) {
+        PostingList posting=postings.get(trigram);
+        if(posting!=null){
+            posting.remove(id);
+            if(posting.size()==0){
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    private Set<Long> trigrams(String normalized) {
+        Set<Long> trigrams=new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            trigrams.add(((long) normalized.charAt(i) << 32) | ((long) normalized.charAt(i + 1) << 16) | normalized.charAt(i + 2));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,5 @@
+package research.search;
+
+public enum NameMatch {
+    PREFIX,SUBSTRING
+}
@@ -0,0 +1,179 @@
+package research.search;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import research.events.ResearchDataChangedEvent;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps one name index for projects and one for research groups. The indexes are built when the application
+ * starts and follow every committed change through the {@link ResearchDataChangedEvent}s. The changes committed while
+ * a rebuild reads the tables are read again into the new indexes once they are swapped in.
+ */
+@Service
+public class NameSearchService {
+    private static final int CHUNK_SIZE=1000;
+    private static final String PROJECT_NAMES="SELECT id, project_name FROM projects";
+    private static final String RESEARCH_GROUP_NAMES="SELECT id, researchgroup_name FROM research_groups";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private volatile NameIndex projectNames=new NameIndex();
+    private volatile NameIndex researchGroupNames=new NameIndex();
+
+    // The ids changed since the running rebuild started, null when none runs.
+    private final Object rebuildMonitor=new Object();
+    private Set<Long> projectIdsChangedDuringRebuild;
+    private Set<Long> researchGroupIdsChangedDuringRebuild;
+
+    public NameSearchService(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        synchronized (rebuildMonitor) {
+            projectIdsChangedDuringRebuild=new HashSet<>();
+            researchGroupIdsChangedDuringRebuild=new HashSet<>();
+        }
+        NameIndex projects=new NameIndex();
+        jdbcTemplate.query(PROJECT_NAMES, rs -> {
+            projects.put(rs.getLong(1), rs.getString(2));
+        });
+        NameIndex researchGroups=new NameIndex();
+        jdbcTemplate.query(RESEARCH_GROUP_NAMES, rs -> {
+            researchGroups.put(rs.getLong(1), rs.getString(2));
+        });
+        Set<Long> changedProjectIds;
+        Set<Long> changedResearchGroupIds;
+        synchronized (rebuildMonitor) {
+            projectNames=projects;
+            researchGroupNames=researchGroups;
+            changedProjectIds=projectIdsChangedDuringRebuild;
+            changedResearchGroupIds=researchGroupIdsChangedDuringRebuild;
+            projectIdsChangedDuringRebuild=null;
+            researchGroupIdsChangedDuringRebuild=null;
+        }
+        refresh(projects, PROJECT_NAMES+" WHERE id IN (:ids)", changedProjectIds);
+        refresh(researchGroups, RESEARCH_GROUP_NAMES+" WHERE id IN (:ids)", changedResearchGroupIds);
+    }
+
+    /**
+     * Collects the created, renamed and deleted ids of a transaction and applies them to the indexes once it has committed,
+     * reading the new names with one IN query per index instead of one query per event.
+     */
+    @EventListener
+    public void onDataChanged(ResearchDataChangedEvent event) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            PendingNames pendingNames=new PendingNames();
+            pendingNames.add(event);
+            pendingNames.apply();
+            return;
+        }
+        PendingNames pendingNames=(PendingNames) TransactionSynchronizationManager.getResource(this);
+        if(pendingNames==null){
+            pendingNames=new PendingNames();
+            TransactionSynchronizationManager.bindResource(this, pendingNames);
+            TransactionSynchronizationManager.registerSynchronization(pendingNames);
+        }
+        pendingNames.add(event);
+    }
+
+    public List<Long> findProjectIds(String name, NameMatch match, int limit) {
+        return projectNames.search(name, match, limit);
+    }
+
+    public List<Long> findResearchGroupIds(String name, NameMatch match, int limit) {
+        return researchGroupNames.search(name, match, limit);
+    }
+
+    private void refresh(NameIndex index, String sql, Set<Long> ids) {
+        List<Long> idList=new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += CHUNK_SIZE) {
+            Set<Long> missing=new HashSet<>(idList.subList(from, Math.min(from+CHUNK_SIZE, idList.size())));
+            namedParameterJdbcTemplate.query(sql, Map.of("ids", missing), (RowCallbackHandler) rs -> {
+                index.put(rs.getLong(1), rs.getString(2));
+                missing.remove(rs.getLong(1));
+            });
+            missing.forEach(index::remove);
+        }
+    }
+
+    private class PendingNames implements TransactionSynchronization {
+        private final Set<Long> projectIds=new HashSet<>();
+        private final Set<Long> deletedProjectIds=new HashSet<>();
+        private final Set<Long> researchGroupIds=new HashSet<>();
+        private final Set<Long> deletedResearchGroupIds=new HashSet<>();
+
+        private void add(ResearchDataChangedEvent event) {
+            switch (event.getChangeType()) {
+                case PROJECT_CREATED:
+                case PROJECT_UPDATED:
+                    if(event.isNameChanged()){
+                        projectIds.add(event.getProjectId());
+                    }
+                    break;
+                case PROJECT_DELETED:
+                    projectIds.remove(event.getProjectId());
+                    deletedProjectIds.add(event.getProjectId());
+                    break;
+                case RESEARCH_GROUP_CREATED:
+                case RESEARCH_GROUP_UPDATED:
+                    if(event.isNameChanged()){
+                        researchGroupIds.add(event.getResearchGroupId());
+                    }
+                    break;
+                case RESEARCH_GROUP_DELETED:
+                    researchGroupIds.remove(event.getResearchGroupId());
+                    deletedResearchGroupIds.add(event.getResearchGroupId());
+                    break;
+                default:
+            }
+        }
+
+        // A change recorded here is applied to the new indexes by the rebuild, one not recorded finds them already swapped in.
+        private void apply() {
+            synchronized (rebuildMonitor) {
+                if(projectIdsChangedDuringRebuild!=null){
+                    projectIdsChangedDuringRebuild.addAll(projectIds);
+                    projectIdsChangedDuringRebuild.addAll(deletedProjectIds);
+                    researchGroupIdsChangedDuringRebuild.addAll(researchGroupIds);
+                    researchGroupIdsChangedDuringRebuild.addAll(deletedResearchGroupIds);
+                }
+            }
+            deletedProjectIds.forEach(projectNames::remove);
+            deletedResearchGroupIds.forEach(researchGroupNames::remove);
+            refresh(projectNames, PROJECT_NAMES+" WHERE id IN (:ids)", projectIds);
+            refresh(researchGroupNames, RESEARCH_GROUP_NAMES+" WHERE id IN (:ids)", researchGroupIds);
+        }
+
+        // Runs before the query result cache starts a new generation, so no list cached afterwards can miss this change.
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void afterCommit() {
+            apply();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(NameSearchService.this);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package research.search;
+
+import java.util.Arrays;
+
+// Sorted ids of the names containing one trigram. Ids mostly arrive in increasing order, so adding is usually an append.
+class PostingList {
+    private long[] ids=new long[4];
+    private int size;
+
+    void add(long id) {
+        if(size==0 || id>ids[size-1]){
+            ensureCapacity();
+            ids[size++]=id;
+            return;
+        }
+        int index=Arrays.binarySearch(ids,0,size,id);
+        if(index<0){
+            int insertAt=-index-1;
+            ensureCapacity();
+            System.arraycopy(ids,insertAt,ids,insertAt+1,size-insertAt);
+            ids[insertAt]=id;
+            size++;
+        }
+    }
+
+    void remove(long id) {
+        int index=Arrays.binarySearch(ids,0,size,id);
+        if(index>=0){
+            System.arraycopy(ids,index+1,ids,index,size-index-1);
+            size--;
+        }
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids,0,size,id)>=0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    private void ensureCapacity() {
+        if(size==ids.length){
+            ids=Arrays.copyOf(ids,size*2);
+        }
+    }
+}
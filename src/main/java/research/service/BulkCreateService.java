@@ -0,0 +1,176 @@
+package research.service;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import research.dtos.*;
+import research.events.ChangeType;
+import research.events.ResearchDataChangedEvent;
+import research.exceptions.*;
+import research.mapper.ProjectsAndGroupsMapper;
+import research.model.Project;
+import research.model.ResearchGroup;
+import research.repository.BulkInsertRepository;
+import research.repository.ProjectsRepository;
+import research.repository.ResearchGroupsRepository;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Transactional
+@Service
+public class BulkCreateService {
+    public static final int MAX_BULK_SIZE=10000;
+
+    private final ProjectsAndGroupsMapper mapper;
+    private final ProjectsRepository projectsRepository;
+    private final ResearchGroupsRepository researchGroupsRepository;
+    private final BulkInsertRepository bulkInsertRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Validation validation=new Validation();
+
+    public BulkCreateService(ProjectsAndGroupsMapper mapper, ProjectsRepository projectsRepository, ResearchGroupsRepository researchGroupsRepository, BulkInsertRepository bulkInsertRepository, Validator validator, ApplicationEventPublisher eventPublisher) {
+        this.mapper = mapper;
+        this.projectsRepository = projectsRepository;
+        this.researchGroupsRepository = researchGroupsRepository;
+        this.bulkInsertRepository = bulkInsertRepository;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public BulkCreateResultDto createProjects(List<CreateProjectCommand> commands) {
+        checkBulkSize(commands);
+        BulkItemResultDto[] results=new BulkItemResultDto[commands.size()];
+        Map<String,Integer> candidates=new LinkedHashMap<>();
+        List<Project> projects=new ArrayList<>(commands.size());
+
+        for (int i = 0; i < commands.size(); i++) {
+            projects.add(null);
+            CreateProjectCommand command=commands.get(i);
+            String problem=violations(command);
+            if(problem==null){
+                Project project=mapper.toProject(command);
+                try {
+                    projects.set(i,validation.validProject(project));
+                } catch (ProjectNotValidException e) {
+                    problem=e.getDetail();
+                }
+            }
+            if(problem!=null){
+                results[i]=new BulkItemResultDto(i,BulkItemStatus.NOT_VALID,null,problem);
+            }
+            else if(candidates.putIfAbsent(upper(command.getName()),i)!=null){
+                results[i]=new BulkItemResultDto(i,BulkItemStatus.ALREADY_EXISTS,null,
+                        String.format("Project (name:%s) occurs more than once in the request", command.getName()));
+            }
+        }
+
+        Map<String,Long> existingIds=InLists.queryInChunks(candidates.keySet(),projectsRepository::findByUpperNameIn).stream()
+                .collect(Collectors.toMap(project -> upper(project.getName()),Project::getId,(first,second) -> first));
+        List<Integer> indexesToInsert=new ArrayList<>();
+        for (Map.Entry<String,Integer> candidate : candidates.entrySet()) {
+            int i=candidate.getValue();
+            Long existingId=existingIds.get(candidate.getKey());
+            if(existingId!=null){
+                results[i]=new BulkItemResultDto(i,BulkItemStatus.ALREADY_EXISTS,existingId,
+                        new ProjectAlreadyExistsException(projects.get(i),existingId).getDetail());
+            }
+            else {
+                indexesToInsert.add(i);
+            }
+        }
+
+        List<Long> ids=bulkInsertRepository.insertProjects(indexesToInsert.stream().map(projects::get).collect(Collectors.toList()));
+        for (int j = 0; j < ids.size(); j++) {
+            int i=indexesToInsert.get(j);
+            results[i]=new BulkItemResultDto(i,BulkItemStatus.CREATED,ids.get(j),null);
+            eventPublisher.publishEvent(ResearchDataChangedEvent.ofProject(ChangeType.PROJECT_CREATED,ids.get(j)));
+        }
+        return new BulkCreateResultDto(ids.size(),commands.size()-ids.size(),Arrays.asList(results));
+    }
+
+    public BulkCreateResultDto createResearchGroups(List<CreateResearchGroupCommand> commands) {
+        checkBulkSize(commands);
+        BulkItemResultDto[] results=new BulkItemResultDto[commands.size()];
+        Map<String,Integer> candidates=new LinkedHashMap<>();
+        List<ResearchGroup> researchGroups=new ArrayList<>(commands.size());
+
+        for (int i = 0; i < commands.size(); i++) {
+            researchGroups.add(null);
+            CreateResearchGroupCommand command=commands.get(i);
+            String problem=violations(command);
+            if(problem==null){
+                ResearchGroup researchGroup=mapper.toResearchGroup(command);
+                try {
+                    researchGroups.set(i,validation.validResearchGroup(researchGroup));
+                } catch (ResearchGroupNotValidException e) {
+                    problem=e.getDetail();
+                }
+            }
+            if(problem!=null){
+                results[i]=new BulkItemResultDto(i,BulkItemStatus.NOT_VALID,null,problem);
+            }
+            else if(candidates.putIfAbsent(groupKey(researchGroups.get(i)),i)!=null){
+                results[i]=new BulkItemResultDto(i,BulkItemStatus.ALREADY_EXISTS,null,
+                        String.format("Group (name:%s) occurs more than once in the request", command.getName()));
+            }
+        }
+
+        Set<String> upperNames=candidates.values().stream()
+                .map(i -> upper(researchGroups.get(i).getName()))
+                .collect(Collectors.toSet());
+        Map<String,Long> existingIds=InLists.queryInChunks(upperNames,researchGroupsRepository::findByUpperNameIn).stream()
+                .collect(Collectors.toMap(this::groupKey,ResearchGroup::getId,(first,second) -> first));
+        List<Integer> indexesToInsert=new ArrayList<>();
+        for (Map.Entry<String,Integer> candidate : candidates.entrySet()) {
+            int i=candidate.getValue();
+            Long existingId=existingIds.get(candidate.getKey());
+            if(existingId!=null){
+                results[i]=new BulkItemResultDto(i,BulkItemStatus.ALREADY_EXISTS,existingId,
+                        new ResearchGroupAlreadyExistsException(researchGroups.get(i),existingId).getDetail());
+            }
+            else {
+                indexesToInsert.add(i);
+            }
+        }
+
+        List<Long> ids=bulkInsertRepository.insertResearchGroups(indexesToInsert.stream().map(researchGroups::get).collect(Collectors.toList()));
+        for (int j = 0; j < ids.size(); j++) {
+            int i=indexesToInsert.get(j);
+            results[i]=new BulkItemResultDto(i,BulkItemStatus.CREATED,ids.get(j),null);
+            eventPublisher.publishEvent(ResearchDataChangedEvent.ofResearchGroup(ChangeType.RESEARCH_GROUP_CREATED,ids.get(j)));
+        }
+        return new BulkCreateResultDto(ids.size(),commands.size()-ids.size(),Arrays.asList(results));
+    }
+
+    private void checkBulkSize(List<?> commands) {
+        if(commands==null || commands.isEmpty() || commands.size()>MAX_BULK_SIZE){
+            throw new ParameterNotValidException(String.format("Number of items must be between 1 and %d!",MAX_BULK_SIZE));
+        }
+    }
+
+    private String violations(Object command) {
+        if(command==null){
+            return "Item mustn't be null!";
+        }
+        Set<ConstraintViolation<Object>> violations=validator.validate(command);
+        if(violations.isEmpty()){
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+
+    private String groupKey(ResearchGroup researchGroup) {
+        return upper(researchGroup.getName())+"|"+researchGroup.getLocation();
+    }
+
+    private String upper(String name) {
+        return name.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,228 @@
+package research.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import research.dtos.ChangeDto;
+import research.events.ResearchDataChangedEvent;
+import research.exceptions.ParameterNotValidException;
+import research.repository.ChangeOutboxRepository;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Writes every {@link ResearchDataChangedEvent} to the change outbox in the transaction that caused it, and serves the
+ * outbox as pages and as a stream. With {@code research.changes.enabled=false} nothing is written.
+ * <p>
+ * The changes are numbered after their commit, in commit order: the committing thread numbers every change committed so
+ * far, unless a numbering that started after its commit has already done it, so the committing threads share the work.
+ * A background thread does the same every {@code research.changes.poll-interval}, for the changes left without a number
+ * by a failed numbering or by another instance. Every numbering is published to the streams, so a stream reads the
+ * outbox only to catch up; the poll is one query however many streams are open.
+ */
+@Slf4j
+@Service
+public class ChangeFeedService {
+    public static final int MAX_PAGE_SIZE=1000;
+
+    private final ChangeOutboxRepository changeOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final Sinks.Many<NumberedChanges> numberedChanges=Sinks.many().multicast().directBestEffort();
+    private final AtomicLong commits=new AtomicLong();
+    private long numberedCommits;
+    private Thread poller;
+
+    public ChangeFeedService(ChangeOutboxRepository changeOutboxRepository, PlatformTransactionManager transactionManager,
+                             @Value("${research.changes.enabled:true}") boolean enabled,
+                             @Value("${research.changes.poll-interval:PT1S}") Duration pollInterval) {
+        this.changeOutboxRepository = changeOutboxRepository;
+        // The committing thread numbers in afterCommit, where the finished transaction's resources are still bound
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        if(!enabled){
+            return;
+        }
+        poller=new Thread(this::poll, "change-feed-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if(poller!=null){
+            poller.interrupt();
+            poller.join(1000);
+        }
+    }
+
+    @EventListener
+    public void onDataChanged(ResearchDataChangedEvent event) {
+        if(!enabled){
+            return;
+        }
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            changeOutboxRepository.insertChanges(List.of(event), Instant.now());
+            numberCommitted(commits.incrementAndGet());
+            return;
+        }
+        PendingChanges pendingChanges=(PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if(pendingChanges==null){
+            pendingChanges=new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pendingChanges);
+            TransactionSynchronizationManager.registerSynchronization(pendingChanges);
+        }
+        pendingChanges.events.add(event);
+    }
+
+    public List<ChangeDto> getChanges(long since, int size) {
+        checkSequence(since);
+        if(size<1 || size>MAX_PAGE_SIZE){
+            throw new ParameterNotValidException(String.format("Size must be between 1 and %d!",MAX_PAGE_SIZE));
+        }
+        return changeOutboxRepository.findChangesSince(since, size);
+    }
+
+    /**
+     * The changes after {@code since}, then every change numbered later, until the subscriber cancels.
+     */
+    public Flux<ChangeDto> streamChanges(long since) {
+        checkSequence(since);
+        return Flux.defer(() -> {
+            AtomicLong lastSequence=new AtomicLong(since);
+            return Flux.concat(changesAfter(lastSequence),
+                    numberedChanges.asFlux()
+                            .onBackpressureLatest()
+                            .concatMap(numbered -> changesIn(numbered, lastSequence), 1));
+        });
+    }
+
+    // The published changes are sent as they are when they follow the last change sent, otherwise the stream missed
+    // a numbering and reads the outbox.
+    private Flux<ChangeDto> changesIn(NumberedChanges numbered, AtomicLong lastSequence) {
+        long last=lastSequence.get();
+        if(numbered.lastSequence<=last){
+            return Flux.empty();
+        }
+        if(numbered.firstSequence()>last+1){
+            return changesAfter(lastSequence);
+        }
+        lastSequence.set(numbered.lastSequence);
+        return Flux.fromIterable(numbered.changes.stream().filter(change -> change.getSequence()>last).collect(Collectors.toList()));
+    }
+
+    private Flux<ChangeDto> changesAfter(AtomicLong lastSequence) {
+        return Flux.<List<ChangeDto>>generate(sink -> {
+                    List<ChangeDto> page=changeOutboxRepository.findChangesSince(lastSequence.get(), MAX_PAGE_SIZE);
+                    if(page.isEmpty()){
+                        sink.complete();
+                        return;
+                    }
+                    lastSequence.set(page.get(page.size()-1).getSequence());
+                    sink.next(page);
+                    if(page.size()<MAX_PAGE_SIZE){
+                        sink.complete();
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .concatMapIterable(page -> page);
+    }
+
+    private void checkSequence(long since) {
+        if(since<0){
+            throw new ParameterNotValidException("Sequence mustn't be negative!");
+        }
+    }
+
+    private void poll() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(pollInterval.toMillis());
+                numberCommitted(Long.MAX_VALUE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Numbers the changes committed so far, unless a numbering started after the {@code commit}th commit has done it.
+     */
+    private synchronized void numberCommitted(long commit) {
+        if(commit<=numberedCommits){
+            return;
+        }
+        long startedAt=commits.get();
+        try {
+            List<ChangeDto> changes;
+            do {
+                changes=transactionTemplate.execute(status -> changeOutboxRepository.numberChanges(MAX_PAGE_SIZE));
+                if(!changes.isEmpty()){
+                    numberedChanges.tryEmitNext(new NumberedChanges(changes.get(changes.size()-1).getSequence(), changes));
+                }
+            } while (changes.size()==MAX_PAGE_SIZE);
+            if(commit==Long.MAX_VALUE){
+                numberedChanges.tryEmitNext(new NumberedChanges(changeOutboxRepository.findLastSequence(), List.of()));
+            }
+            numberedCommits=startedAt;
+        } catch (DataAccessException e) {
+            log.warn("Numbering the changes failed, the next poll retries it", e);
+        }
+    }
+
+    private static class NumberedChanges {
+        private final long lastSequence;
+        private final List<ChangeDto> changes;
+
+        NumberedChanges(long lastSequence, List<ChangeDto> changes) {
+            this.lastSequence = lastSequence;
+            this.changes = changes;
+        }
+
+        long firstSequence() {
+            return lastSequence-changes.size()+1;
+        }
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+        private final List<ResearchDataChangedEvent> events=new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            changeOutboxRepository.insertChanges(events, Instant.now());
+        }
+
+        @Override
+        public void afterCommit() {
+            numberCommitted(commits.incrementAndGet());
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeedService.this);
+        }
+    }
+}
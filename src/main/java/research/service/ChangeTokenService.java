@@ -0,0 +1,113 @@
+package research.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import research.dtos.ChangeToken;
+import research.events.ResearchDataChangedEvent;
+import research.exceptions.ProjectNotFoundException;
+import research.exceptions.ResearchGroupNotFoundException;
+import research.repository.ChangeTokenRepository;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Advances the revision of every project and research group whose own row or links a transaction changed, both ends of
+ * a link included. The neighbours of an updated entity are left alone, their tokens take in its new version when they
+ * are read. The changes of a transaction are written together right before it commits, research groups before projects
+ * like every other write, see {@link research.repository.ProjectSummaryRepository}.
+ */
+@Service
+public class ChangeTokenService {
+    private final ChangeTokenRepository changeTokenRepository;
+
+    public ChangeTokenService(ChangeTokenRepository changeTokenRepository) {
+        this.changeTokenRepository = changeTokenRepository;
+    }
+
+    public ChangeToken getProjectToken(long id) {
+        return changeTokenRepository.findProjectToken(id).orElseThrow(() -> new ProjectNotFoundException(id));
+    }
+
+    public ChangeToken getResearchGroupToken(long id) {
+        return changeTokenRepository.findResearchGroupToken(id).orElseThrow(() -> new ResearchGroupNotFoundException(id));
+    }
+
+    /**
+     * The token the project gets when the current transaction commits. The revisions the transaction has advanced so
+     * far are written first, the row locks of the update keep them until the commit.
+     */
+    public ChangeToken getCommittingProjectToken(long id) {
+        writePending();
+        return getProjectToken(id);
+    }
+
+    public ChangeToken getCommittingResearchGroupToken(long id) {
+        writePending();
+        return getResearchGroupToken(id);
+    }
+
+    @EventListener
+    public void onDataChanged(ResearchDataChangedEvent event) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            PendingChanges pendingChanges=new PendingChanges();
+            pendingChanges.add(event);
+            pendingChanges.write();
+            return;
+        }
+        PendingChanges pendingChanges=(PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if(pendingChanges==null){
+            pendingChanges=new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pendingChanges);
+            TransactionSynchronizationManager.registerSynchronization(pendingChanges);
+        }
+        pendingChanges.add(event);
+    }
+
+    private void writePending() {
+        PendingChanges pendingChanges=(PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if(pendingChanges!=null){
+            pendingChanges.write();
+        }
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+        private final Set<Long> projectIds=new TreeSet<>();
+        private final Set<Long> researchGroupIds=new TreeSet<>();
+
+        private void add(ResearchDataChangedEvent event) {
+            switch (event.getChangeType()) {
+                case PROJECT_UPDATED:
+                    projectIds.add(event.getProjectId());
+                    break;
+                case RESEARCH_GROUP_UPDATED:
+                    researchGroupIds.add(event.getResearchGroupId());
+                    break;
+                case GROUP_LINKED:
+                case GROUP_UNLINKED:
+                    projectIds.add(event.getProjectId());
+                    researchGroupIds.add(event.getResearchGroupId());
+                    break;
+                default:
+            }
+        }
+
+        private void write() {
+            changeTokenRepository.markResearchGroupsChanged(researchGroupIds);
+            changeTokenRepository.markProjectsChanged(projectIds);
+            researchGroupIds.clear();
+            projectIds.clear();
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeTokenService.this);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package research.service;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import research.dtos.GroupLinkDto;
+import research.dtos.GroupLinksResultDto;
+import research.dtos.UpdateGroupLinksCommand;
+import research.events.ChangeType;
+import research.events.ResearchDataChangedEvent;
+import research.exceptions.ParameterNotValidException;
+import research.repository.GroupLinkRepository;
+import research.repository.ProjectSummaryRepository;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Transactional
+@Service
+public class GroupLinkService {
+    public static final int MAX_LINK_COUNT=10000;
+
+    private final GroupLinkRepository groupLinkRepository;
+    private final ProjectSummaryRepository projectSummaryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public GroupLinkService(GroupLinkRepository groupLinkRepository, ProjectSummaryRepository projectSummaryRepository, ApplicationEventPublisher eventPublisher) {
+        this.groupLinkRepository = groupLinkRepository;
+        this.projectSummaryRepository = projectSummaryRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public GroupLinksResultDto updateGroupLinks(UpdateGroupLinksCommand command) {
+        Set<GroupLinkDto> toAdd=linkSet(command.getAdd());
+        Set<GroupLinkDto> toRemove=linkSet(command.getRemove());
+        checkLinks(toAdd,toRemove);
+
+        Set<Long> projectIds=Stream.concat(toAdd.stream(),toRemove.stream()).map(GroupLinkDto::getProjectId).collect(Collectors.toCollection(TreeSet::new));
+        Set<Long> groupIds=Stream.concat(toAdd.stream(),toRemove.stream()).map(GroupLinkDto::getResearchGroupId).collect(Collectors.toCollection(TreeSet::new));
+        // Locks the research groups, then the projects in the order of their ids before the links are read, see ProjectSummaryRepository
+        Set<Long> existingGroupIds=new HashSet<>(InLists.queryInChunks(groupIds,projectSummaryRepository::lockResearchGroups));
+        Set<Long> existingProjectIds=new HashSet<>(InLists.queryInChunks(projectIds,projectSummaryRepository::lockProjects));
+        Set<GroupLinkDto> existingLinks=new HashSet<>(InLists.queryInChunks(existingProjectIds,groupLinkRepository::findLinksOfProjects));
+
+        List<GroupLinkDto> rejected=new ArrayList<>();
+        List<GroupLinkDto> linksToInsert=new ArrayList<>();
+        List<GroupLinkDto> linksToDelete=new ArrayList<>();
+        int unchanged=0;
+        for (GroupLinkDto link : toAdd) {
+            if(!existingProjectIds.contains(link.getProjectId()) || !existingGroupIds.contains(link.getResearchGroupId())){
+                rejected.add(link);
+            }
+            else if(existingLinks.contains(link)){
+                unchanged++;
+            }
+            else {
+                linksToInsert.add(link);
+            }
+        }
+        for (GroupLinkDto link : toRemove) {
+            if(!existingProjectIds.contains(link.getProjectId()) || !existingGroupIds.contains(link.getResearchGroupId())){
+                rejected.add(link);
+            }
+            else if(existingLinks.contains(link)){
+                linksToDelete.add(link);
+            }
+            else {
+                unchanged++;
+            }
+        }
+
+        groupLinkRepository.insertLinks(linksToInsert);
+        groupLinkRepository.deleteLinks(linksToDelete);
+        projectSummaryRepository.addLinks(linksToInsert);
+        projectSummaryRepository.removeLinks(linksToDelete);
+        linksToInsert.forEach(link ->
+                eventPublisher.publishEvent(ResearchDataChangedEvent.ofLink(ChangeType.GROUP_LINKED,link.getProjectId(),link.getResearchGroupId())));
+        linksToDelete.forEach(link ->
+                eventPublisher.publishEvent(ResearchDataChangedEvent.ofLink(ChangeType.GROUP_UNLINKED,link.getProjectId(),link.getResearchGroupId())));
+        return new GroupLinksResultDto(linksToInsert.size(),linksToDelete.size(),unchanged,rejected);
+    }
+
+    private Set<GroupLinkDto> linkSet(List<GroupLinkDto> links) {
+        if(links==null){
+            return new LinkedHashSet<>();
+        }
+        if(links.contains(null)){
+            throw new ParameterNotValidException("Link mustn't be null!");
+        }
+        return new LinkedHashSet<>(links);
+    }
+
+    private void checkLinks(Set<GroupLinkDto> toAdd, Set<GroupLinkDto> toRemove) {
+        int count=toAdd.size()+toRemove.size();
+        if(count<1 || count>MAX_LINK_COUNT){
+            throw new ParameterNotValidException(String.format("Number of links must be between 1 and %d!",MAX_LINK_COUNT));
+        }
+        if(toAdd.stream().anyMatch(toRemove::contains)){
+            throw new ParameterNotValidException("A link can't be added and removed in the same request!");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package research.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+// Runs a query with an IN list of any length, split only to keep each IN list of a reasonable size.
+final class InLists {
+    static final int MAX_IN_LIST_SIZE=1000;
+
+    private InLists() {
+    }
+
+    static <P,T> List<T> queryInChunks(Collection<P> values, Function<Collection<P>,List<T>> query) {
+        List<P> valueList=new ArrayList<>(values);
+        List<T> result=new ArrayList<>();
+        for (int from = 0; from < valueList.size(); from += MAX_IN_LIST_SIZE) {
+            result.addAll(query.apply(valueList.subList(from,Math.min(from+MAX_IN_LIST_SIZE,valueList.size()))));
+        }
+        return result;
+    }
+}
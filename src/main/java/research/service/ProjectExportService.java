@@ -0,0 +1,77 @@
+package research.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import research.dtos.ProjectDto;
+import research.mapper.ProjectsAndGroupsMapper;
+import research.model.Project;
+import research.model.ResearchGroup;
+import research.repository.ProjectsRepository;
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every project with its research groups as newline-delimited JSON. The rows come from one forward-only
+ * query ordered by project id, so only the project being written is held in memory. Blocking writes to the
+ * response stream slow the reading down when the client can't keep up.
+ */
+@Transactional(readOnly = true)
+@Service
+public class ProjectExportService {
+    private static final int ROWS_PER_FLUSH=500;
+    private static final byte[] LINE_SEPARATOR={'\n'};
+
+    private final ProjectsAndGroupsMapper mapper;
+    private final ProjectsRepository projectsRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+
+    public ProjectExportService(ProjectsAndGroupsMapper mapper, ProjectsRepository projectsRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.mapper = mapper;
+        this.projectsRepository = projectsRepository;
+        this.entityManager = entityManager;
+        this.writer = objectMapper.writerFor(ProjectDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void exportProjects(OutputStream outputStream) throws IOException {
+        try (Stream<Object[]> rows = projectsRepository.streamAllWithResearchGroups()) {
+            ProjectDto current=null;
+            int rowCount=0;
+            Iterator<Object[]> iterator=rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row=iterator.next();
+                Project project=(Project) row[0];
+                ResearchGroup researchGroup=(ResearchGroup) row[1];
+                if(current==null || !current.getId().equals(project.getId())){
+                    writeLine(current,outputStream);
+                    current=mapper.toProjectDtoWithoutResearchGroups(project);
+                }
+                if(researchGroup!=null){
+                    current.getResearchGroupSet().add(mapper.toResearchGroupWithoutProjectsDto(researchGroup));
+                }
+                if(++rowCount % ROWS_PER_FLUSH == 0){
+                    entityManager.clear();
+                    outputStream.flush();
+                }
+            }
+            writeLine(current,outputStream);
+            outputStream.flush();
+        }
+    }
+
+    private void writeLine(ProjectDto projectDto, OutputStream outputStream) throws IOException {
+        if(projectDto!=null){
+            writer.writeValue(outputStream,projectDto);
+            outputStream.write(LINE_SEPARATOR);
+        }
+    }
+}
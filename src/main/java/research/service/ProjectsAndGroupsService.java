@@ -1,17 +1,31 @@
 package research.service;
 
-import org.modelmapper.TypeToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
 import research.criteria.*;
+import research.cache.QueryResultCache;
 import research.dtos.*;
-import org.modelmapper.ModelMapper;
+import research.events.ChangeType;
+import research.events.ResearchDataChangedEvent;
 import org.springframework.stereotype.Service;
 import research.exceptions.*;
+import research.mapper.ProjectsAndGroupsMapper;
 import research.model.Location;
 import research.model.Project;
 import research.model.ResearchGroup;
+import research.repository.ChangeTokenRepository;
+import research.repository.GroupLinkRepository;
+import research.repository.ProjectSummaryRepository;
 import research.repository.ResearchGroupsRepository;
-import java.lang.reflect.Type;
+import research.search.NameIndex;
+import research.search.NameMatch;
+import research.search.NameSearchService;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -19,38 +33,58 @@ import java.util.stream.Collectors;
 @Transactional
 @Service
 public class ProjectsAndGroupsService {
-    private final ModelMapper modelMapper;
+    private final ProjectsAndGroupsMapper mapper;
     private final research.repository.ProjectsRepository projectsRepository;
     private final ResearchGroupsRepository researchGroupsRepository;
+    private final ProjectSummaryRepository projectSummaryRepository;
+    private final ChangeTokenRepository changeTokenRepository;
+    private final ChangeTokenService changeTokenService;
+    private final GroupLinkRepository groupLinkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final QueryResultCache queryResultCache;
+    private final NameSearchService nameSearchService;
+    private final Timer projectMappingTimer;
+    private final Timer researchGroupMappingTimer;
+    private final Timer researchGroupSortTimer;
 
     private final Validation validation=new Validation();
+    private final ResearchGroupSorting researchGroupSorting=new ResearchGroupSorting();
 
-    private final Type projectDtoListType=new TypeToken<List<ProjectDto>>(){}.getType();
-    private final Type researchGroupDtoListType=new TypeToken<List<ResearchGroupDto>>(){}.getType();
 
-
-    public ProjectsAndGroupsService(ModelMapper modelMapper, research.repository.ProjectsRepository projectsRepository, ResearchGroupsRepository researchGroupsRepository) {
-        this.modelMapper = modelMapper;
+    public ProjectsAndGroupsService(ProjectsAndGroupsMapper mapper, research.repository.ProjectsRepository projectsRepository, ResearchGroupsRepository researchGroupsRepository, ProjectSummaryRepository projectSummaryRepository, ChangeTokenRepository changeTokenRepository, ChangeTokenService changeTokenService, GroupLinkRepository groupLinkRepository, ApplicationEventPublisher eventPublisher, QueryResultCache queryResultCache, NameSearchService nameSearchService, MeterRegistry meterRegistry) {
+        this.mapper = mapper;
         this.projectsRepository = projectsRepository;
         this.researchGroupsRepository = researchGroupsRepository;
+        this.projectSummaryRepository = projectSummaryRepository;
+        this.changeTokenRepository = changeTokenRepository;
+        this.changeTokenService = changeTokenService;
+        this.groupLinkRepository = groupLinkRepository;
+        this.eventPublisher = eventPublisher;
+        this.queryResultCache = queryResultCache;
+        this.nameSearchService = nameSearchService;
+        this.projectMappingTimer = Timer.builder("research.service.mapping").description("Mapping of listed entities to DTOs").tag("target","projects").register(meterRegistry);
+        this.researchGroupMappingTimer = Timer.builder("research.service.mapping").description("Mapping of listed entities to DTOs").tag("target","researchGroups").register(meterRegistry);
+        this.researchGroupSortTimer = Timer.builder("research.service.sort").description("In-memory ordering of research group lists").register(meterRegistry);
     }
 
     public ProjectDto createProject(CreateProjectCommand createProjectCommand) {
-        Project project=modelMapper.map(createProjectCommand,Project.class);
+        Project project=mapper.toProject(createProjectCommand);
         Project validProject=checkProject(project);
         projectsRepository.save(validProject);
-        return modelMapper.map(validProject,ProjectDto.class);
+        eventPublisher.publishEvent(ResearchDataChangedEvent.ofProject(ChangeType.PROJECT_CREATED,validProject.getId()));
+        return mapper.toProjectDto(validProject);
     }
 
     public ResearchGroupDto createResearchGroup(CreateResearchGroupCommand createResearchGroupCommand) {
-        ResearchGroup researchGroup=modelMapper.map(createResearchGroupCommand,ResearchGroup.class);
+        ResearchGroup researchGroup=mapper.toResearchGroup(createResearchGroupCommand);
         ResearchGroup validResearchGroup=checkResearchGroup(researchGroup);
         researchGroupsRepository.save(validResearchGroup);
-        return modelMapper.map(researchGroup,ResearchGroupDto.class);
+        eventPublisher.publishEvent(ResearchDataChangedEvent.ofResearchGroup(ChangeType.RESEARCH_GROUP_CREATED,validResearchGroup.getId()));
+        return mapper.toResearchGroupDto(researchGroup);
     }
 
     public ProjectDto addPostedGroupToProject(long id, CreateResearchGroupCommand createResearchGroupCommand) {
-        ResearchGroup researchGroup=modelMapper.map(createResearchGroupCommand,ResearchGroup.class);
+        ResearchGroup researchGroup=mapper.toResearchGroup(createResearchGroupCommand);
         Project project=findProjectById(id);
 
         ResearchGroup validResearchGroup=validation.validResearchGroup(researchGroup);
@@ -58,44 +92,68 @@ public class ProjectsAndGroupsService {
 
         project.addGroup(researchGroup);
         researchGroupsRepository.save(researchGroup);
+        projectSummaryRepository.addLinks(List.of(new GroupLinkDto(id,researchGroup.getId())));
+        eventPublisher.publishEvent(ResearchDataChangedEvent.ofResearchGroup(ChangeType.RESEARCH_GROUP_CREATED,researchGroup.getId()));
+        eventPublisher.publishEvent(ResearchDataChangedEvent.ofLink(ChangeType.GROUP_LINKED,id,researchGroup.getId()));
 
-        return modelMapper.map(project,ProjectDto.class);
+        return mapper.toProjectDto(project);
     }
 
     public ProjectDto addGroupToProject(long projectId, long groupId) {
+        projectSummaryRepository.lockResearchGroups(List.of(groupId));
         ResearchGroup researchGroup=findResearchGroupById(groupId);
         Project project=findProjectById(projectId);
-        project.addGroup(researchGroup);
-        return modelMapper.map(project,ProjectDto.class);
+        if(project.addGroup(researchGroup)){
+            projectSummaryRepository.addLinks(List.of(new GroupLinkDto(projectId,groupId)));
+            eventPublisher.publishEvent(ResearchDataChangedEvent.ofLink(ChangeType.GROUP_LINKED,projectId,groupId));
+        }
+        return mapper.toProjectDto(project);
     }
 
+    // The bulk delete removes the join rows and the group in two statements, whatever the number of linked projects.
+    // The linked project ids are read with JDBC beforehand, so every removed link is published without loading the projects.
     public void deleteResearchGroup(long id) {
-        ResearchGroup researchGroup=findResearchGroupById(id);
-        findProjectsByParticipatingGroup(researchGroup).forEach( project -> project.removeGroup(researchGroup));
-        researchGroupsRepository.deleteById(id);
-    }
-
-    public List<Project> findProjectsByParticipatingGroup(ResearchGroup researchGroup){
-        return projectsRepository.findProjectsByParticipatingGroup(researchGroup);
+        projectSummaryRepository.lockResearchGroups(List.of(id));
+        List<Long> projectIds=groupLinkRepository.findProjectIdsOfResearchGroup(id);
+        projectSummaryRepository.removeResearchGroup(id);
+        if(researchGroupsRepository.deleteResearchGroupById(id)==0){
+            throw new ResearchGroupNotFoundException(id);
+        }
+        projectIds.forEach(projectId ->
+                eventPublisher.publishEvent(ResearchDataChangedEvent.ofLink(ChangeType.GROUP_UNLINKED,projectId,id)));
+        eventPublisher.publishEvent(ResearchDataChangedEvent.ofResearchGroup(ChangeType.RESEARCH_GROUP_DELETED,id));
     }
 
+    // The unlinked research groups are locked before the project row, the same order as on the link paths.
     public void deleteProject(long id) {
+        projectSummaryRepository.lockResearchGroups(groupLinkRepository.findResearchGroupIdsOfProject(id));
         Project project=findProjectById(id);
+        project.getResearchGroupSet().forEach(researchGroup ->
+                eventPublisher.publishEvent(ResearchDataChangedEvent.ofLink(ChangeType.GROUP_UNLINKED,id,researchGroup.getId())));
         projectsRepository.delete(project);
+        eventPublisher.publishEvent(ResearchDataChangedEvent.ofProject(ChangeType.PROJECT_DELETED,id));
     }
 
     public ProjectDto getProjectById(long id) {
         Project project=findProjectById(id);
-        return modelMapper.map(project,ProjectDto.class);
+        return mapper.toProjectDto(project);
     }
 
     public ResearchGroupDto getResearchGroupById(long id) {
         ResearchGroup researchGroup=findResearchGroupById(id);
-        return modelMapper.map(researchGroup,ResearchGroupDto.class);
+        return mapper.toResearchGroupDto(researchGroup);
     }
 
-    public ProjectDto updateProject(long id, UpdateProjectCommand updateProjectCommand) {
-        Project project=findProjectById(id);
+    /**
+     * Applies the non-null fields of the command. With an {@code expectedState} the project must still be in that state,
+     * its links included. The row is read under lock, so a concurrent update waits for this one and checks the state it left.
+     */
+    public Tagged<ProjectDto> updateProject(long id, ChangeToken expectedState, UpdateProjectCommand updateProjectCommand) {
+        Project project=projectsRepository.findByIdForUpdate(id).orElseThrow(() -> new ProjectNotFoundException(id));
+        if(expectedState!=null && !expectedState.isSameState(changeTokenService.getProjectToken(id))){
+            throw new ProjectVersionConflictException(id,project.getVersion());
+        }
+        boolean nameChanged=updateProjectCommand.getName()!=null && !updateProjectCommand.getName().equals(project.getName());
         if(updateProjectCommand.getName()!=null){
             checkString(updateProjectCommand.getName());
             project.setName(updateProjectCommand.getName());
@@ -108,11 +166,21 @@ public class ProjectsAndGroupsService {
             checkInteger(updateProjectCommand.getBudget(),"Budget musn't be negative!");
             project.setBudget(updateProjectCommand.getBudget());
         }
-        return modelMapper.map(project,ProjectDto.class);
+        flushProject(id);
+        eventPublisher.publishEvent(ResearchDataChangedEvent.ofUpdatedProject(id,nameChanged));
+        return new Tagged<>(mapper.toProjectDto(project), changeTokenService.getCommittingProjectToken(id));
     }
 
-    public ResearchGroupDto updateResearchGroupById(long id, UpdateResearchGroupCommand updateResearchGroupCommand) {
+    // The group row is locked before it is read, so the summary delta of the linked projects is taken from its current budget.
+    public Tagged<ResearchGroupDto> updateResearchGroupById(long id, ChangeToken expectedState, UpdateResearchGroupCommand updateResearchGroupCommand) {
+        projectSummaryRepository.lockResearchGroups(List.of(id));
         ResearchGroup researchGroup=findResearchGroupById(id);
+        if(expectedState!=null && !expectedState.isSameState(changeTokenService.getResearchGroupToken(id))){
+            throw new ResearchGroupVersionConflictException(id,researchGroup.getVersion());
+        }
+        int oldBudget=researchGroup.getBudget();
+        int oldCountOfResearchers=researchGroup.getCountOfResearchers();
+        boolean nameChanged=updateResearchGroupCommand.getName()!=null && !updateResearchGroupCommand.getName().equals(researchGroup.getName());
         if(updateResearchGroupCommand.getName()!=null){
             checkString(updateResearchGroupCommand.getName());
             researchGroup.setName(updateResearchGroupCommand.getName());
@@ -133,26 +201,184 @@ public class ProjectsAndGroupsService {
             checkInteger(updateResearchGroupCommand.getBudget(),"Budget musn't be negative!");
             researchGroup.setBudget(updateResearchGroupCommand.getBudget());
         }
-        return modelMapper.map(researchGroup,ResearchGroupDto.class);
+        flushResearchGroup(id);
+        List<Long> summaryChangedProjectIds=projectSummaryRepository.changeResearchGroup(id,(long)researchGroup.getBudget()-oldBudget,researchGroup.getCountOfResearchers()-oldCountOfResearchers);
+        eventPublisher.publishEvent(ResearchDataChangedEvent.ofUpdatedResearchGroup(id,nameChanged,summaryChangedProjectIds));
+        return new Tagged<>(mapper.toResearchGroupDto(researchGroup), changeTokenService.getCommittingResearchGroupToken(id));
     }
 
     public List<ResearchGroupDto> getResearchGroups(ResearchGroupCriteria researchGroupCriteria) {
-        List<ResearchGroup> filtered = researchGroupsRepository.findAllByCriteria(researchGroupCriteria.getNameLike(),researchGroupCriteria.getMinCountOfResearchers(),researchGroupCriteria.getMinBudget());
-        List<ResearchGroup> result=sortResearchGroups(filtered,researchGroupCriteria);
-        return modelMapper.map(result,researchGroupDtoListType);
+        return queryResultCache.get("researchGroups", () -> findResearchGroups(researchGroupCriteria),
+                researchGroupCriteria.getNameLike(),researchGroupCriteria.getMinCountOfResearchers(),researchGroupCriteria.getMinBudget(),
+                researchGroupCriteria.getOrderBy(),researchGroupCriteria.getOrderType());
+    }
+
+    public ResearchGroupPageDto getResearchGroupPage(ResearchGroupCriteria researchGroupCriteria) {
+        checkSize(researchGroupCriteria.getSize(),ResearchGroupCriteria.MAX_PAGE_SIZE);
+        ResearchGroupCursor after=researchGroupCursor(researchGroupCriteria);
+        return queryResultCache.get("researchGroupPage", () -> findResearchGroupPage(researchGroupCriteria,after),
+                researchGroupCriteria.getNameLike(),researchGroupCriteria.getMinCountOfResearchers(),researchGroupCriteria.getMinBudget(),
+                researchGroupCriteria.getOrderBy(),researchGroupCriteria.getOrderType(),researchGroupCriteria.getCursor(),researchGroupCriteria.getSize());
     }
 
     public List<ProjectDto> getProjects(ProjectCriteria projectCriteria) {
-        List<Project> filtered = projectsRepository.findAllByCriteria(projectCriteria.getNameLike(),projectCriteria.getStartBefore(),projectCriteria.getStartAfter(),projectCriteria.getMinBudget());
-        List<Project> result=sortProjects(filtered,projectCriteria);
-        return modelMapper.map(result,projectDtoListType);
+        Pageable pageable=projectPageable(projectCriteria);
+        return queryResultCache.get("projects", () -> findProjects(projectCriteria,pageable),
+                projectCriteria.getNameLike(),projectCriteria.getStartBefore(),projectCriteria.getStartAfter(),projectCriteria.getMinBudget(),
+                projectCriteria.getMinGroupCount(),projectCriteria.getMinGroupBudget(),projectCriteria.getMinResearcherCount(),pageable);
+    }
+
+    // Summary views are selected straight into DTOs, neither the association table nor the entity cache is involved.
+    public List<ProjectWithoutGroupsDto> getProjectSummaries(ProjectCriteria projectCriteria) {
+        Pageable pageable=projectPageable(projectCriteria);
+        return queryResultCache.get("projectSummaries", () -> findProjectSummaries(projectCriteria,pageable),
+                projectCriteria.getNameLike(),projectCriteria.getStartBefore(),projectCriteria.getStartAfter(),projectCriteria.getMinBudget(),
+                projectCriteria.getMinGroupCount(),projectCriteria.getMinGroupBudget(),projectCriteria.getMinResearcherCount(),pageable);
+    }
+
+    public List<ResearchGroupWithoutProjectsDto> getResearchGroupSummaries(ResearchGroupCriteria researchGroupCriteria) {
+        return queryResultCache.get("researchGroupSummaries", () -> findResearchGroupSummaries(researchGroupCriteria),
+                researchGroupCriteria.getNameLike(),researchGroupCriteria.getMinCountOfResearchers(),researchGroupCriteria.getMinBudget(),
+                researchGroupCriteria.getOrderBy(),researchGroupCriteria.getOrderType());
+    }
+
+    public List<ProjectWithoutGroupsDto> searchProjects(String name, NameMatch match, int size) {
+        checkString(name);
+        checkSize(size,ProjectCriteria.MAX_PAGE_SIZE);
+        List<Long> ids=nameSearchService.findProjectIds(name,match,size);
+        return projectsRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(Project::getId))
+                .map(mapper::toProjectWithoutGroupsDto)
+                .collect(Collectors.toList());
+    }
+
+    public List<ResearchGroupWithoutProjectsDto> searchResearchGroups(String name, NameMatch match, int size) {
+        checkString(name);
+        checkSize(size,ResearchGroupCriteria.MAX_PAGE_SIZE);
+        List<Long> ids=nameSearchService.findResearchGroupIds(name,match,size);
+        return researchGroupsRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(ResearchGroup::getId))
+                .map(mapper::toResearchGroupWithoutProjectsDto)
+                .collect(Collectors.toList());
+    }
+
+    private List<ResearchGroupDto> findResearchGroups(ResearchGroupCriteria researchGroupCriteria) {
+        List<Long> ids=indexedNameMatches(researchGroupCriteria.getNameLike(),nameSearchService::findResearchGroupIds);
+        if(ids!=null && ids.isEmpty()){
+            return new ArrayList<>();
+        }
+        List<ResearchGroup> filtered = ids==null
+                ? researchGroupsRepository.findAllByCriteria(NameIndex.substringLikePattern(researchGroupCriteria.getNameLike()),researchGroupCriteria.getMinCountOfResearchers(),researchGroupCriteria.getMinBudget())
+                : researchGroupsRepository.findAllByCriteriaAndIdIn(ids,researchGroupCriteria.getMinCountOfResearchers(),researchGroupCriteria.getMinBudget());
+        List<ResearchGroup> result=researchGroupSortTimer.record(() -> researchGroupSorting.sortResearchGroups(filtered,researchGroupCriteria));
+        return researchGroupMappingTimer.record(() -> mapper.toResearchGroupDtos(result));
+    }
+
+    private ResearchGroupPageDto findResearchGroupPage(ResearchGroupCriteria researchGroupCriteria, ResearchGroupCursor after) {
+        int size=researchGroupCriteria.getSize();
+        List<Long> ids=indexedNameMatches(researchGroupCriteria.getNameLike(),nameSearchService::findResearchGroupIds);
+        if(ids!=null && ids.isEmpty()){
+            return new ResearchGroupPageDto(new ArrayList<>(),null);
+        }
+        List<ResearchGroup> found=researchGroupsRepository.findPageByCriteria(researchGroupCriteria,ids,after,size+1);
+        String nextCursor=null;
+        if(found.size()>size){
+            found=found.subList(0,size);
+            nextCursor=ResearchGroupCursor.after(found.get(size-1),researchGroupCriteria.getOrderBy(),researchGroupCriteria.getOrderType()).encode();
+        }
+        fetchProjectsOf(found);
+        List<ResearchGroup> page=found;
+        return new ResearchGroupPageDto(researchGroupMappingTimer.record(() -> mapper.toResearchGroupDtos(page)),nextCursor);
+    }
+
+    private List<ProjectDto> findProjects(ProjectCriteria projectCriteria, Pageable pageable) {
+        List<Long> ids=indexedNameMatches(projectCriteria.getNameLike(),nameSearchService::findProjectIds);
+        if(ids!=null && ids.isEmpty()){
+            return new ArrayList<>();
+        }
+        List<Project> result = ids==null
+                ? projectsRepository.findAllByCriteria(NameIndex.substringLikePattern(projectCriteria.getNameLike()),startBefore(projectCriteria),startAfter(projectCriteria),projectCriteria.getMinBudget(),
+                        projectCriteria.getMinGroupCount(),projectCriteria.getMinGroupBudget(),projectCriteria.getMinResearcherCount(),pageable)
+                : projectsRepository.findAllByCriteriaAndIdIn(ids,startBefore(projectCriteria),startAfter(projectCriteria),projectCriteria.getMinBudget(),
+                        projectCriteria.getMinGroupCount(),projectCriteria.getMinGroupBudget(),projectCriteria.getMinResearcherCount(),pageable);
+        fetchResearchGroupsOf(result);
+        return projectMappingTimer.record(() -> mapper.toProjectDtos(result));
+    }
+
+    private List<ProjectWithoutGroupsDto> findProjectSummaries(ProjectCriteria projectCriteria, Pageable pageable) {
+        List<Long> ids=indexedNameMatches(projectCriteria.getNameLike(),nameSearchService::findProjectIds);
+        if(ids!=null && ids.isEmpty()){
+            return new ArrayList<>();
+        }
+        return ids==null
+                ? projectsRepository.findSummariesByCriteria(NameIndex.substringLikePattern(projectCriteria.getNameLike()),startBefore(projectCriteria),startAfter(projectCriteria),projectCriteria.getMinBudget(),
+                        projectCriteria.getMinGroupCount(),projectCriteria.getMinGroupBudget(),projectCriteria.getMinResearcherCount(),pageable)
+                : projectsRepository.findSummariesByCriteriaAndIdIn(ids,startBefore(projectCriteria),startAfter(projectCriteria),projectCriteria.getMinBudget(),
+                        projectCriteria.getMinGroupCount(),projectCriteria.getMinGroupBudget(),projectCriteria.getMinResearcherCount(),pageable);
+    }
+
+    private List<ResearchGroupWithoutProjectsDto> findResearchGroupSummaries(ResearchGroupCriteria researchGroupCriteria) {
+        List<Long> ids=indexedNameMatches(researchGroupCriteria.getNameLike(),nameSearchService::findResearchGroupIds);
+        if(ids!=null && ids.isEmpty()){
+            return new ArrayList<>();
+        }
+        Sort.Direction direction=researchGroupCriteria.getOrderType()== OrderType.desc ? Sort.Direction.DESC : Sort.Direction.ASC;
+        ResearchGroupOrderBy orderBy=researchGroupCriteria.getOrderBy()==null ? ResearchGroupOrderBy.id : researchGroupCriteria.getOrderBy();
+        Sort sort=Sort.by(direction,orderBy.name());
+        if(orderBy!= ResearchGroupOrderBy.id){
+            sort=sort.and(Sort.by(direction,ResearchGroupOrderBy.id.name()));
+        }
+        return ids==null
+                ? researchGroupsRepository.findSummariesByCriteria(NameIndex.substringLikePattern(researchGroupCriteria.getNameLike()),researchGroupCriteria.getMinCountOfResearchers(),researchGroupCriteria.getMinBudget(),sort)
+                : researchGroupsRepository.findSummariesByCriteriaAndIdIn(ids,researchGroupCriteria.getMinCountOfResearchers(),researchGroupCriteria.getMinBudget(),sort);
     }
 
     public ProjectDto deleteGroupFromProject(long projectId, long groupId) {
+        projectSummaryRepository.lockResearchGroups(List.of(groupId));
         ResearchGroup researchGroup=findResearchGroupById(groupId);
         Project project=findProjectById(projectId);
-        project.removeGroup(researchGroup);
-        return modelMapper.map(project,ProjectDto.class);
+        if(project.removeGroup(researchGroup)){
+            projectSummaryRepository.removeLinks(List.of(new GroupLinkDto(projectId,groupId)));
+            eventPublisher.publishEvent(ResearchDataChangedEvent.ofLink(ChangeType.GROUP_UNLINKED,projectId,groupId));
+        }
+        return mapper.toProjectDto(project);
+    }
+
+    // Ids of the names containing nameLike from the name index, or null when there is no name filter or it matches too
+    // many names for an IN list. Then the query filters the normalized names the index holds with LIKE, so the matches are the same.
+    private List<Long> indexedNameMatches(String nameLike, NameIdSearch search) {
+        if(!validation.checkNotBlankString(nameLike)){
+            return null;
+        }
+        List<Long> ids=search.find(nameLike,NameMatch.SUBSTRING,InLists.MAX_IN_LIST_SIZE+1);
+        return ids.size()>InLists.MAX_IN_LIST_SIZE ? null : ids;
+    }
+
+    // The start date bounds at their defaults don't filter anything, the queries skip them
+    private LocalDate startBefore(ProjectCriteria projectCriteria) {
+        return Project.LAST_DATE.equals(projectCriteria.getStartBefore()) ? null : projectCriteria.getStartBefore();
+    }
+
+    private LocalDate startAfter(ProjectCriteria projectCriteria) {
+        return Project.FIRST_DATE.equals(projectCriteria.getStartAfter()) ? null : projectCriteria.getStartAfter();
+    }
+
+    @FunctionalInterface
+    private interface NameIdSearch {
+        List<Long> find(String name, NameMatch match, int limit);
+    }
+
+    // Initializes the associations of an already loaded page with one query instead of one query per entity during mapping.
+    private void fetchResearchGroupsOf(List<Project> projects) {
+        if(!projects.isEmpty()){
+            projectsRepository.fetchResearchGroupsByIdIn(projects.stream().map(Project::getId).collect(Collectors.toList()));
+        }
+    }
+
+    private void fetchProjectsOf(List<ResearchGroup> researchGroups) {
+        if(!researchGroups.isEmpty()){
+            researchGroupsRepository.fetchProjectsByIdIn(researchGroups.stream().map(ResearchGroup::getId).collect(Collectors.toList()));
+        }
     }
 
     private Project checkProject(Project project) {
@@ -181,6 +407,27 @@ public class ProjectsAndGroupsService {
         }
     }
 
+    // Writes the update now, so a concurrent update is reported as a conflict with the committed version.
+    private void flushProject(long id) {
+        try {
+            projectsRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw changeTokenRepository.findProjectToken(id)
+                    .<RuntimeException>map(token -> new ProjectVersionConflictException(id,token.getVersion()))
+                    .orElseGet(() -> new ProjectNotFoundException(id));
+        }
+    }
+
+    private void flushResearchGroup(long id) {
+        try {
+            researchGroupsRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw changeTokenRepository.findResearchGroupToken(id)
+                    .<RuntimeException>map(token -> new ResearchGroupVersionConflictException(id,token.getVersion()))
+                    .orElseGet(() -> new ResearchGroupNotFoundException(id));
+        }
+    }
+
     private Project findProjectById(long id) {
         Optional<Project> optionalProject= projectsRepository.findById(id);
         if(optionalProject.isEmpty()){
@@ -227,101 +474,38 @@ public class ProjectsAndGroupsService {
         }
     }
 
-    private List<ResearchGroup> sortResearchGroups(List<ResearchGroup> researchGroupList,ResearchGroupCriteria researchGroupCriteria){
-        List<ResearchGroup> orderedResearchGroupList;
-        ResearchGroupOrderBy orderBy=researchGroupCriteria.getOrderBy();
-        if(orderBy== ResearchGroupOrderBy.budget){
-            orderedResearchGroupList=researchGroupOrderByBudget(researchGroupList);
-        }
-        else if(orderBy== ResearchGroupOrderBy.countOfResearchers){
-            orderedResearchGroupList=researchGroupOrderByCountOfResearchers(researchGroupList);
-        }
-        else if(orderBy== ResearchGroupOrderBy.founded){
-            orderedResearchGroupList=researchGroupOrderByFounded(researchGroupList);
-        }
-        else if(orderBy== ResearchGroupOrderBy.name){
-            orderedResearchGroupList=researchGroupOrderByName(researchGroupList);
-        }
-        else{
-            orderedResearchGroupList=researchGroupOrderById(researchGroupList);
+    Pageable projectPageable(ProjectCriteria projectCriteria) {
+        checkPage(projectCriteria.getPage(),projectCriteria.getSize(),ProjectCriteria.MAX_PAGE_SIZE);
+        Sort.Direction direction=projectCriteria.getOrderType()== OrderType.desc ? Sort.Direction.DESC : Sort.Direction.ASC;
+        ProjectOrderBy orderBy=projectCriteria.getOrderBy()==null ? ProjectOrderBy.id : projectCriteria.getOrderBy();
+        Sort sort=Sort.by(direction,orderBy.name());
+        if(orderBy!= ProjectOrderBy.id){
+            sort=sort.and(Sort.by(direction,ProjectOrderBy.id.name()));
         }
-
-        if(researchGroupCriteria.getOrderType()== OrderType.desc){
-            Collections.reverse(orderedResearchGroupList);
-        }
-        return orderedResearchGroupList;
+        return PageRequest.of(projectCriteria.getPage(),projectCriteria.getSize(),sort);
     }
 
-    private List<ResearchGroup> researchGroupOrderById(List<ResearchGroup> researchGroupList) {
-        return  researchGroupList.stream()
-                .sorted(Comparator.comparing(ResearchGroup::getId))
-                .collect(Collectors.toList());
-    }
-
-    private List<ResearchGroup> researchGroupOrderByName(List<ResearchGroup> researchGroupList) {
-        return  researchGroupList.stream()
-                .sorted(Comparator.comparing(ResearchGroup::getName))
-                .collect(Collectors.toList());
-    }
-
-    private List<ResearchGroup> researchGroupOrderByFounded(List<ResearchGroup> researchGroupList) {
-        return  researchGroupList.stream()
-                .sorted(Comparator.comparing(ResearchGroup::getFounded))
-                .collect(Collectors.toList());
-    }
-
-    private List<ResearchGroup> researchGroupOrderByCountOfResearchers(List<ResearchGroup> researchGroupList) {
-        return  researchGroupList.stream()
-                .sorted(Comparator.comparing(ResearchGroup::getCountOfResearchers))
-                .collect(Collectors.toList());
-    }
-
-    private List<ResearchGroup> researchGroupOrderByBudget(List<ResearchGroup> researchGroupList) {
-        return  researchGroupList.stream()
-                .sorted(Comparator.comparing(ResearchGroup::getBudget))
-                .collect(Collectors.toList());
-    }
-
-    private List<Project> sortProjects(List<Project> projectList, ProjectCriteria projectCriteria) {
-        List<Project> orderedProjectList;
-        ProjectOrderBy orderBy=projectCriteria.getOrderBy();
-        if(orderBy== ProjectOrderBy.budget){
-            orderedProjectList=projectOrderByBudget(projectList);
-        }
-        else if(orderBy== ProjectOrderBy.startDate){
-            orderedProjectList=projectOrderByStartDate(projectList);
+    private ResearchGroupCursor researchGroupCursor(ResearchGroupCriteria researchGroupCriteria) {
+        if(!validation.checkNotBlankString(researchGroupCriteria.getCursor())){
+            return null;
         }
-        else if(orderBy== ProjectOrderBy.name){
-            orderedProjectList=projectOrderByName(projectList);
-        }
-        else{
-            orderedProjectList=projectOrderById(projectList);
+        ResearchGroupCursor cursor=ResearchGroupCursor.decode(researchGroupCriteria.getCursor());
+        if(cursor.getOrderBy()!=researchGroupCriteria.getOrderBy() || cursor.getOrderType()!=researchGroupCriteria.getOrderType()){
+            throw new ParameterNotValidException("Cursor doesn't match the requested order!");
         }
+        return cursor;
+    }
 
-        if(projectCriteria.getOrderType()== OrderType.desc){
-            Collections.reverse(orderedProjectList);
+    private void checkPage(int page, int size, int maxSize) {
+        if(!validation.checkNotNegativeInteger(page)){
+            throw new ParameterNotValidException("Page mustn't be negative!");
         }
-        return orderedProjectList;
+        checkSize(size,maxSize);
     }
 
-    private List<Project> projectOrderById(List<Project> projectList) {
-        return  projectList.stream()
-                .sorted(Comparator.comparing(Project::getId))
-                .collect(Collectors.toList());}
-
-    private List<Project> projectOrderByName(List<Project> projectList) {
-        return  projectList.stream()
-                .sorted(Comparator.comparing(Project::getName))
-                .collect(Collectors.toList());}
-
-    private List<Project> projectOrderByStartDate(List<Project> projectList) {
-        return  projectList.stream()
-                .sorted(Comparator.comparing(Project::getStartDate))
-                .collect(Collectors.toList());}
-
-    private List<Project> projectOrderByBudget(List<Project> projectList) {
-        return  projectList.stream()
-                .sorted(Comparator.comparing(Project::getBudget))
-                .collect(Collectors.toList());
+    private void checkSize(int size, int maxSize) {
+        if(size<1 || size>maxSize){
+            throw new ParameterNotValidException(String.format("Size must be between 1 and %d!",maxSize));
+        }
     }
 }
@@ -0,0 +1,65 @@
+package research.service;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import research.criteria.*;
+import research.dtos.ProjectDto;
+import research.dtos.ResearchGroupDto;
+import research.exceptions.ParameterNotValidException;
+import research.repository.ReactiveReadRepository;
+import research.search.NameMatch;
+import research.search.NameSearchService;
+import java.util.List;
+
+@Service
+public class ReactiveReadService {
+    private final ReactiveReadRepository reactiveReadRepository;
+    private final NameSearchService nameSearchService;
+
+    private final Validation validation=new Validation();
+
+    public ReactiveReadService(ReactiveReadRepository reactiveReadRepository, NameSearchService nameSearchService) {
+        this.reactiveReadRepository = reactiveReadRepository;
+        this.nameSearchService = nameSearchService;
+    }
+
+    public Flux<ProjectDto> getProjects(ProjectCriteria projectCriteria) {
+        if(!validation.checkNotNegativeInteger(projectCriteria.getPage())){
+            throw new ParameterNotValidException("Page mustn't be negative!");
+        }
+        if(projectCriteria.getSize()<1 || projectCriteria.getSize()>ProjectCriteria.MAX_PAGE_SIZE){
+            throw new ParameterNotValidException(String.format("Size must be between 1 and %d!",ProjectCriteria.MAX_PAGE_SIZE));
+        }
+        if(projectCriteria.getOrderBy()==null){
+            projectCriteria.setOrderBy(ProjectOrderBy.id);
+        }
+        String nameLike=projectCriteria.getNameLike();
+        List<Long> ids=validation.checkNotBlankString(nameLike)
+                ? withinInListLimit(nameSearchService.findProjectIds(nameLike,NameMatch.SUBSTRING,InLists.MAX_IN_LIST_SIZE+1))
+                : null;
+        if(ids!=null && ids.isEmpty()){
+            return Flux.empty();
+        }
+        return reactiveReadRepository.findProjects(projectCriteria,ids);
+    }
+
+    public Flux<ResearchGroupDto> getResearchGroups(ResearchGroupCriteria researchGroupCriteria) {
+        if(researchGroupCriteria.getOrderBy()==null){
+            researchGroupCriteria.setOrderBy(ResearchGroupOrderBy.id);
+        }
+        String nameLike=researchGroupCriteria.getNameLike();
+        List<Long> ids=validation.checkNotBlankString(nameLike)
+                ? withinInListLimit(nameSearchService.findResearchGroupIds(nameLike,NameMatch.SUBSTRING,InLists.MAX_IN_LIST_SIZE+1))
+                : null;
+        if(ids!=null && ids.isEmpty()){
+            return Flux.empty();
+        }
+        return reactiveReadRepository.findResearchGroups(researchGroupCriteria,ids);
+    }
+
+    // Same rule as the JPA lists: a name matching too many names for an IN list is left to the LIKE filter of the query,
+    // which searches the same normalized names.
+    private List<Long> withinInListLimit(List<Long> ids) {
+        return ids.size()>InLists.MAX_IN_LIST_SIZE ? null : ids;
+    }
+}
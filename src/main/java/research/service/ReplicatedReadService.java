@@ -0,0 +1,103 @@
+package research.service;
+
+import org.springframework.stereotype.Service;
+import research.criteria.ProjectCriteria;
+import research.criteria.ResearchGroupCriteria;
+import research.dtos.ChangeToken;
+import research.dtos.ProjectDto;
+import research.dtos.ResearchGroupDto;
+import research.replica.GraphSnapshot;
+import research.replica.ReadReplica;
+import research.replica.ReplicaMode;
+import research.search.NameMatch;
+import research.search.NameSearchService;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Answers the list and by-id reads from the {@link ReadReplica} when it has a usable snapshot, otherwise from the database.
+ * It isn't transactional on purpose: a read served from the snapshot doesn't take a database connection.
+ */
+@Service
+public class ReplicatedReadService {
+    private final ReadReplica readReplica;
+    private final ProjectsAndGroupsService projectsAndGroupsService;
+    private final ChangeTokenService changeTokenService;
+    private final NameSearchService nameSearchService;
+
+    private final Validation validation=new Validation();
+
+    public ReplicatedReadService(ReadReplica readReplica, ProjectsAndGroupsService projectsAndGroupsService, ChangeTokenService changeTokenService, NameSearchService nameSearchService) {
+        this.readReplica = readReplica;
+        this.projectsAndGroupsService = projectsAndGroupsService;
+        this.changeTokenService = changeTokenService;
+        this.nameSearchService = nameSearchService;
+    }
+
+    public List<ProjectDto> getProjects(ProjectCriteria projectCriteria) {
+        GraphSnapshot snapshot=readReplica.getSnapshot();
+        if(snapshot==null){
+            return projectsAndGroupsService.getProjects(projectCriteria);
+        }
+        projectsAndGroupsService.projectPageable(projectCriteria);
+        return snapshot.findProjects(projectCriteria, nameMatches(projectCriteria.getNameLike(), nameSearchService::findProjectIds));
+    }
+
+    public List<ResearchGroupDto> getResearchGroups(ResearchGroupCriteria researchGroupCriteria) {
+        GraphSnapshot snapshot=readReplica.getSnapshot();
+        if(snapshot==null){
+            return projectsAndGroupsService.getResearchGroups(researchGroupCriteria);
+        }
+        return snapshot.findResearchGroups(researchGroupCriteria, nameMatches(researchGroupCriteria.getNameLike(), nameSearchService::findResearchGroupIds));
+    }
+
+    /**
+     * The change token from the snapshot when the replica is on and in sync with the database, so a conditional read
+     * takes no connection.
+     */
+    public ChangeToken getProjectToken(long id) {
+        GraphSnapshot snapshot=readReplica.getSnapshotInSync();
+        Optional<ChangeToken> token=snapshot==null ? Optional.empty() : snapshot.findProjectToken(id);
+        return token.orElseGet(() -> changeTokenService.getProjectToken(id));
+    }
+
+    public ChangeToken getResearchGroupToken(long id) {
+        GraphSnapshot snapshot=readReplica.getSnapshotInSync();
+        Optional<ChangeToken> token=snapshot==null ? Optional.empty() : snapshot.findResearchGroupToken(id);
+        return token.orElseGet(() -> changeTokenService.getResearchGroupToken(id));
+    }
+
+    /**
+     * The project at least as new as the change token, from the snapshot when it holds that state, from the database otherwise.
+     */
+    public ProjectDto getProjectById(long id, ChangeToken token) {
+        GraphSnapshot snapshot=readReplica.getSnapshot();
+        if(snapshot==null){
+            return projectsAndGroupsService.getProjectById(id);
+        }
+        return snapshot.findProject(id, token).orElseGet(() -> projectsAndGroupsService.getProjectById(id));
+    }
+
+    public ResearchGroupDto getResearchGroupById(long id, ChangeToken token) {
+        GraphSnapshot snapshot=readReplica.getSnapshot();
+        if(snapshot==null){
+            return projectsAndGroupsService.getResearchGroupById(id);
+        }
+        return snapshot.findResearchGroup(id, token).orElseGet(() -> projectsAndGroupsService.getResearchGroupById(id));
+    }
+
+    // Every name match from the name index; the database queries match the same normalized names.
+    private Set<Long> nameMatches(String nameLike, NameIdSearch search) {
+        if(!validation.checkNotBlankString(nameLike)){
+            return null;
+        }
+        return new HashSet<>(search.find(nameLike, NameMatch.SUBSTRING, Integer.MAX_VALUE));
+    }
+
+    @FunctionalInterface
+    private interface NameIdSearch {
+        List<Long> find(String name, NameMatch match, int limit);
+    }
+}
@@ -0,0 +1,67 @@
+package research.service;
+
+import research.criteria.OrderType;
+import research.criteria.ResearchGroupCriteria;
+import research.criteria.ResearchGroupOrderBy;
+import research.model.ResearchGroup;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ResearchGroupSorting {
+    public List<ResearchGroup> sortResearchGroups(List<ResearchGroup> researchGroupList, ResearchGroupCriteria researchGroupCriteria){
+        List<ResearchGroup> orderedResearchGroupList;
+        ResearchGroupOrderBy orderBy=researchGroupCriteria.getOrderBy();
+        if(orderBy== ResearchGroupOrderBy.budget){
+            orderedResearchGroupList=researchGroupOrderByBudget(researchGroupList);
+        }
+        else if(orderBy== ResearchGroupOrderBy.countOfResearchers){
+            orderedResearchGroupList=researchGroupOrderByCountOfResearchers(researchGroupList);
+        }
+        else if(orderBy== ResearchGroupOrderBy.founded){
+            orderedResearchGroupList=researchGroupOrderByFounded(researchGroupList);
+        }
+        else if(orderBy== ResearchGroupOrderBy.name){
+            orderedResearchGroupList=researchGroupOrderByName(researchGroupList);
+        }
+        else{
+            orderedResearchGroupList=researchGroupOrderById(researchGroupList);
+        }
+
+        if(researchGroupCriteria.getOrderType()== OrderType.desc){
+            Collections.reverse(orderedResearchGroupList);
+        }
+        return orderedResearchGroupList;
+    }
+
+    private List<ResearchGroup> researchGroupOrderById(List<ResearchGroup> researchGroupList) {
+        return  researchGroupList.stream()
+                .sorted(Comparator.comparing(ResearchGroup::getId))
+                .collect(Collectors.toList());
+    }
+
+    private List<ResearchGroup> researchGroupOrderByName(List<ResearchGroup> researchGroupList) {
+        return  researchGroupList.stream()
+                .sorted(Comparator.comparing(ResearchGroup::getName))
+                .collect(Collectors.toList());
+    }
+
+    private List<ResearchGroup> researchGroupOrderByFounded(List<ResearchGroup> researchGroupList) {
+        return  researchGroupList.stream()
+                .sorted(Comparator.comparing(ResearchGroup::getFounded))
+                .collect(Collectors.toList());
+    }
+
+    private List<ResearchGroup> researchGroupOrderByCountOfResearchers(List<ResearchGroup> researchGroupList) {
+        return  researchGroupList.stream()
+                .sorted(Comparator.comparing(ResearchGroup::getCountOfResearchers))
+                .collect(Collectors.toList());
+    }
+
+    private List<ResearchGroup> researchGroupOrderByBudget(List<ResearchGroup> researchGroupList) {
+        return  researchGroupList.stream()
+                .sorted(Comparator.comparing(ResearchGroup::getBudget))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,51 @@
+package research.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import research.cache.QueryResultCache;
+import research.criteria.ProjectCriteria;
+import research.dtos.ProjectParticipationDto;
+import research.dtos.StatisticsDto;
+import research.exceptions.ParameterNotValidException;
+import research.repository.ProjectsRepository;
+import research.repository.ResearchGroupsRepository;
+import java.util.List;
+
+/**
+ * Aggregates computed by the database with GROUP BY queries. The result is kept in the query result cache,
+ * so it is computed again only after a committed change. The per-project figures grow with the data, they are
+ * read page by page from the summary columns of the projects.
+ */
+@Transactional(readOnly = true)
+@Service
+public class StatisticsService {
+    private final ProjectsRepository projectsRepository;
+    private final ResearchGroupsRepository researchGroupsRepository;
+    private final QueryResultCache queryResultCache;
+
+    public StatisticsService(ProjectsRepository projectsRepository, ResearchGroupsRepository researchGroupsRepository, QueryResultCache queryResultCache) {
+        this.projectsRepository = projectsRepository;
+        this.researchGroupsRepository = researchGroupsRepository;
+        this.queryResultCache = queryResultCache;
+    }
+
+    public StatisticsDto getStatistics() {
+        return queryResultCache.get("statistics", () -> new StatisticsDto(
+                researchGroupsRepository.findLocationStatistics(),
+                projectsRepository.findStartYearStatistics(),
+                projectsRepository.findGroupCountStatistics()));
+    }
+
+    public List<ProjectParticipationDto> getProjectParticipations(int page, int size) {
+        if(page<0){
+            throw new ParameterNotValidException("Page mustn't be negative!");
+        }
+        if(size<1 || size>ProjectCriteria.MAX_PAGE_SIZE){
+            throw new ParameterNotValidException(String.format("Size must be between 1 and %d!",ProjectCriteria.MAX_PAGE_SIZE));
+        }
+        return queryResultCache.get("projectParticipations",
+                () -> projectsRepository.findProjectParticipations(PageRequest.of(page,size,Sort.by("id"))), page, size);
+    }
+}
@@ -0,0 +1,7 @@
+CREATE INDEX idx_research_groups_name_id ON research_groups (researchgroup_name, id);
+
+CREATE INDEX idx_research_groups_founded_id ON research_groups (founded, id);
+
+CREATE INDEX idx_research_groups_count_id ON research_groups (count_of_researchers, id);
+
+CREATE INDEX idx_research_groups_budget_id ON research_groups (budget, id);
@@ -0,0 +1,15 @@
+CREATE INDEX idx_projects_start_date_id ON projects (start_date, id);
+
+CREATE INDEX idx_projects_budget_id ON projects (budget, id);
+
+CREATE INDEX idx_projects_name_id ON projects (project_name, id);
+
+ALTER TABLE projects ADD COLUMN project_name_key VARCHAR(255) GENERATED ALWAYS AS (UPPER(project_name));
+
+CREATE INDEX idx_projects_name_key ON projects (project_name_key);
+
+ALTER TABLE research_groups ADD COLUMN researchgroup_name_key VARCHAR(255) GENERATED ALWAYS AS (UPPER(researchgroup_name));
+
+CREATE INDEX idx_research_groups_name_key_location ON research_groups (researchgroup_name_key, location);
+
+CREATE INDEX idx_project_researchgroup_group_project ON project_researchgroup (researchgroup_id, project_id);
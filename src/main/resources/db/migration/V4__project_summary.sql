@@ -0,0 +1,16 @@
+ALTER TABLE projects ADD COLUMN group_count INT NOT NULL DEFAULT 0;
+
+ALTER TABLE projects ADD COLUMN group_budget BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE projects ADD COLUMN researcher_count INT NOT NULL DEFAULT 0;
+
+UPDATE projects SET
+    group_count=(SELECT COUNT(*) FROM project_researchgroup pr WHERE pr.project_id=projects.id),
+    group_budget=(SELECT COALESCE(SUM(rg.budget),0) FROM project_researchgroup pr JOIN research_groups rg ON rg.id=pr.researchgroup_id WHERE pr.project_id=projects.id),
+    researcher_count=(SELECT COALESCE(SUM(rg.count_of_researchers),0) FROM project_researchgroup pr JOIN research_groups rg ON rg.id=pr.researchgroup_id WHERE pr.project_id=projects.id);
+
+CREATE INDEX idx_projects_group_count_id ON projects (group_count, id);
+
+CREATE INDEX idx_projects_group_budget_id ON projects (group_budget, id);
+
+CREATE INDEX idx_projects_researcher_count_id ON projects (researcher_count, id);
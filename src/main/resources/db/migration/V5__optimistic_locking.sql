@@ -0,0 +1,3 @@
+ALTER TABLE projects ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE research_groups ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
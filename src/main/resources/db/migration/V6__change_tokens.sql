@@ -0,0 +1,7 @@
+ALTER TABLE projects ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE projects ADD COLUMN last_modified TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
+
+ALTER TABLE research_groups ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE research_groups ADD COLUMN last_modified TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3);
@@ -0,0 +1,11 @@
+CREATE TABLE change_outbox
+(
+    id               BIGINT AUTO_INCREMENT NOT NULL,
+    sequence_number  BIGINT       NULL,
+    change_type      VARCHAR(30)  NOT NULL,
+    project_id       BIGINT       NULL,
+    researchgroup_id BIGINT       NULL,
+    changed_at       TIMESTAMP(3) NOT NULL,
+    CONSTRAINT pk_change_outbox PRIMARY KEY (id),
+    CONSTRAINT uk_change_outbox_sequence_number UNIQUE (sequence_number)
+);
@@ -0,0 +1,287 @@
+package research;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.zalando.problem.Problem;
+import reactor.core.publisher.Flux;
+import research.dtos.*;
+import research.events.ChangeType;
+import research.events.ResearchDataChangedEvent;
+import research.exceptions.ProjectVersionConflictException;
+import research.model.Location;
+import research.repository.ChangeOutboxRepository;
+import research.service.ProjectsAndGroupsService;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "research.changes.poll-interval=PT0.2S")
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"})
+class ChangeFeedWebClientIT {
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    ProjectsAndGroupsService projectsAndGroupsService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ChangeOutboxRepository changeOutboxRepository;
+
+    long lastSequence;
+
+    @BeforeEach
+    void init(){
+        lastSequence=jdbcTemplate.queryForObject("SELECT COALESCE(MAX(sequence_number),0) FROM change_outbox", Long.class);
+    }
+
+    @Test
+    @DisplayName("Every mutation is in the change feed in the order of the commits")
+    void testMutationsInChangeFeed(){
+        ResearchGroupDto femto=projectsAndGroupsService.createResearchGroup(new CreateResearchGroupCommand("FEMTO-Lézeres Csoport",LocalDate.of(2016,6,1),7,Location.BIOFIZIKA,15));
+        ProjectDto covid=projectsAndGroupsService.createProject(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195));
+        projectsAndGroupsService.addGroupToProject(covid.getId(),femto.getId());
+        projectsAndGroupsService.updateProject(covid.getId(),null,new UpdateProjectCommand(null,null,200));
+        projectsAndGroupsService.deleteGroupFromProject(covid.getId(),femto.getId());
+        projectsAndGroupsService.addGroupToProject(covid.getId(),femto.getId());
+        projectsAndGroupsService.deleteProject(covid.getId());
+        projectsAndGroupsService.deleteResearchGroup(femto.getId());
+
+        List<ChangeDto> changes=readChanges(lastSequence,100);
+
+        assertThat(changes)
+                .extracting(ChangeDto::getChangeType,ChangeDto::getProjectId,ChangeDto::getResearchGroupId)
+                .containsExactly(
+                        tuple(ChangeType.RESEARCH_GROUP_CREATED,null,femto.getId()),
+                        tuple(ChangeType.PROJECT_CREATED,covid.getId(),null),
+                        tuple(ChangeType.GROUP_LINKED,covid.getId(),femto.getId()),
+                        tuple(ChangeType.PROJECT_UPDATED,covid.getId(),null),
+                        tuple(ChangeType.GROUP_UNLINKED,covid.getId(),femto.getId()),
+                        tuple(ChangeType.GROUP_LINKED,covid.getId(),femto.getId()),
+                        tuple(ChangeType.GROUP_UNLINKED,covid.getId(),femto.getId()),
+                        tuple(ChangeType.PROJECT_DELETED,covid.getId(),null),
+                        tuple(ChangeType.RESEARCH_GROUP_DELETED,null,femto.getId()));
+        assertThat(changes)
+                .extracting(ChangeDto::getSequence)
+                .isSorted()
+                .doesNotHaveDuplicates()
+                .allSatisfy(sequence -> assertThat(sequence).isGreaterThan(lastSequence));
+        assertThat(changes).allSatisfy(change -> assertThat(change.getChangedAt()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("Deleting a linked research group unlinks it from every project in the feed")
+    void testResearchGroupDeleteUnlinksProjectsInChangeFeed(){
+        ResearchGroupDto femto=projectsAndGroupsService.createResearchGroup(new CreateResearchGroupCommand("FEMTO-Lézeres Csoport",LocalDate.of(2016,6,1),7,Location.BIOFIZIKA,15));
+        ProjectDto covid=projectsAndGroupsService.createProject(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195));
+        ProjectDto alzheimer=projectsAndGroupsService.createProject(new CreateProjectCommand("Alzheimer",LocalDate.of(2019,10,1),80));
+        projectsAndGroupsService.addGroupToProject(covid.getId(),femto.getId());
+        projectsAndGroupsService.addGroupToProject(alzheimer.getId(),femto.getId());
+        long beforeDelete=readChanges(lastSequence,100).get(4).getSequence();
+
+        projectsAndGroupsService.deleteResearchGroup(femto.getId());
+
+        assertThat(readChanges(beforeDelete,100))
+                .extracting(ChangeDto::getChangeType,ChangeDto::getProjectId,ChangeDto::getResearchGroupId)
+                .containsExactly(
+                        tuple(ChangeType.GROUP_UNLINKED,covid.getId(),femto.getId()),
+                        tuple(ChangeType.GROUP_UNLINKED,alzheimer.getId(),femto.getId()),
+                        tuple(ChangeType.RESEARCH_GROUP_DELETED,null,femto.getId()));
+    }
+
+    @Test
+    @DisplayName("A rolled back mutation leaves no change in the feed")
+    void testRolledBackMutationNotInChangeFeed(){
+        ProjectDto covid=projectsAndGroupsService.createProject(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195));
+
+        assertThatThrownBy(() -> projectsAndGroupsService.updateProject(covid.getId(),new ChangeToken(3,0,0,null),new UpdateProjectCommand(null,null,200)))
+                .isInstanceOf(ProjectVersionConflictException.class);
+
+        assertThat(readChanges(lastSequence,100))
+                .extracting(ChangeDto::getChangeType)
+                .containsExactly(ChangeType.PROJECT_CREATED);
+    }
+
+    @Test
+    @DisplayName("Linking a linked group or unlinking an unlinked one leaves no change in the feed")
+    void testUnchangedLinksNotInChangeFeed(){
+        ResearchGroupDto femto=projectsAndGroupsService.createResearchGroup(new CreateResearchGroupCommand("FEMTO-Lézeres Csoport",LocalDate.of(2016,6,1),7,Location.BIOFIZIKA,15));
+        ProjectDto covid=projectsAndGroupsService.createProject(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195));
+
+        projectsAndGroupsService.deleteGroupFromProject(covid.getId(),femto.getId());
+        projectsAndGroupsService.addGroupToProject(covid.getId(),femto.getId());
+        projectsAndGroupsService.addGroupToProject(covid.getId(),femto.getId());
+
+        assertThat(readChanges(lastSequence,100))
+                .extracting(ChangeDto::getChangeType)
+                .containsExactly(ChangeType.RESEARCH_GROUP_CREATED,ChangeType.PROJECT_CREATED,ChangeType.GROUP_LINKED);
+    }
+
+    @Test
+    @DisplayName("A change is numbered when its transaction commits, after the changes committed before it")
+    void testChangesNumberedInCommitOrder() throws InterruptedException, ExecutionException, TimeoutException {
+        CountDownLatch inserted=new CountDownLatch(1);
+        CountDownLatch commit=new CountDownLatch(1);
+        ExecutorService executor=Executors.newSingleThreadExecutor();
+        try {
+            Future<?> committing=executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                changeOutboxRepository.insertChanges(List.of(ResearchDataChangedEvent.ofProject(ChangeType.PROJECT_CREATED,0L)),Instant.now());
+                inserted.countDown();
+                awaitQuietly(commit);
+            }));
+            inserted.await(10,TimeUnit.SECONDS);
+            ProjectDto covid=projectsAndGroupsService.createProject(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195));
+
+            assertThat(readChanges(lastSequence,100))
+                    .extracting(ChangeDto::getProjectId)
+                    .containsExactly(covid.getId());
+
+            Thread.sleep(500);
+            commit.countDown();
+            committing.get(10,TimeUnit.SECONDS);
+            ProjectDto alzheimer=projectsAndGroupsService.createProject(new CreateProjectCommand("Alzheimer",LocalDate.of(2019,10,1),80));
+
+            assertThat(readChanges(lastSequence,100))
+                    .extracting(ChangeDto::getSequence,ChangeDto::getProjectId)
+                    .containsExactly(tuple(lastSequence+1,covid.getId()),tuple(lastSequence+2,0L),tuple(lastSequence+3,alzheimer.getId()));
+        }
+        finally {
+            commit.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("A rolled back change takes no sequence number")
+    void testRolledBackTransactionLeavesNoGap(){
+        transactionTemplate.executeWithoutResult(status -> {
+            changeOutboxRepository.insertChanges(List.of(ResearchDataChangedEvent.ofProject(ChangeType.PROJECT_CREATED,0L)),Instant.now());
+            status.setRollbackOnly();
+        });
+        ProjectDto covid=projectsAndGroupsService.createProject(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195));
+
+        assertThat(readChanges(lastSequence,100))
+                .extracting(ChangeDto::getSequence,ChangeDto::getProjectId)
+                .containsExactly(tuple(lastSequence+1,covid.getId()));
+    }
+
+    @Test
+    @DisplayName("A change left without a number is numbered by the poll and sent to the open streams")
+    void testUnnumberedChangeNumberedByPoll(){
+        jdbcTemplate.update("INSERT INTO change_outbox (change_type, project_id, changed_at) VALUES ('PROJECT_DELETED', 0, CURRENT_TIMESTAMP)");
+        Flux<ChangeDto> stream=webTestClient
+                .get()
+                .uri("/api/changes/stream?since={since}",lastSequence)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ChangeDto.class)
+                .getResponseBody();
+
+        assertThat(stream.blockFirst(Duration.ofSeconds(10)))
+                .extracting(ChangeDto::getSequence,ChangeDto::getChangeType)
+                .containsExactly(lastSequence+1,ChangeType.PROJECT_DELETED);
+    }
+
+    @Test
+    @DisplayName("Changes are read page by page after the last sequence")
+    void testChangeFeedPages(){
+        for (int i = 0; i < 5; i++) {
+            projectsAndGroupsService.createProject(new CreateProjectCommand("Projekt "+i,LocalDate.of(2019,2,23),i));
+        }
+
+        List<ChangeDto> firstPage=readChanges(lastSequence,2);
+        List<ChangeDto> secondPage=readChanges(firstPage.get(1).getSequence(),2);
+        List<ChangeDto> lastPage=readChanges(secondPage.get(1).getSequence(),2);
+
+        assertThat(firstPage).hasSize(2);
+        assertThat(secondPage).hasSize(2);
+        assertThat(lastPage).hasSize(1);
+        assertThat(readChanges(lastPage.get(0).getSequence(),2)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Read the change feed with an invalid size")
+    void testChangeFeedWithInvalidSize(){
+        Problem result=webTestClient
+                .get()
+                .uri("/api/changes?since={since}&size=0",lastSequence)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(result.getDetail()).isEqualTo("Size must be between 1 and 1000!");
+    }
+
+    @Test
+    @DisplayName("The stream sends the stored changes, then the ones committed later")
+    void testChangeStream(){
+        ProjectDto covid=projectsAndGroupsService.createProject(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195));
+
+        Flux<ChangeDto> stream=webTestClient
+                .get()
+                .uri("/api/changes/stream?since={since}",lastSequence)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ChangeDto.class)
+                .getResponseBody();
+        ProjectDto alzheimer=projectsAndGroupsService.createProject(new CreateProjectCommand("Alzheimer",LocalDate.of(2019,10,1),80));
+
+        assertThat(stream.take(2).collectList().block(Duration.ofSeconds(10)))
+                .extracting(ChangeDto::getChangeType,ChangeDto::getProjectId)
+                .containsExactly(tuple(ChangeType.PROJECT_CREATED,covid.getId()),tuple(ChangeType.PROJECT_CREATED,alzheimer.getId()));
+
+        Flux<ChangeDto> resumed=webTestClient
+                .get()
+                .uri("/api/changes/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID",String.valueOf(lastSequence+1))
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ChangeDto.class)
+                .getResponseBody();
+
+        assertThat(resumed.blockFirst(Duration.ofSeconds(10)).getProjectId()).isEqualTo(alzheimer.getId());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch){
+        try {
+            latch.await(10,TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<ChangeDto> readChanges(long since, int size){
+        return webTestClient
+                .get()
+                .uri("/api/changes?since={since}&size={size}",since,size)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ChangeDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,131 @@
+package research;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import research.dtos.*;
+import research.model.Location;
+import research.service.ProjectsAndGroupsService;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"})
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ConcurrentChangesIT {
+    private static final int PROJECT_COUNT=10;
+    private static final int ROUNDS=50;
+
+    @Autowired
+    ProjectsAndGroupsService service;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Research group updates running together with links and unlinks keep the project summaries exact")
+    void testSummariesUnderConcurrentGroupUpdatesAndLinks() throws InterruptedException, ExecutionException, TimeoutException {
+        ResearchGroupDto femto=service.createResearchGroup(new CreateResearchGroupCommand("FEMTO-Lézeres Csoport",LocalDate.of(2016,6,1),7,Location.BIOFIZIKA,15));
+        List<Long> projectIds=IntStream.range(0,PROJECT_COUNT)
+                .mapToObj(i -> service.createProject(new CreateProjectCommand("Projekt "+i,LocalDate.of(2019,2,23),i)).getId())
+                .collect(Collectors.toList());
+
+        runTogether(
+                () -> IntStream.range(0,ROUNDS).forEach(i ->
+                        service.updateResearchGroupById(femto.getId(),null,new UpdateResearchGroupCommand(null,null,i,null,i*10))),
+                () -> IntStream.range(0,ROUNDS).forEach(i -> {
+                    long projectId=projectIds.get(i%PROJECT_COUNT);
+                    if(i/PROJECT_COUNT%2==0){
+                        service.addGroupToProject(projectId,femto.getId());
+                    }
+                    else {
+                        service.deleteGroupFromProject(projectId,femto.getId());
+                    }
+                }));
+
+        assertThat(jdbcTemplate.queryForList("SELECT p.id, p.group_count, p.group_budget, p.researcher_count,"
+                + " (SELECT COUNT(*) FROM project_researchgroup pr WHERE pr.project_id=p.id) AS linked_count,"
+                + " (SELECT COALESCE(SUM(rg.budget),0) FROM project_researchgroup pr JOIN research_groups rg ON rg.id=pr.researchgroup_id WHERE pr.project_id=p.id) AS linked_budget,"
+                + " (SELECT COALESCE(SUM(rg.count_of_researchers),0) FROM project_researchgroup pr JOIN research_groups rg ON rg.id=pr.researchgroup_id WHERE pr.project_id=p.id) AS linked_researchers"
+                + " FROM projects p"))
+                .hasSize(PROJECT_COUNT)
+                .allSatisfy(row -> {
+                    assertThat(((Number) row.get("GROUP_COUNT")).longValue()).isEqualTo(((Number) row.get("LINKED_COUNT")).longValue());
+                    assertThat(((Number) row.get("GROUP_BUDGET")).longValue()).isEqualTo(((Number) row.get("LINKED_BUDGET")).longValue());
+                    assertThat(((Number) row.get("RESEARCHER_COUNT")).longValue()).isEqualTo(((Number) row.get("LINKED_RESEARCHERS")).longValue());
+                });
+    }
+
+    @Test
+    @DisplayName("Updates of a linked project and research group running together neither deadlock nor lose a change")
+    void testConcurrentUpdatesOfLinkedEntities() throws InterruptedException, ExecutionException, TimeoutException {
+        ResearchGroupDto femto=service.createResearchGroup(new CreateResearchGroupCommand("FEMTO-Lézeres Csoport",LocalDate.of(2016,6,1),7,Location.BIOFIZIKA,15));
+        ProjectDto covid=service.createProject(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195));
+        service.addGroupToProject(covid.getId(),femto.getId());
+
+        runTogether(
+                () -> IntStream.rangeClosed(1,ROUNDS).forEach(i ->
+                        service.updateProject(covid.getId(),null,new UpdateProjectCommand(null,null,i))),
+                () -> IntStream.rangeClosed(1,ROUNDS).forEach(i ->
+                        service.updateResearchGroupById(femto.getId(),null,new UpdateResearchGroupCommand(null,null,null,null,i))));
+
+        ProjectDto project=service.getProjectById(covid.getId());
+        assertThat(project.getVersion()).isEqualTo(ROUNDS);
+        assertThat(project.getBudget()).isEqualTo(ROUNDS);
+        assertThat(project.getGroupBudget()).isEqualTo(ROUNDS);
+        assertThat(project.getResearchGroupSet())
+                .extracting(ResearchGroupWithoutProjectsDto::getBudget)
+                .containsExactly(ROUNDS);
+        assertThat(service.getResearchGroupById(femto.getId()).getVersion()).isEqualTo(ROUNDS);
+    }
+
+    @Test
+    @DisplayName("Updates of one research group running together wait for each other and keep the project summary exact")
+    void testConcurrentUpdatesOfResearchGroup() throws InterruptedException, ExecutionException, TimeoutException {
+        ResearchGroupDto femto=service.createResearchGroup(new CreateResearchGroupCommand("FEMTO-Lézeres Csoport",LocalDate.of(2016,6,1),7,Location.BIOFIZIKA,15));
+        ProjectDto covid=service.createProject(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195));
+        service.addGroupToProject(covid.getId(),femto.getId());
+
+        runTogether(
+                () -> IntStream.rangeClosed(1,ROUNDS).forEach(i ->
+                        service.updateResearchGroupById(femto.getId(),null,new UpdateResearchGroupCommand(null,null,null,null,i))),
+                () -> IntStream.rangeClosed(1,ROUNDS).forEach(i ->
+                        service.updateResearchGroupById(femto.getId(),null,new UpdateResearchGroupCommand(null,null,i,null,null))));
+
+        assertThat(service.getResearchGroupById(femto.getId()).getVersion()).isEqualTo(2*ROUNDS);
+        assertThat(jdbcTemplate.queryForMap("SELECT group_budget, researcher_count FROM projects WHERE id=?",covid.getId()))
+                .containsEntry("GROUP_BUDGET",(long)ROUNDS)
+                .containsEntry("RESEARCHER_COUNT",ROUNDS);
+    }
+
+    private void runTogether(Runnable... tasks) throws InterruptedException, ExecutionException, TimeoutException {
+        ExecutorService executor=Executors.newFixedThreadPool(tasks.length);
+        try {
+            CountDownLatch start=new CountDownLatch(1);
+            List<Future<?>> futures=new ArrayList<>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60,TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package research;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.jdbc.Sql;
+import research.criteria.OrderType;
+import research.criteria.ProjectCriteria;
+import research.criteria.ProjectOrderBy;
+import research.criteria.ResearchGroupCriteria;
+import research.criteria.ResearchGroupOrderBy;
+import research.dtos.CreateProjectCommand;
+import research.dtos.CreateResearchGroupCommand;
+import research.model.Location;
+import research.model.Project;
+import research.search.NameSearchService;
+import research.service.BulkCreateService;
+import research.service.ProjectsAndGroupsService;
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAINs the statements the repositories send, captured from the DataSource with the parameters they were bound to.
+ * Only the ascending orders are checked: H2 reads an index only in its own direction and sorts the descending pages
+ * after a scan, so its plan says nothing about MariaDB, which reads the same indexes backwards.
+ */
+@SpringBootTest(properties = "research.query-cache.enabled=false")
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"})
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class CriteriaIndexIT {
+    private static final int ROW_COUNT=1001;
+    private static final String PRIMARY_KEY="PRIMARY_KEY";
+    private static final Map<ProjectOrderBy,String> PROJECT_INDEXES=Map.of(
+            ProjectOrderBy.id,PRIMARY_KEY,
+            ProjectOrderBy.name,"IDX_PROJECTS_NAME_ID",
+            ProjectOrderBy.startDate,"IDX_PROJECTS_START_DATE_ID",
+            ProjectOrderBy.budget,"IDX_PROJECTS_BUDGET_ID",
+            ProjectOrderBy.groupCount,"IDX_PROJECTS_GROUP_COUNT_ID",
+            ProjectOrderBy.groupBudget,"IDX_PROJECTS_GROUP_BUDGET_ID",
+            ProjectOrderBy.researcherCount,"IDX_PROJECTS_RESEARCHER_COUNT_ID");
+    private static final Map<ResearchGroupOrderBy,String> RESEARCH_GROUP_INDEXES=Map.of(
+            ResearchGroupOrderBy.id,PRIMARY_KEY,
+            ResearchGroupOrderBy.name,"IDX_RESEARCH_GROUPS_NAME_ID",
+            ResearchGroupOrderBy.founded,"IDX_RESEARCH_GROUPS_FOUNDED_ID",
+            ResearchGroupOrderBy.countOfResearchers,"IDX_RESEARCH_GROUPS_COUNT_ID",
+            ResearchGroupOrderBy.budget,"IDX_RESEARCH_GROUPS_BUDGET_ID");
+    // Matching a few names the query gets an IN list of ids, matching every name it filters with LIKE
+    private static final String FEW_NAMES="10";
+    private static final String ALL_NAMES="o";
+    private static final Pattern USED_INDEX=Pattern.compile("/\\* PUBLIC\\.([A-Z_]+\\.)?([A-Za-z_]+)");
+    private static final StatementCapture CAPTURE=new StatementCapture();
+
+    @Autowired
+    ProjectsAndGroupsService service;
+
+    @Autowired
+    BulkCreateService bulkCreateService;
+
+    @Autowired
+    NameSearchService nameSearchService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DataSource dataSource;
+
+    @BeforeEach
+    void init(){
+        List<QueryExecutionListener> listeners=proxyDataSource().getProxyConfig().getQueryListener().getListeners();
+        if(!listeners.contains(CAPTURE)){
+            listeners.add(CAPTURE);
+        }
+
+        List<Object[]> projects=new ArrayList<>();
+        List<Object[]> groups=new ArrayList<>();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            projects.add(new Object[]{"Projekt "+i, "projekt "+i, Date.valueOf(LocalDate.of(2010,1,1).plusDays(i*5L)), i});
+            groups.add(new Object[]{"Csoport "+i, "csoport "+i, Date.valueOf(LocalDate.of(2000,1,1).plusDays(i)), i % 30, "BIOFIZIKA", i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO projects (project_name, project_name_search, start_date, budget) VALUES (?,?,?,?)", projects);
+        jdbcTemplate.batchUpdate("INSERT INTO research_groups (researchgroup_name, researchgroup_name_search, founded, count_of_researchers, location, budget) VALUES (?,?,?,?,?,?)", groups);
+        nameSearchService.rebuild();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("projectCriteria")
+    @DisplayName("Project list queries page along the index of their order")
+    void testProjectQueryUsesIndex(String description, ProjectCriteria criteria, String index){
+        assertThat(usedIndex(explain(() -> service.getProjects(criteria), "order by"))).isEqualTo(index);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("researchGroupCriteria")
+    @DisplayName("Research group page queries page along the index of their order")
+    void testResearchGroupQueryUsesIndex(String description, ResearchGroupCriteria criteria, String index){
+        assertThat(usedIndex(explain(() -> service.getResearchGroupPage(criteria), "order by"))).isEqualTo(index);
+    }
+
+    @Test
+    @DisplayName("Name checks and reverse link lookups use their own index")
+    void testLookupsUseIndex(){
+        assertThat(usedIndex(explain(() -> service.createProject(new CreateProjectCommand("Új projekt",LocalDate.of(2020,1,1),1)),
+                "WHERE project_name_key=")))
+                .isEqualTo("IDX_PROJECTS_NAME_KEY");
+        assertThat(usedIndex(explain(() -> service.createResearchGroup(new CreateResearchGroupCommand("Új csoport",LocalDate.of(2020,1,1),1,Location.BIOFIZIKA,1)),
+                "WHERE researchgroup_name_key=")))
+                .isEqualTo("IDX_RESEARCH_GROUPS_NAME_KEY_LOCATION");
+        assertThat(usedIndex(explain(() -> bulkCreateService.createProjects(List.of(new CreateProjectCommand("Tömeges projekt",LocalDate.of(2020,1,1),1))),
+                "WHERE project_name_key IN")))
+                .isEqualTo("IDX_PROJECTS_NAME_KEY");
+
+        long groupId=jdbcTemplate.queryForObject("SELECT MIN(id) FROM research_groups", Long.class);
+        assertThat(explain(() -> service.deleteResearchGroup(groupId), "FROM project_researchgroup WHERE researchgroup_id"))
+                .contains("/* PUBLIC.IDX_PROJECT_RESEARCHGROUP_GROUP_PROJECT:");
+    }
+
+    static Stream<Arguments> projectCriteria(){
+        List<Arguments> arguments=new ArrayList<>();
+        for (ProjectOrderBy orderBy : ProjectOrderBy.values()) {
+            for (String nameLike : List.of("",FEW_NAMES,ALL_NAMES)) {
+                for (LocalDate startAfter : List.of(Project.FIRST_DATE,LocalDate.of(2020,1,1))) {
+                    for (int minBudget : List.of(0,100)) {
+                        ProjectCriteria criteria=new ProjectCriteria();
+                        criteria.setOrderBy(orderBy);
+                        criteria.setOrderType(OrderType.asc);
+                        criteria.setNameLike(nameLike);
+                        criteria.setStartAfter(startAfter);
+                        criteria.setMinBudget(minBudget);
+                        arguments.add(Arguments.of(
+                                String.format("projects by %s, nameLike '%s', startAfter %s, minBudget %d",orderBy,nameLike,startAfter,minBudget),
+                                criteria,
+                                expectedIndex(PROJECT_INDEXES.get(orderBy),nameLike)));
+                    }
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    static Stream<Arguments> researchGroupCriteria(){
+        List<Arguments> arguments=new ArrayList<>();
+        for (ResearchGroupOrderBy orderBy : ResearchGroupOrderBy.values()) {
+            for (String nameLike : List.of("",FEW_NAMES,ALL_NAMES)) {
+                for (int minCountOfResearchers : List.of(0,10)) {
+                    for (int minBudget : List.of(0,100)) {
+                        ResearchGroupCriteria criteria=new ResearchGroupCriteria();
+                        criteria.setOrderBy(orderBy);
+                        criteria.setOrderType(OrderType.asc);
+                        criteria.setNameLike(nameLike);
+                        criteria.setMinCountOfResearchers(minCountOfResearchers);
+                        criteria.setMinBudget(minBudget);
+                        arguments.add(Arguments.of(
+                                String.format("research groups by %s, nameLike '%s', minCountOfResearchers %d, minBudget %d",orderBy,nameLike,minCountOfResearchers,minBudget),
+                                criteria,
+                                expectedIndex(RESEARCH_GROUP_INDEXES.get(orderBy),nameLike)));
+                    }
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    private static String expectedIndex(String orderIndex, String nameLike){
+        return nameLike.equals(FEW_NAMES) ? PRIMARY_KEY : orderIndex;
+    }
+
+    // The plan of the first statement of the call containing sqlPart, with the parameters it was bound to
+    private String explain(Runnable call, String sqlPart){
+        List<QueryInfo> queries=CAPTURE.during(call);
+        QueryInfo query=queries.stream()
+                .filter(candidate -> candidate.getQuery().contains(sqlPart))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No statement with "+sqlPart));
+        Object[] parameters=query.getParametersList().isEmpty() ? new Object[0] : query.getParametersList().get(0).stream()
+                .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                .map(operation -> ParameterSetOperation.isSetNullParameterOperation(operation) ? null : operation.getArgs()[1])
+                .toArray();
+        return jdbcTemplate.queryForObject("EXPLAIN "+query.getQuery(), String.class, parameters);
+    }
+
+    // The index or table scan the plan reads first, without the generated suffix of the primary key index
+    private String usedIndex(String plan){
+        Matcher matcher=USED_INDEX.matcher(plan);
+        assertThat(matcher.find()).as(plan).isTrue();
+        String index=matcher.group(2);
+        return index.startsWith(PRIMARY_KEY) ? PRIMARY_KEY : index;
+    }
+
+    private ProxyDataSource proxyDataSource(){
+        DataSource current=dataSource;
+        while (current instanceof DelegatingDataSource) {
+            current=((DelegatingDataSource) current).getTargetDataSource();
+        }
+        return (ProxyDataSource) current;
+    }
+
+    // Records the statements of the calling thread only, the listener stays registered for the whole context
+    private static class StatementCapture implements QueryExecutionListener {
+        private final ThreadLocal<List<QueryInfo>> captured=new ThreadLocal<>();
+
+        List<QueryInfo> during(Runnable call) {
+            List<QueryInfo> queries=new ArrayList<>();
+            captured.set(queries);
+            try {
+                call.run();
+            }
+            finally {
+                captured.remove();
+            }
+            return queries;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            List<QueryInfo> queries=captured.get();
+            if(queries!=null){
+                queries.addAll(queryInfoList);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package research;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import research.execution.ConcurrencyLimitingDataSource;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"research.execution.database-concurrency=2", "research.execution.database-acquire-timeout=PT0.5S"})
+class DatabaseConcurrencyLimitIT {
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("Connections over the limit are refused after the acquire timeout and a closed connection frees its permit once")
+    void testConnectionLimit() throws SQLException {
+        ConcurrencyLimitingDataSource limitedDataSource=(ConcurrencyLimitingDataSource) dataSource;
+        Connection first=dataSource.getConnection();
+        Connection second=dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection)
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("concurrency limit: 2");
+
+        first.close();
+        first.close();
+        assertThat(limitedDataSource.getAvailablePermits()).isEqualTo(1);
+        try (Connection third=dataSource.getConnection()) {
+            assertThat(third.isValid(1)).isTrue();
+        }
+        second.close();
+        assertThat(limitedDataSource.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Concurrent requests over the limit wait for a connection instead of failing")
+    void testConcurrentRequestsWait() throws InterruptedException, ExecutionException {
+        ExecutorService executor=Executors.newFixedThreadPool(16);
+        try {
+            List<Future<HttpStatus>> responses=executor.invokeAll(IntStream.range(0,64)
+                    .<Callable<HttpStatus>>mapToObj(i -> () -> webTestClient
+                            .get()
+                            .uri(uriBuilder -> uriBuilder.path("/api/projects").queryParam("minBudget",i).build())
+                            .exchange()
+                            .returnResult(String.class)
+                            .getStatus())
+                    .collect(Collectors.toList()));
+            for (Future<HttpStatus> response : responses) {
+                assertThat(response.get()).isEqualTo(HttpStatus.OK);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // The connection of the last request may be closed just after its response has been sent.
+        ConcurrencyLimitingDataSource limitedDataSource=(ConcurrencyLimitingDataSource) dataSource;
+        for (int i = 0; i < 100 && limitedDataSource.getAvailablePermits()<2; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(limitedDataSource.getAvailablePermits()).isEqualTo(2);
+    }
+}
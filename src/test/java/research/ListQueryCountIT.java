@@ -0,0 +1,277 @@
+package research;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.jdbc.Sql;
+import research.cache.QueryResultCache;
+import research.criteria.OrderType;
+import research.criteria.ProjectCriteria;
+import research.criteria.ResearchGroupCriteria;
+import research.dtos.CreateProjectCommand;
+import research.dtos.ProjectDto;
+import research.dtos.ProjectWithoutGroupsDto;
+import research.dtos.ResearchGroupDto;
+import research.dtos.ResearchGroupPageDto;
+import research.dtos.ResearchGroupWithoutProjectsDto;
+import research.service.ProjectExportService;
+import research.service.ProjectsAndGroupsService;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts every statement the calling thread sends through the DataSource, including the JdbcTemplate ones Hibernate's
+ * statistics don't see. Entity and collection loads still come from the statistics. The change feed is off: its poller
+ * numbers the outbox rows on its own thread now and then, which would change the count of the committing thread.
+ */
+@SpringBootTest(properties = "research.changes.enabled=false")
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"})
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class ListQueryCountIT {
+    private static final int PROJECT_COUNT=1000;
+    private static final int GROUP_COUNT=20;
+    private static final StatementCounter COUNTER=new StatementCounter();
+
+    @Autowired
+    ProjectsAndGroupsService service;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    QueryResultCache queryResultCache;
+
+    @Autowired
+    ProjectExportService projectExportService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    DataSource dataSource;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void init(){
+        List<QueryExecutionListener> listeners=proxyDataSource().getProxyConfig().getQueryListener().getListeners();
+        if(!listeners.contains(COUNTER)){
+            listeners.add(COUNTER);
+        }
+
+        List<Object[]> projects=new ArrayList<>();
+        for (int i = 0; i < PROJECT_COUNT; i++) {
+            projects.add(new Object[]{"Projekt "+i, "projekt "+i, Date.valueOf(LocalDate.of(2020,1,1).plusDays(i)), i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO projects (project_name, project_name_search, start_date, budget) VALUES (?,?,?,?)", projects);
+
+        List<Object[]> groups=new ArrayList<>();
+        for (int i = 0; i < GROUP_COUNT; i++) {
+            groups.add(new Object[]{"Csoport "+i, "csoport "+i, Date.valueOf(LocalDate.of(2010,1,1).plusDays(i)), i+1, "BIOFIZIKA", i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO research_groups (researchgroup_name, researchgroup_name_search, founded, count_of_researchers, location, budget) VALUES (?,?,?,?,?,?)", groups);
+
+        List<Long> projectIds=jdbcTemplate.queryForList("SELECT id FROM projects ORDER BY id", Long.class);
+        List<Long> groupIds=jdbcTemplate.queryForList("SELECT id FROM research_groups ORDER BY id", Long.class);
+        List<Object[]> links=new ArrayList<>();
+        for (int i = 0; i < projectIds.size(); i++) {
+            links.add(new Object[]{projectIds.get(i), groupIds.get(i % GROUP_COUNT)});
+            links.add(new Object[]{projectIds.get(i), groupIds.get((i + 1) % GROUP_COUNT)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO project_researchgroup (project_id, researchgroup_id) VALUES (?,?)", links);
+        queryResultCache.invalidate();
+
+        statistics=entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void cleanUp(){
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("Statement count of a project listing doesn't depend on the number of projects")
+    void testProjectListStatementCount(){
+        long smallListStatements=projectListStatements(10);
+        long largeListStatements=projectListStatements(PROJECT_COUNT);
+
+        assertThat(largeListStatements)
+                .isEqualTo(smallListStatements)
+                .isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Statement count of a research group listing doesn't depend on the number of groups")
+    void testResearchGroupListStatementCount(){
+        List<ResearchGroupDto> result=new ArrayList<>();
+        long listStatements=COUNTER.during(() -> result.addAll(service.getResearchGroups(new ResearchGroupCriteria())));
+
+        assertThat(result).hasSize(GROUP_COUNT);
+        assertThat(result.get(0).getProjectSet()).hasSize(2*PROJECT_COUNT/GROUP_COUNT);
+        assertThat(listStatements).isEqualTo(1);
+
+        ResearchGroupCriteria criteria=new ResearchGroupCriteria();
+        criteria.setSize(GROUP_COUNT);
+        ResearchGroupPageDto[] page=new ResearchGroupPageDto[1];
+        long pageStatements=COUNTER.during(() -> page[0]=service.getResearchGroupPage(criteria));
+
+        assertThat(page[0].getContent()).hasSize(GROUP_COUNT);
+        assertThat(pageStatements).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Summary views read a single table and load no entities")
+    void testSummaryViewStatementCount(){
+        ProjectCriteria projectCriteria=new ProjectCriteria();
+        projectCriteria.setSize(PROJECT_COUNT);
+        List<ProjectWithoutGroupsDto> projects=new ArrayList<>();
+        statistics.clear();
+        long projectStatements=COUNTER.during(() -> projects.addAll(service.getProjectSummaries(projectCriteria)));
+
+        assertThat(projects).hasSize(PROJECT_COUNT);
+        assertThat(projectStatements).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+
+        List<ResearchGroupWithoutProjectsDto> researchGroups=new ArrayList<>();
+        statistics.clear();
+        long groupStatements=COUNTER.during(() -> researchGroups.addAll(service.getResearchGroupSummaries(new ResearchGroupCriteria())));
+
+        assertThat(researchGroups).hasSize(GROUP_COUNT);
+        assertThat(groupStatements).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Repeated list query is served from the query cache until the next mutation")
+    void testRepeatedProjectListFromQueryCache(){
+        ProjectCriteria criteria=new ProjectCriteria();
+        criteria.setOrderType(OrderType.desc);
+        criteria.setSize(10);
+        service.getProjects(criteria);
+        assertThat(COUNTER.during(() -> service.getProjects(criteria))).isZero();
+
+        service.createProject(new CreateProjectCommand("Új projekt",LocalDate.of(2019,1,1),1));
+
+        List<ProjectDto> result=new ArrayList<>();
+        long statements=COUNTER.during(() -> result.addAll(service.getProjects(criteria)));
+        assertThat(result)
+                .extracting(ProjectDto::getName)
+                .startsWith("Új projekt");
+        assertThat(statements).isPositive();
+    }
+
+    @Test
+    @DisplayName("Export of all projects is a single streamed query")
+    void testProjectExportStatementCount() throws IOException {
+        ByteArrayOutputStream outputStream=new ByteArrayOutputStream();
+        long statements=COUNTER.during(() -> {
+            try {
+                projectExportService.exportProjects(outputStream);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        assertThat(statements).isEqualTo(1);
+        List<ProjectDto> exported=objectMapper.readerFor(ProjectDto.class)
+                .<ProjectDto>readValues(outputStream.toByteArray())
+                .readAll();
+        assertThat(exported).hasSize(PROJECT_COUNT);
+        assertThat(exported).allSatisfy(project -> assertThat(project.getResearchGroupSet()).hasSize(2));
+    }
+
+    @Test
+    @DisplayName("Deleting a widely linked research group doesn't load the linked projects")
+    void testResearchGroupDeleteStatementCount(){
+        List<Long> groupIds=jdbcTemplate.queryForList("SELECT id FROM research_groups ORDER BY id", Long.class);
+        long widelyLinkedId=groupIds.get(0);
+        long singleLinkedId=groupIds.get(GROUP_COUNT/2);
+        jdbcTemplate.update("DELETE FROM project_researchgroup WHERE researchgroup_id=? AND project_id>(SELECT MIN(project_id) FROM project_researchgroup WHERE researchgroup_id=?)", singleLinkedId, singleLinkedId);
+        statistics.clear();
+        long widelyLinkedStatements=COUNTER.during(() -> service.deleteResearchGroup(widelyLinkedId));
+        long singleLinkedStatements=COUNTER.during(() -> service.deleteResearchGroup(singleLinkedId));
+
+        assertThat(widelyLinkedStatements)
+                .isEqualTo(singleLinkedStatements)
+                .isEqualTo(7);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM project_researchgroup WHERE researchgroup_id IN (?,?)", Long.class, widelyLinkedId, singleLinkedId)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM project_researchgroup", Long.class)).isEqualTo(2L*PROJECT_COUNT-4L*PROJECT_COUNT/GROUP_COUNT);
+    }
+
+    private long projectListStatements(int size){
+        ProjectCriteria criteria=new ProjectCriteria();
+        criteria.setSize(size);
+        List<ProjectDto> result=new ArrayList<>();
+        long statements=COUNTER.during(() -> result.addAll(service.getProjects(criteria)));
+
+        assertThat(result).hasSize(size);
+        assertThat(result).allSatisfy(project -> assertThat(project.getResearchGroupSet()).hasSize(2));
+        return statements;
+    }
+
+    private ProxyDataSource proxyDataSource(){
+        DataSource current=dataSource;
+        while (current instanceof DelegatingDataSource) {
+            current=((DelegatingDataSource) current).getTargetDataSource();
+        }
+        return (ProxyDataSource) current;
+    }
+
+    // Counts the statements executed on the thread inside during(), a batch counting once like in JdbcMetrics.
+    private static class StatementCounter implements QueryExecutionListener {
+        private final ThreadLocal<long[]> count=new ThreadLocal<>();
+
+        long during(Runnable call) {
+            long[] statements=new long[1];
+            count.set(statements);
+            try {
+                call.run();
+            }
+            finally {
+                count.remove();
+            }
+            return statements[0];
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            long[] statements=count.get();
+            if(statements!=null){
+                statements[0]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package research;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.zalando.problem.Problem;
+import research.dtos.*;
+import research.model.Location;
+import research.replica.ReadReplica;
+import research.repository.GroupLinkRepository;
+import research.service.ProjectsAndGroupsService;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "research.replica.mode=eventual")
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"})
+class MembershipControllerWebClientIT {
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    ReadReplica readReplica;
+
+    @Autowired
+    GroupLinkRepository groupLinkRepository;
+
+    @Autowired
+    ProjectsAndGroupsService projectsAndGroupsService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    ResearchGroupDto femto;
+    ResearchGroupDto nap;
+    ResearchGroupDto lendulet;
+    ProjectDto covid;
+    ProjectDto alzheimer;
+    ProjectDto dopamin;
+
+    @BeforeEach
+    void init() throws InterruptedException {
+        readReplica.rebuild();
+        femto=projectsAndGroupsService.createResearchGroup(new CreateResearchGroupCommand("FEMTO-Lézeres Csoport",LocalDate.of(2016,6,1),7,Location.BIOFIZIKA,15));
+        nap=projectsAndGroupsService.createResearchGroup(new CreateResearchGroupCommand("NAP kutatócsoport",LocalDate.of(2018,9,1),15,Location.SZENTÁGOTHAI_KUTATÓKÖZPONT,5));
+        lendulet=projectsAndGroupsService.createResearchGroup(new CreateResearchGroupCommand("Lendület Csoport",LocalDate.of(2012,3,1),12,Location.BIOFIZIKA,40));
+        covid=projectsAndGroupsService.createProject(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195));
+        alzheimer=projectsAndGroupsService.createProject(new CreateProjectCommand("Alzheimer",LocalDate.of(2019,10,1),80));
+        dopamin=projectsAndGroupsService.createProject(new CreateProjectCommand("Dopamin",LocalDate.of(2021,1,15),30));
+        projectsAndGroupsService.addGroupToProject(covid.getId(),femto.getId());
+        projectsAndGroupsService.addGroupToProject(covid.getId(),nap.getId());
+        projectsAndGroupsService.addGroupToProject(alzheimer.getId(),nap.getId());
+        projectsAndGroupsService.addGroupToProject(alzheimer.getId(),femto.getId());
+        readReplica.awaitApplied();
+
+        statistics=entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void cleanUp(){
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("Groups of a project and projects of a group are read from the replica")
+    void testGroupsOfProjectAndProjectsOfGroup(){
+        statistics.clear();
+
+        assertThat(readIds("/api/membership/projects/{id}/research-groups",covid.getId()))
+                .containsExactly(femto.getId(),nap.getId());
+        assertThat(readIds("/api/membership/projects/{id}/research-groups",dopamin.getId()))
+                .isEmpty();
+        assertThat(readIds("/api/membership/research-groups/{id}/projects",nap.getId()))
+                .containsExactly(covid.getId(),alzheimer.getId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Membership follows links, unlinks and deletes")
+    void testIndexFollowsChanges(){
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/{id}/delete-group").queryParam("groupId",nap.getId()).build(covid.getId()))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.post()
+                .uri("/api/projects/group-links")
+                .bodyValue(new UpdateGroupLinksCommand(List.of(new GroupLinkDto(dopamin.getId(),lendulet.getId())),List.of()))
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(readIds("/api/membership/research-groups/{id}/projects",nap.getId()))
+                .containsExactly(alzheimer.getId());
+        assertThat(readIds("/api/membership/projects/{id}/research-groups",dopamin.getId()))
+                .containsExactly(lendulet.getId());
+
+        webTestClient.delete()
+                .uri("/api/research-groups/delete/{id}",femto.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertThat(readIds("/api/membership/projects/{id}/research-groups",covid.getId()))
+                .isEmpty();
+        assertThat(readIds("/api/membership/projects/{id}/research-groups",alzheimer.getId()))
+                .containsExactly(nap.getId());
+    }
+
+    @Test
+    @DisplayName("Projects shared by two groups and groups without any project")
+    void testSharedProjectsAndGroupsWithoutProject(){
+        statistics.clear();
+
+        assertThat(readIds("/api/membership/shared-projects?groupId={groupId}&otherGroupId={otherGroupId}",femto.getId(),nap.getId()))
+                .containsExactly(covid.getId(),alzheimer.getId());
+        assertThat(readIds("/api/membership/shared-projects?groupId={groupId}&otherGroupId={otherGroupId}",femto.getId(),lendulet.getId()))
+                .isEmpty();
+        assertThat(readIds("/api/membership/research-groups-without-project"))
+                .containsExactly(lendulet.getId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        projectsAndGroupsService.addGroupToProject(dopamin.getId(),lendulet.getId());
+        projectsAndGroupsService.createResearchGroup(new CreateResearchGroupCommand("Új csoport",LocalDate.of(2020,1,1),3,Location.BIOFIZIKA,1));
+
+        assertThat(readIds("/api/membership/research-groups-without-project"))
+                .hasSize(1)
+                .doesNotContain(lendulet.getId());
+    }
+
+    @Test
+    @DisplayName("Links and unlinks committed together end in the state of the join table")
+    void testConcurrentLinksAndUnlinks() throws InterruptedException, ExecutionException, TimeoutException {
+        ExecutorService executor=Executors.newFixedThreadPool(2);
+        try {
+            List<Future<?>> futures=new ArrayList<>();
+            for (ResearchGroupDto group : List.of(lendulet,nap)) {
+                futures.add(executor.submit(() -> IntStream.range(0,25).forEach(round -> {
+                    if(round%2==0){
+                        projectsAndGroupsService.addGroupToProject(dopamin.getId(),group.getId());
+                    }
+                    else {
+                        projectsAndGroupsService.deleteGroupFromProject(dopamin.getId(),group.getId());
+                    }
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get(60,TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        readReplica.awaitApplied();
+
+        assertThat(readIds("/api/membership/projects/{id}/research-groups",dopamin.getId()))
+                .containsExactly(groupLinkRepository.findResearchGroupIdsOfProject(dopamin.getId()).stream().mapToLong(Long::longValue).toArray())
+                .containsExactly(nap.getId(),lendulet.getId());
+        assertThat(readIds("/api/membership/research-groups/{id}/projects",nap.getId()))
+                .containsExactly(covid.getId(),alzheimer.getId(),dopamin.getId());
+    }
+
+    @Test
+    @DisplayName("Unknown project or research group")
+    void testNotFound(){
+        Problem problem=webTestClient.get()
+                .uri("/api/membership/projects/{id}/research-groups",dopamin.getId()+100)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(Problem.class).returnResult().getResponseBody();
+        assertThat(problem.getDetail()).isEqualTo(String.format("Project with id: %d not found",dopamin.getId()+100));
+
+        problem=webTestClient.get()
+                .uri("/api/membership/shared-projects?groupId={groupId}&otherGroupId={otherGroupId}",femto.getId(),lendulet.getId()+100)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(Problem.class).returnResult().getResponseBody();
+        assertThat(problem.getDetail()).isEqualTo(String.format("Research group with id: %d not found",lendulet.getId()+100));
+    }
+
+    private long[] readIds(String uri, Object... uriVariables){
+        return webTestClient.get()
+                .uri(uri,uriVariables)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(long[].class).returnResult().getResponseBody();
+    }
+}
@@ -0,0 +1,59 @@
+package research;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import research.dtos.CreateProjectCommand;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"management.endpoints.web.exposure.include=prometheus",
+                "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+                "research.query-cache.enabled=false"})
+@AutoConfigureMetrics
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"})
+class MetricsWebClientIT {
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("Request latency, statements and rows per request, repository calls and mapping are scraped")
+    void testPrometheusScrape(){
+        for (int i = 0; i < 3; i++) {
+            webTestClient
+                    .post()
+                    .uri("/api/projects")
+                    .bodyValue(new CreateProjectCommand("Projekt "+i,LocalDate.of(2020,1,1),i))
+                    .exchange()
+                    .expectStatus().isCreated();
+        }
+        webTestClient
+                .get()
+                .uri("/api/projects")
+                .exchange()
+                .expectStatus().isOk();
+
+        String scrape=webTestClient
+                .get()
+                .uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{exception=\"None\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/projects\"")
+                .contains("research_request_rows_sum{method=\"GET\",uri=\"/api/projects\",} 6.0")
+                .contains("research_service_mapping_seconds_count{target=\"projects\",} 1.0")
+                .contains("spring_data_repository_invocations_seconds_count{exception=\"None\",method=\"findAllByCriteria\",repository=\"ProjectsRepository\",state=\"SUCCESS\",}")
+                .contains("research_jdbc_statements_seconds_count{kind=\"insert\",}");
+        assertThat(scrape).containsPattern("research_request_statements_sum\\{method=\"GET\",uri=\"/api/projects\",} [1-9]");
+    }
+}
@@ -5,6 +5,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.zalando.problem.Problem;
@@ -12,12 +15,18 @@ import org.zalando.problem.Status;
 import org.zalando.problem.violations.ConstraintViolationProblem;
 import research.dtos.*;
 import research.model.Location;
+import research.replica.ReadReplica;
 import research.service.ProjectsAndGroupsService;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -29,6 +38,9 @@ class ProjectControllerWebClientIT {
     @Autowired
     ProjectsAndGroupsService projectsAndGroupsService;
 
+    @Autowired
+    ReadReplica readReplica;
+
     ResearchGroupDto researchGroupDto1;
     ResearchGroupDto researchGroupDto2;
     ProjectDto projectDto1;
@@ -178,6 +190,66 @@ class ProjectControllerWebClientIT {
         assertEquals("projects/already-exists",result.getType().getPath());
     }
 
+    @Test
+    @DisplayName("Create projects in bulk")
+    void testCreateProjectsInBulk() {
+        BulkCreateResultDto result=webTestClient
+                .post()
+                .uri("/api/projects/bulk")
+                .bodyValue(List.of(
+                        new CreateProjectCommand("Alvásmegvonás hatásai",LocalDate.of(2020,3,1),40),
+                        new CreateProjectCommand("covid-19",LocalDate.of(2019,2,23),195),
+                        new CreateProjectCommand("Negatív költségvetés",LocalDate.of(2020,3,1),-1),
+                        new CreateProjectCommand("ALVÁSMEGVONÁS HATÁSAI",LocalDate.of(2021,3,1),10),
+                        new CreateProjectCommand("Hippocampus plaszticitás",LocalDate.of(2021,5,1),25)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BulkCreateResultDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(2,result.getCreated());
+        assertEquals(3,result.getRejected());
+        assertThat(result.getItems())
+                .extracting(BulkItemResultDto::getIndex,BulkItemResultDto::getStatus)
+                .containsExactly(
+                        tuple(0,BulkItemStatus.CREATED),
+                        tuple(1,BulkItemStatus.ALREADY_EXISTS),
+                        tuple(2,BulkItemStatus.NOT_VALID),
+                        tuple(3,BulkItemStatus.ALREADY_EXISTS),
+                        tuple(4,BulkItemStatus.CREATED));
+        assertEquals(projectDto1.getId(),result.getItems().get(1).getId());
+        assertEquals("The budget of project mustn't be negative!",result.getItems().get(2).getMessage());
+
+        ProjectDto created=webTestClient
+                .get()
+                .uri("/api/projects/{id}",result.getItems().get(4).getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertEquals("Hippocampus plaszticitás",created.getName());
+        assertEquals(LocalDate.of(2021,5,1),created.getStartDate());
+    }
+
+    @Test
+    @DisplayName("Create projects in bulk with an empty batch")
+    void testCreateProjectsInBulkWithEmptyBatch() {
+        Problem result=webTestClient
+                .post()
+                .uri("/api/projects/bulk")
+                .bodyValue(List.of())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("Number of items must be between 1 and 10000!",result.getDetail());
+        assertEquals("parameter/not-valid",result.getType().getPath());
+    }
+
     @Test
     @DisplayName("Post a research group to a project")
     void testPostResearchGroupToProject() {
@@ -361,6 +433,57 @@ class ProjectControllerWebClientIT {
                 .containsOnly(LocalDate.of(2019,1,13));
     }
 
+    @Test
+    @DisplayName("Link and unlink research groups in bulk")
+    void testUpdateGroupLinks() {
+        GroupLinksResultDto result=updateGroupLinks(new UpdateGroupLinksCommand(
+                List.of(new GroupLinkDto(projectDto1.getId(),researchGroupDto1.getId()),
+                        new GroupLinkDto(projectDto1.getId(),researchGroupDto2.getId()),
+                        new GroupLinkDto(projectDto2.getId(),researchGroupDto1.getId()),
+                        new GroupLinkDto(projectDto1.getId(),researchGroupDto1.getId()),
+                        new GroupLinkDto(projectDto1.getId(),0L)),
+                List.of()));
+
+        assertEquals(3,result.getAdded());
+        assertEquals(0,result.getUnchanged());
+        assertThat(result.getRejected()).containsExactly(new GroupLinkDto(projectDto1.getId(),0L));
+        assertThat(readProject(projectDto1.getId()).getResearchGroupSet())
+                .extracting(ResearchGroupWithoutProjectsDto::getName)
+                .containsOnly("Nano-Bio-Imaging Core Facility","Neuroendokrinológia");
+
+        result=updateGroupLinks(new UpdateGroupLinksCommand(
+                List.of(new GroupLinkDto(projectDto1.getId(),researchGroupDto2.getId())),
+                List.of(new GroupLinkDto(projectDto1.getId(),researchGroupDto1.getId()),
+                        new GroupLinkDto(projectDto2.getId(),researchGroupDto2.getId()))));
+
+        assertEquals(0,result.getAdded());
+        assertEquals(1,result.getRemoved());
+        assertEquals(2,result.getUnchanged());
+        assertThat(readProject(projectDto1.getId()).getResearchGroupSet())
+                .extracting(ResearchGroupWithoutProjectsDto::getName)
+                .containsOnly("Neuroendokrinológia");
+        assertThat(projectsAndGroupsService.getResearchGroupById(researchGroupDto1.getId()).getProjectSet())
+                .extracting(ProjectWithoutGroupsDto::getId)
+                .containsOnly(projectDto2.getId());
+    }
+
+    @Test
+    @DisplayName("Add and remove the same link in one request")
+    void testUpdateGroupLinksWithConflictingLink() {
+        GroupLinkDto link=new GroupLinkDto(projectDto1.getId(),researchGroupDto1.getId());
+        Problem result=webTestClient
+                .post()
+                .uri("/api/projects/group-links")
+                .bodyValue(new UpdateGroupLinksCommand(List.of(link),List.of(link)))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("A link can't be added and removed in the same request!",result.getDetail());
+    }
+
     @Test
     @DisplayName("Read all projects")
     void testGetAllResearchGroups(){
@@ -374,11 +497,38 @@ class ProjectControllerWebClientIT {
 
         assertThat(result)
                 .hasSize(3)
-                .contains(new ProjectDto(0L,"E2 gyors hatásai virusokra",LocalDate.of(2019,1,1),145, new HashSet<>()))
+                .contains(new ProjectDto(0L,0L,"E2 gyors hatásai virusokra",LocalDate.of(2019,1,1),145,0,0,0, new HashSet<>()))
                 .extracting(ProjectDto::getName)
                 .containsExactly("E2 gyors hatásai virusokra","Covid-19","3D Single Molecule Detection (virtual)");
     }
 
+    @Test
+    @DisplayName("Read the summary view of projects")
+    void testProjectSummaryView(){
+        addGroup(projectDto1.getId(),researchGroupDto1.getId());
+
+        webTestClient
+                .get()
+                .uri("/api/projects?view=summary&orderBy=budget&orderType=desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].name").isEqualTo("Covid-19")
+                .jsonPath("$[0].researchGroupSet").doesNotExist()
+                .jsonPath("$[2].name").isEqualTo("3D Single Molecule Detection (virtual)");
+    }
+
+    @Test
+    @DisplayName("Read projects with unknown view")
+    void testProjectsWithUnknownView(){
+        webTestClient
+                .get()
+                .uri("/api/projects?view=minimal")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
     @Test
     @DisplayName("Read filtered and sorted projects (1)")
     void testFilteredProjectsV1(){
@@ -422,6 +572,261 @@ class ProjectControllerWebClientIT {
                 .containsExactly("3D Single Molecule Detection (virtual)","Covid-19","E2 gyors hatásai virusokra");
     }
 
+    @Test
+    @DisplayName("Read projects filtered by a name with different accents")
+    void testFilteredProjectsIgnoringAccents(){
+        List<ProjectDto> result=webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/projects")
+                        .queryParam("nameLike","VÍRUS")
+                        .build())
+                .exchange()
+                .expectBodyList(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(result)
+                .extracting(ProjectDto::getName)
+                .containsExactly("E2 gyors hatásai virusokra");
+    }
+
+    @Test
+    @DisplayName("A name matching more projects than an IN list holds is filtered the same way")
+    void testFilteredProjectsIgnoringAccentsAboveInListLimit(){
+        List<CreateProjectCommand> commands=IntStream.rangeClosed(1,1001)
+                .mapToObj(i -> new CreateProjectCommand("Vírusdinamika "+i,LocalDate.of(2020,3,1),i))
+                .collect(Collectors.toList());
+        webTestClient
+                .post()
+                .uri("/api/projects/bulk")
+                .bodyValue(commands)
+                .exchange()
+                .expectStatus().isOk();
+
+        List<ProjectDto> result=webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/projects")
+                        .queryParam("nameLike","VIRUS")
+                        .queryParam("minBudget","1000")
+                        .build())
+                .exchange()
+                .expectBodyList(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(result)
+                .extracting(ProjectDto::getName)
+                .containsExactly("Vírusdinamika 1000","Vírusdinamika 1001");
+
+        assertThat(webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/projects/reactive")
+                        .queryParam("nameLike","VIRUS")
+                        .queryParam("orderBy","budget")
+                        .queryParam("size","2")
+                        .build())
+                .exchange()
+                .returnResult(ProjectDto.class)
+                .getResponseBody()
+                .collectList()
+                .block())
+                .extracting(ProjectDto::getName)
+                .containsExactly("Vírusdinamika 1","Vírusdinamika 2");
+    }
+
+    @Test
+    @DisplayName("Search projects by name prefix and substring")
+    void testSearchProjects(){
+        assertThat(searchProjects("covid","PREFIX"))
+                .extracting(ProjectWithoutGroupsDto::getName)
+                .containsExactly("Covid-19");
+        assertThat(searchProjects("19","PREFIX")).isEmpty();
+        assertThat(searchProjects("hatasai vir","SUBSTRING"))
+                .extracting(ProjectWithoutGroupsDto::getName)
+                .containsExactly("E2 gyors hatásai virusokra");
+    }
+
+    @Test
+    @DisplayName("Search follows renamed and deleted projects")
+    void testSearchProjectsAfterChanges(){
+        projectsAndGroupsService.updateProject(projectDto1.getId(),null,new UpdateProjectCommand("Covid-2022",null,null));
+        projectsAndGroupsService.updateProject(projectDto2.getId(),null,new UpdateProjectCommand(null,null,80));
+
+        assertThat(searchProjects("covid-2022","PREFIX"))
+                .extracting(ProjectWithoutGroupsDto::getName)
+                .containsExactly("Covid-2022");
+        assertThat(searchProjects("covid-19","PREFIX")).isEmpty();
+        assertThat(searchProjects("single molecule","SUBSTRING"))
+                .extracting(ProjectWithoutGroupsDto::getName)
+                .containsExactly("3D Single Molecule Detection (virtual)");
+
+        projectsAndGroupsService.deleteProject(projectDto1.getId());
+
+        assertThat(searchProjects("covid","PREFIX")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Search projects with a blank name")
+    void testSearchProjectsWithBlankName(){
+        Problem result=webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/projects/search")
+                        .queryParam("name"," ")
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("Name musn't be blank!",result.getDetail());
+    }
+
+    @Test
+    @DisplayName("Read a page of sorted projects")
+    void testPagedProjects(){
+        List<ProjectDto> result=webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/projects")
+                        .queryParam("orderBy","name")
+                        .queryParam("page","1")
+                        .queryParam("size","1")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(result)
+                .hasSize(1)
+                .extracting(ProjectDto::getName)
+                .containsExactly("Covid-19");
+    }
+
+    @Test
+    @DisplayName("Read projects with invalid page size")
+    void testPagedProjectsWithInvalidSize(){
+        Problem result=webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/projects")
+                        .queryParam("size","0")
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("Size must be between 1 and 1000!",result.getDetail());
+        assertEquals(Status.BAD_REQUEST,result.getStatus());
+        assertEquals("parameter/not-valid",result.getType().getPath());
+    }
+
+    @Test
+    @DisplayName("Export all projects as newline-delimited JSON")
+    void testExportProjects(){
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/{id}/add-group")
+                        .queryParam("groupId",researchGroupDto1.getId())
+                        .build(projectDto1.getId()))
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/{id}/add-group")
+                        .queryParam("groupId",researchGroupDto2.getId())
+                        .build(projectDto1.getId()))
+                .exchange()
+                .expectStatus().isOk();
+
+        List<ProjectDto> result=webTestClient
+                .get()
+                .uri("/api/projects/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(ProjectDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(result)
+                .extracting(ProjectDto::getName)
+                .containsExactly("E2 gyors hatásai virusokra","Covid-19","3D Single Molecule Detection (virtual)");
+        assertThat(result.get(1).getResearchGroupSet())
+                .extracting(ResearchGroupWithoutProjectsDto::getName)
+                .containsOnly("Nano-Bio-Imaging Core Facility","Neuroendokrinológia");
+        assertThat(result.get(0).getResearchGroupSet()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Stream filtered and sorted projects over R2DBC")
+    void testReactiveProjects(){
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/{id}/add-group")
+                        .queryParam("groupId",researchGroupDto1.getId())
+                        .build(projectDto1.getId()))
+                .exchange()
+                .expectStatus().isOk();
+
+        List<ProjectDto> result=webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/projects/reactive")
+                        .queryParam("minBudget","100")
+                        .queryParam("orderBy","startDate")
+                        .queryParam("orderType","desc")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(ProjectDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(result)
+                .extracting(ProjectDto::getName)
+                .containsExactly("Covid-19","E2 gyors hatásai virusokra");
+        assertThat(result.get(0).getResearchGroupSet())
+                .extracting(ResearchGroupWithoutProjectsDto::getName)
+                .containsOnly("Nano-Bio-Imaging Core Facility");
+        assertThat(result.get(1).getResearchGroupSet()).isEmpty();
+
+        assertThat(webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/projects/reactive")
+                        .queryParam("nameLike","VÍRUS")
+                        .build())
+                .exchange()
+                .returnResult(ProjectDto.class)
+                .getResponseBody()
+                .collectList()
+                .block())
+                .extracting(ProjectDto::getName)
+                .containsExactly("E2 gyors hatásai virusokra");
+    }
+
+    @Test
+    @DisplayName("Stream projects over R2DBC with invalid page size")
+    void testReactiveProjectsWithInvalidSize(){
+        Problem result=webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/projects/reactive")
+                        .queryParam("size","1001")
+                        .build())
+                .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_PROBLEM_JSON)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("Size must be between 1 and 1000!",result.getDetail());
+    }
+
     @Test
     @DisplayName("Read a project by id")
     void testGetProjectById(){
@@ -506,6 +911,282 @@ class ProjectControllerWebClientIT {
         assertEquals("Not Valid Parameter",result.getTitle());
         assertEquals("parameter/not-valid",result.getType().getPath());
     }
+
+    @Test
+    @DisplayName("Update a project at the version given in If-Match")
+    void testUpdateProjectWithIfMatch(){
+        webTestClient
+                .get()
+                .uri("/api/projects/{id}",projectDto1.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG,"\"0.0.0\"");
+
+        ProjectDto updated=webTestClient
+                .put()
+                .uri("/api/projects/update/{id}",projectDto1.getId())
+                .header(HttpHeaders.IF_MATCH,"\"0.0.0\"")
+                .bodyValue(new UpdateProjectCommand(null,null,200))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG,"\"1.1.0\"")
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(updated.getVersion()).isEqualTo(1);
+        assertThat(updated.getBudget()).isEqualTo(200);
+        webTestClient
+                .get()
+                .uri("/api/projects/{id}",projectDto1.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG,"\"1.1.0\"");
+
+        Problem result=webTestClient
+                .put()
+                .uri("/api/projects/update/{id}",projectDto1.getId())
+                .header(HttpHeaders.IF_MATCH,"\"0.0.0\"")
+                .bodyValue(new UpdateProjectCommand(null,null,300))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(String.format("Project with id: %d has been modified, current version: 1",projectDto1.getId()),result.getDetail());
+        assertEquals("projects/version-conflict",result.getType().getPath());
+        assertThat(result.getParameters()).containsEntry("currentVersion",1);
+        assertThat(projectsAndGroupsService.getProjectById(projectDto1.getId()).getBudget()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("An If-Match read before a link change no longer matches")
+    void testUpdateProjectWithIfMatchAfterLinkChange(){
+        String eTag=webTestClient
+                .get()
+                .uri("/api/projects/{id}",projectDto1.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProjectDto.class)
+                .getResponseHeaders()
+                .getETag();
+        addGroup(projectDto1.getId(),researchGroupDto1.getId());
+
+        webTestClient
+                .put()
+                .uri("/api/projects/update/{id}",projectDto1.getId())
+                .header(HttpHeaders.IF_MATCH,eTag)
+                .bodyValue(new UpdateProjectCommand(null,null,200))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+        String currentETag=webTestClient
+                .get()
+                .uri("/api/projects/{id}",projectDto1.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProjectDto.class)
+                .getResponseHeaders()
+                .getETag();
+        webTestClient
+                .put()
+                .uri("/api/projects/update/{id}",projectDto1.getId())
+                .header(HttpHeaders.IF_MATCH,currentETag)
+                .bodyValue(new UpdateProjectCommand(null,null,200))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    @DisplayName("Update a project with a malformed If-Match")
+    void testUpdateProjectWithInvalidIfMatch(){
+        Problem result=webTestClient
+                .put()
+                .uri("/api/projects/update/{id}",projectDto1.getId())
+                .header(HttpHeaders.IF_MATCH,"W/\"0\"")
+                .bodyValue(new UpdateProjectCommand(null,null,200))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("If-Match must be a single entity tag, e.g. \"3.7.5f0c2e81a4b3d6c9\"!",result.getDetail());
+    }
+
+    @Test
+    @DisplayName("Concurrent updates of the same version: one succeeds, the others get a conflict")
+    void testConcurrentProjectUpdates() throws InterruptedException, ExecutionException {
+        int workers=8;
+        ExecutorService executor=Executors.newFixedThreadPool(workers);
+        CountDownLatch start=new CountDownLatch(1);
+        List<Future<HttpStatus>> statuses=new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            int budget=1000+i;
+            statuses.add(executor.submit(() -> {
+                start.await();
+                return webTestClient
+                        .put()
+                        .uri("/api/projects/update/{id}",projectDto1.getId())
+                        .header(HttpHeaders.IF_MATCH,"\"0.0.0\"")
+                        .bodyValue(new UpdateProjectCommand(null,null,budget))
+                        .exchange()
+                        .returnResult(String.class)
+                        .getStatus();
+            }));
+        }
+        start.countDown();
+        List<HttpStatus> result=new ArrayList<>();
+        for (Future<HttpStatus> status : statuses) {
+            result.add(status.get());
+        }
+        executor.shutdown();
+
+        assertThat(result).containsOnly(HttpStatus.OK,HttpStatus.CONFLICT);
+        assertThat(result).filteredOn(status -> status==HttpStatus.OK).hasSize(1);
+        assertThat(projectsAndGroupsService.getProjectById(projectDto1.getId()).getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Linking and unlinking groups leaves the version of the project")
+    void testGroupLinksKeepProjectVersion(){
+        addGroup(projectDto1.getId(),researchGroupDto1.getId());
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/{id}/delete-group").queryParam("groupId",researchGroupDto1.getId()).build(projectDto1.getId()))
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(projectsAndGroupsService.getProjectById(projectDto1.getId()).getVersion()).isZero();
+    }
+
+    @Test
+    @DisplayName("Conditional get of a project answers 304 until the project or its links change")
+    void testConditionalGetProject(){
+        String eTag=webTestClient
+                .get()
+                .uri("/api/projects/{id}",projectDto1.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG,"\"0.0.0\"")
+                .expectHeader().exists(HttpHeaders.LAST_MODIFIED)
+                .returnResult(ProjectDto.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient
+                .get()
+                .uri("/api/projects/{id}",projectDto1.getId())
+                .header(HttpHeaders.IF_NONE_MATCH,eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG,eTag)
+                .expectBody().isEmpty();
+
+        addGroup(projectDto1.getId(),researchGroupDto1.getId());
+
+        ProjectDto project=webTestClient
+                .get()
+                .uri("/api/projects/{id}",projectDto1.getId())
+                .header(HttpHeaders.IF_NONE_MATCH,eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG,newTag -> assertThat(newTag).startsWith("\"0.1.").isNotEqualTo("\"0.1.0\""))
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(project.getResearchGroupSet())
+                .extracting(ResearchGroupWithoutProjectsDto::getName)
+                .containsOnly("Nano-Bio-Imaging Core Facility");
+    }
+
+    @Test
+    @DisplayName("Updating or deleting a linked entity changes the ETag of its neighbours")
+    void testNeighbourChangesChangeEntityTags(){
+        addGroup(projectDto1.getId(),researchGroupDto1.getId());
+        String projectTag=readEntityTag("/api/projects/{id}",projectDto1.getId());
+
+        UpdateResearchGroupCommand updateResearchGroupCommand=new UpdateResearchGroupCommand();
+        updateResearchGroupCommand.setBudget(30);
+        webTestClient
+                .put()
+                .uri("/api/research-groups/update/{id}",researchGroupDto1.getId())
+                .bodyValue(updateResearchGroupCommand)
+                .exchange()
+                .expectStatus().isOk();
+        ProjectDto project=webTestClient
+                .get()
+                .uri("/api/projects/{id}",projectDto1.getId())
+                .header(HttpHeaders.IF_NONE_MATCH,projectTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(project.getGroupBudget()).isEqualTo(30);
+
+        String researchGroupTag=readEntityTag("/api/research-groups/{id}",researchGroupDto1.getId());
+        webTestClient
+                .put()
+                .uri("/api/projects/update/{id}",projectDto1.getId())
+                .bodyValue(new UpdateProjectCommand("Covid-20",null,null))
+                .exchange()
+                .expectStatus().isOk();
+        ResearchGroupDto researchGroup=webTestClient
+                .get()
+                .uri("/api/research-groups/{id}",researchGroupDto1.getId())
+                .header(HttpHeaders.IF_NONE_MATCH,researchGroupTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ResearchGroupDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(researchGroup.getProjectSet())
+                .extracting(ProjectWithoutGroupsDto::getName)
+                .containsOnly("Covid-20");
+
+        projectTag=readEntityTag("/api/projects/{id}",projectDto1.getId());
+        webTestClient
+                .delete()
+                .uri("/api/research-groups/delete/{id}",researchGroupDto1.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        project=webTestClient
+                .get()
+                .uri("/api/projects/{id}",projectDto1.getId())
+                .header(HttpHeaders.IF_NONE_MATCH,projectTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(project.getResearchGroupSet()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Conditional get of a project with If-Modified-Since")
+    void testConditionalGetProjectByDate(){
+        String lastModified=webTestClient
+                .get()
+                .uri("/api/projects/{id}",projectDto1.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProjectDto.class)
+                .getResponseHeaders()
+                .getFirst(HttpHeaders.LAST_MODIFIED);
+
+        webTestClient
+                .get()
+                .uri("/api/projects/{id}",projectDto1.getId())
+                .header(HttpHeaders.IF_MODIFIED_SINCE,lastModified)
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient
+                .get()
+                .uri("/api/projects/{id}",projectDto1.getId())
+                .header(HttpHeaders.IF_MODIFIED_SINCE,"Mon, 01 Jan 2001 00:00:00 GMT")
+                .exchange()
+                .expectStatus().isOk();
+    }
     @Test
     @DisplayName("Delete a project")
     void testDeleteProject(){
@@ -525,8 +1206,169 @@ class ProjectControllerWebClientIT {
 
         assertThat(result)
                 .hasSize(2)
-                .contains(new ProjectDto(0L,"E2 gyors hatásai virusokra",LocalDate.of(2019,1,1),145, new HashSet<>()))
+                .contains(new ProjectDto(0L,0L,"E2 gyors hatásai virusokra",LocalDate.of(2019,1,1),145,0,0,0, new HashSet<>()))
                 .extracting(ProjectDto::getName)
                 .containsExactly("E2 gyors hatásai virusokra","3D Single Molecule Detection (virtual)");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Project summary follows the links and the linked research groups")
+    void testProjectSummaryMaintained(){
+        addGroup(projectDto1.getId(),researchGroupDto1.getId());
+        ProjectDto result=addGroup(projectDto1.getId(),researchGroupDto2.getId());
+        assertSummary(result,2,27,18);
+        assertSummary(addGroup(projectDto1.getId(),researchGroupDto2.getId()),2,27,18);
+        updateGroupLinks(new UpdateGroupLinksCommand(List.of(new GroupLinkDto(projectDto2.getId(),researchGroupDto1.getId())),null));
+        assertSummary(readProject(projectDto2.getId()),1,13,3);
+
+        webTestClient
+                .put()
+                .uri("/api/research-groups/update/{id}",researchGroupDto1.getId())
+                .bodyValue(new UpdateResearchGroupCommand(null,null,5,null,20))
+                .exchange()
+                .expectStatus().isOk();
+        assertSummary(readProject(projectDto1.getId()),2,34,20);
+        assertSummary(readProject(projectDto2.getId()),1,20,5);
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/{id}/delete-group")
+                        .queryParam("groupId",researchGroupDto2.getId())
+                        .build(projectDto1.getId()))
+                .exchange()
+                .expectStatus().isOk();
+        assertSummary(readProject(projectDto1.getId()),1,20,5);
+
+        webTestClient
+                .delete()
+                .uri("/api/research-groups/delete/{id}",researchGroupDto1.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        assertSummary(readProject(projectDto1.getId()),0,0,0);
+        assertSummary(readProject(projectDto2.getId()),0,0,0);
+    }
+
+    @Test
+    @DisplayName("Filter and order projects by their summary")
+    void testFilterAndOrderBySummary(){
+        addGroup(projectDto1.getId(),researchGroupDto1.getId());
+        addGroup(projectDto2.getId(),researchGroupDto2.getId());
+
+        List<ProjectDto> result=webTestClient
+                .get()
+                .uri("/api/projects?minGroupCount=1&orderBy=researcherCount&orderType=desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(result)
+                .extracting(ProjectDto::getName)
+                .containsExactly("3D Single Molecule Detection (virtual)","Covid-19");
+
+        List<ProjectDto> reactiveResult=webTestClient
+                .get()
+                .uri("/api/projects/reactive?minGroupBudget=14&orderBy=groupBudget")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(reactiveResult)
+                .extracting(ProjectDto::getName,ProjectDto::getGroupBudget)
+                .containsExactly(tuple("3D Single Molecule Detection (virtual)",14L));
+    }
+
+    @Test
+    @DisplayName("With the read replica off the membership is read from the join table")
+    void testMembershipWithoutReplica(){
+        addGroup(projectDto1.getId(),researchGroupDto1.getId());
+        addGroup(projectDto1.getId(),researchGroupDto2.getId());
+
+        assertThat(readReplica.getSnapshotInSync()).isNull();
+        assertThat(readIds("/api/membership/projects/{id}/research-groups",projectDto1.getId()))
+                .containsExactly(researchGroupDto1.getId(),researchGroupDto2.getId());
+        assertThat(readIds("/api/membership/research-groups/{id}/projects",researchGroupDto2.getId()))
+                .containsExactly(projectDto1.getId());
+        webTestClient
+                .get()
+                .uri("/api/membership/projects/{id}/research-groups",projectDto2.getId()+100)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private ProjectDto addGroup(long projectId, long groupId){
+        return webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/{id}/add-group")
+                        .queryParam("groupId",groupId)
+                        .build(projectId))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private void assertSummary(ProjectDto project, int groupCount, long groupBudget, int researcherCount){
+        assertThat(project)
+                .extracting(ProjectDto::getGroupCount,ProjectDto::getGroupBudget,ProjectDto::getResearcherCount)
+                .containsExactly(groupCount,groupBudget,researcherCount);
+    }
+
+    private GroupLinksResultDto updateGroupLinks(UpdateGroupLinksCommand command){
+        return webTestClient
+                .post()
+                .uri("/api/projects/group-links")
+                .bodyValue(command)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(GroupLinksResultDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private String readEntityTag(String uri, long id){
+        return webTestClient
+                .get()
+                .uri(uri,id)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+    }
+
+    private long[] readIds(String uri, Object... uriVariables){
+        return webTestClient.get()
+                .uri(uri,uriVariables)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(long[].class).returnResult().getResponseBody();
+    }
+
+    private ProjectDto readProject(long id){
+        return webTestClient
+                .get()
+                .uri("/api/projects/{id}",id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private List<ProjectWithoutGroupsDto> searchProjects(String name, String match){
+        return webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/projects/search")
+                        .queryParam("name",name)
+                        .queryParam("match",match)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProjectWithoutGroupsDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,326 @@
+package research;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.zalando.problem.Problem;
+import research.criteria.OrderType;
+import research.criteria.ProjectCriteria;
+import research.criteria.ProjectOrderBy;
+import research.criteria.ResearchGroupCriteria;
+import research.criteria.ResearchGroupOrderBy;
+import research.dtos.*;
+import research.model.Location;
+import research.replica.ReadReplica;
+import research.service.ChangeTokenService;
+import research.service.ProjectsAndGroupsService;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"research.replica.mode=strong", "research.changes.enabled=false"})
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"})
+class ReadReplicaWebClientIT {
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    ReadReplica readReplica;
+
+    @Autowired
+    ProjectsAndGroupsService projectsAndGroupsService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ChangeTokenService changeTokenService;
+
+    Statistics statistics;
+
+    ResearchGroupDto femto;
+    ResearchGroupDto nap;
+    ProjectDto covid;
+    ProjectDto alzheimer;
+
+    @BeforeEach
+    void init() throws InterruptedException {
+        readReplica.rebuild();
+        femto=projectsAndGroupsService.createResearchGroup(new CreateResearchGroupCommand("FEMTO-Lézeres Csoport",LocalDate.of(2016,6,1),7,Location.BIOFIZIKA,15));
+        nap=projectsAndGroupsService.createResearchGroup(new CreateResearchGroupCommand("NAP kutatócsoport",LocalDate.of(2018,9,1),15,Location.SZENTÁGOTHAI_KUTATÓKÖZPONT,5));
+        covid=projectsAndGroupsService.createProject(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195));
+        alzheimer=projectsAndGroupsService.createProject(new CreateProjectCommand("Alzheimer",LocalDate.of(2019,10,1),80));
+        projectsAndGroupsService.createProject(new CreateProjectCommand("Dopamin",LocalDate.of(2021,1,15),30));
+        projectsAndGroupsService.addGroupToProject(covid.getId(),femto.getId());
+        projectsAndGroupsService.addGroupToProject(covid.getId(),nap.getId());
+        projectsAndGroupsService.addGroupToProject(alzheimer.getId(),nap.getId());
+        readReplica.awaitApplied();
+
+        statistics=entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void cleanUp(){
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("Replica answers list and by-id reads without the database")
+    void testReadsServedFromReplica(){
+        statistics.clear();
+
+        List<ProjectDto> projects=readProjects("/api/projects?orderBy=groupBudget&orderType=desc");
+        ProjectDto project=webTestClient
+                .get()
+                .uri("/api/projects/{id}",covid.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(projects)
+                .extracting(ProjectDto::getName)
+                .containsExactly("Covid-19","Alzheimer","Dopamin");
+        assertThat(project.getResearchGroupSet())
+                .extracting(ResearchGroupWithoutProjectsDto::getName)
+                .containsOnly("FEMTO-Lézeres Csoport","NAP kutatócsoport");
+        assertThat(project.getGroupBudget()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Replica gives the same results as the database after changes")
+    void testReplicaMatchesDatabase(){
+        projectsAndGroupsService.updateResearchGroupById(nap.getId(),null,new UpdateResearchGroupCommand("NAP 2",null,20,null,50));
+        projectsAndGroupsService.deleteGroupFromProject(covid.getId(),femto.getId());
+        projectsAndGroupsService.addPostedGroupToProject(alzheimer.getId(),new CreateResearchGroupCommand("Virológia",LocalDate.of(2016,7,1),8,Location.SZENTÁGOTHAI_KUTATÓKÖZPONT,55));
+        projectsAndGroupsService.deleteProject(covid.getId());
+
+        for (ProjectOrderBy orderBy : ProjectOrderBy.values()) {
+            ProjectCriteria criteria=new ProjectCriteria();
+            criteria.setOrderBy(orderBy);
+            criteria.setOrderType(OrderType.desc);
+            assertSameProjects(readProjects("/api/projects?orderBy="+orderBy+"&orderType=desc"),projectsAndGroupsService.getProjects(criteria));
+        }
+        for (ResearchGroupOrderBy orderBy : ResearchGroupOrderBy.values()) {
+            ResearchGroupCriteria criteria=new ResearchGroupCriteria();
+            criteria.setOrderBy(orderBy);
+            List<ResearchGroupDto> expected=projectsAndGroupsService.getResearchGroups(criteria);
+            assertThat(readResearchGroups("/api/research-groups?orderBy="+orderBy))
+                    .containsExactlyElementsOf(expected)
+                    .extracting(ResearchGroupDto::getId)
+                    .containsExactlyElementsOf(expected.stream().map(ResearchGroupDto::getId).collect(Collectors.toList()));
+        }
+        ProjectCriteria nameCriteria=new ProjectCriteria();
+        nameCriteria.setNameLike("zheim");
+        List<ProjectDto> nameMatches=readProjects("/api/projects?nameLike=zheim");
+        assertThat(nameMatches).hasSize(1);
+        assertSameProjects(nameMatches,projectsAndGroupsService.getProjects(nameCriteria));
+    }
+
+    @Test
+    @DisplayName("Replica holds the state of the database after transactions committed together")
+    void testReplicaMatchesDatabaseAfterConcurrentCommits() throws InterruptedException, ExecutionException, TimeoutException {
+        ExecutorService executor=Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures=new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                int thread=i;
+                futures.add(executor.submit(() -> IntStream.range(0,20).forEach(round -> {
+                    ProjectDto project=projectsAndGroupsService.createProject(new CreateProjectCommand("Projekt "+thread+"-"+round,LocalDate.of(2019,2,23),round));
+                    projectsAndGroupsService.addGroupToProject(project.getId(),round%2==0 ? femto.getId() : nap.getId());
+                    projectsAndGroupsService.updateProject(covid.getId(),null,new UpdateProjectCommand(null,null,thread*100+round));
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get(60,TimeUnit.SECONDS);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        readReplica.awaitApplied();
+        statistics.clear();
+
+        ProjectCriteria criteria=new ProjectCriteria();
+        criteria.setOrderBy(ProjectOrderBy.groupBudget);
+        criteria.setSize(100);
+        List<ProjectDto> projects=readProjects("/api/projects?orderBy=groupBudget&size=100");
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(projects).hasSize(83);
+        assertSameProjects(projects,projectsAndGroupsService.getProjects(criteria));
+    }
+
+    @Test
+    @DisplayName("Replica orders names by the Hungarian alphabet, ignoring case and accents like the database collation")
+    void testNamesInHungarianOrder() throws InterruptedException {
+        projectsAndGroupsService.createProject(new CreateProjectCommand("Öregedés",LocalDate.of(2020,1,1),10));
+        projectsAndGroupsService.createProject(new CreateProjectCommand("élettan",LocalDate.of(2020,1,1),10));
+        projectsAndGroupsService.createProject(new CreateProjectCommand("Ózon",LocalDate.of(2020,1,1),10));
+        projectsAndGroupsService.createProject(new CreateProjectCommand("Csontkutatás",LocalDate.of(2020,1,1),10));
+        projectsAndGroupsService.createResearchGroup(new CreateResearchGroupCommand("Élettani Csoport",LocalDate.of(2020,1,1),3,Location.BIOFIZIKA,1));
+        readReplica.awaitApplied();
+
+        assertThat(readProjects("/api/projects?orderBy=name"))
+                .extracting(ProjectDto::getName)
+                .containsExactly("Alzheimer","Covid-19","Csontkutatás","Dopamin","élettan","Ózon","Öregedés");
+        assertThat(readResearchGroups("/api/research-groups?orderBy=name"))
+                .extracting(ResearchGroupDto::getName)
+                .containsExactly("Élettani Csoport","FEMTO-Lézeres Csoport","NAP kutatócsoport");
+    }
+
+    @Test
+    @DisplayName("Replica reports a deleted project as not found")
+    void testDeletedProjectNotFound(){
+        projectsAndGroupsService.deleteProject(alzheimer.getId());
+
+        Problem result=webTestClient
+                .get()
+                .uri("/api/projects/{id}",alzheimer.getId())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(result.getDetail()).isEqualTo(String.format("Project with id: %d not found", alzheimer.getId()));
+        assertThat(readResearchGroups("/api/research-groups?orderBy=name").get(1).getProjectSet())
+                .extracting(ProjectWithoutGroupsDto::getName)
+                .containsOnly("Covid-19");
+    }
+
+    @Test
+    @DisplayName("Conditional by-id reads follow the changes of linked entities without the entity manager")
+    void testConditionalReadsFollowNeighbourChanges() throws InterruptedException {
+        String eTag=webTestClient
+                .get()
+                .uri("/api/projects/{id}",alzheimer.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProjectDto.class)
+                .getResponseHeaders()
+                .getETag();
+        projectsAndGroupsService.updateResearchGroupById(nap.getId(),null,new UpdateResearchGroupCommand("NAP 2",null,null,null,null));
+        readReplica.awaitApplied();
+        statistics.clear();
+
+        ProjectDto project=webTestClient
+                .get()
+                .uri("/api/projects/{id}",alzheimer.getId())
+                .header(HttpHeaders.IF_NONE_MATCH,eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+        String newETag=webTestClient
+                .get()
+                .uri("/api/projects/{id}",alzheimer.getId())
+                .exchange()
+                .returnResult(ProjectDto.class)
+                .getResponseHeaders()
+                .getETag();
+        webTestClient
+                .get()
+                .uri("/api/projects/{id}",alzheimer.getId())
+                .header(HttpHeaders.IF_NONE_MATCH,newETag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        assertThat(project.getResearchGroupSet())
+                .extracting(ResearchGroupWithoutProjectsDto::getName)
+                .containsOnly("NAP 2");
+        assertThat(newETag).isNotEqualTo(eTag);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("By-id reads take the change token from the replica in sync without a JDBC statement")
+    void testChangeTokenServedFromReplica(){
+        String eTag=webTestClient
+                .get()
+                .uri("/api/research-groups/{id}",nap.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ResearchGroupDto.class)
+                .getResponseHeaders()
+                .getETag();
+        double selects=selectCount();
+
+        webTestClient
+                .get()
+                .uri("/api/research-groups/{id}",nap.getId())
+                .header(HttpHeaders.IF_NONE_MATCH,eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+        String projectTag=webTestClient
+                .get()
+                .uri("/api/projects/{id}",covid.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ProjectDto.class)
+                .getResponseHeaders()
+                .getETag();
+
+        assertThat(selectCount()).isEqualTo(selects);
+        ChangeToken token=changeTokenService.getProjectToken(covid.getId());
+        assertThat(projectTag).isEqualTo("\""+token.getVersion()+"."+token.getRevision()+"."+Long.toHexString(token.getNeighbourHash())+"\"");
+    }
+
+    private double selectCount(){
+        return meterRegistry.get("research.jdbc.statements").tag("kind","select").timer().count();
+    }
+
+    private void assertSameProjects(List<ProjectDto> actual, List<ProjectDto> expected){
+        assertThat(actual)
+                .containsExactlyElementsOf(expected)
+                .extracting(ProjectDto::getId,ProjectDto::getGroupCount,ProjectDto::getGroupBudget,ProjectDto::getResearcherCount)
+                .containsExactlyElementsOf(expected.stream()
+                        .map(project -> tuple(project.getId(),project.getGroupCount(),project.getGroupBudget(),project.getResearcherCount()))
+                        .collect(Collectors.toList()));
+    }
+
+    private List<ProjectDto> readProjects(String uri){
+        return webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private List<ResearchGroupDto> readResearchGroups(String uri){
+        return webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResearchGroupDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -5,17 +5,23 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.zalando.problem.Problem;
 import org.zalando.problem.Status;
 import org.zalando.problem.violations.ConstraintViolationProblem;
+import research.criteria.ResearchGroupCriteria;
 import research.dtos.*;
 import research.model.Location;
 import research.service.ProjectsAndGroupsService;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -185,6 +191,36 @@ public class ResearchGroupControllerWebClientIT {
         assertEquals("research-groups/already-exists",result.getType().getPath());
     }
 
+    @Test
+    @DisplayName("Create research groups in bulk")
+    void testCreateResearchGroupsInBulk() {
+        BulkCreateResultDto result=webTestClient
+                .post()
+                .uri("/api/research-groups/bulk")
+                .bodyValue(List.of(
+                        new CreateResearchGroupCommand("FEMTO-Lézeres Csoport",LocalDate.of(2016,6,1),7,Location.BIOFIZIKA,15),
+                        new CreateResearchGroupCommand("FEMTO-Lézeres Csoport",LocalDate.of(2016,6,1),7,Location.ÁOK_ÚJ_ÉPÜLET,15),
+                        new CreateResearchGroupCommand("Kardiológiai kutatócsoport",LocalDate.of(2012,1,1),0,Location.ÁOK_RÉGI_ÉPÜLET,8),
+                        new CreateResearchGroupCommand("Lipidomika",LocalDate.of(2015,4,1),4,null,3)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BulkCreateResultDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(1,result.getCreated());
+        assertEquals(3,result.getRejected());
+        assertThat(result.getItems())
+                .extracting(BulkItemResultDto::getStatus)
+                .containsExactly(BulkItemStatus.ALREADY_EXISTS,BulkItemStatus.CREATED,BulkItemStatus.NOT_VALID,BulkItemStatus.NOT_VALID);
+        assertEquals("Group (name:FEMTO-Lézeres Csoport) already exists with id: "+researchGroupDto.getId(),result.getItems().get(0).getMessage());
+
+        assertThat(service.getResearchGroups(new ResearchGroupCriteria()))
+                .filteredOn(researchGroup -> researchGroup.getName().equals("FEMTO-Lézeres Csoport"))
+                .extracting(ResearchGroupDto::getLocation)
+                .containsExactlyInAnyOrder(Location.BIOFIZIKA,Location.ÁOK_ÚJ_ÉPÜLET);
+    }
+
     @Test
     @DisplayName("Read all research groups")
     void testGetAllResearchGroups(){
@@ -198,11 +234,34 @@ public class ResearchGroupControllerWebClientIT {
 
         assertThat(result)
             .hasSize(4)
-            .contains(new ResearchGroupDto(1L,"Nano-Bio-Imaging Core Facility",LocalDate.of(2019,7,19),3, Location.ÁOK_ÚJ_ÉPÜLET,13,new HashSet<>()))
+            .contains(new ResearchGroupDto(1L,0L,"Nano-Bio-Imaging Core Facility",LocalDate.of(2019,7,19),3, Location.ÁOK_ÚJ_ÉPÜLET,13,new HashSet<>()))
             .extracting(ResearchGroupDto::getName)
             .containsOnly("NAP kutatócsoport","FEMTO-Lézeres Csoport","Nano-Bio-Imaging Core Facility","Neuroendokrinológia");
     }
 
+    @Test
+    @DisplayName("Read the summary view of research groups")
+    void testResearchGroupSummaryView(){
+        List<ResearchGroupWithoutProjectsDto> result=webTestClient
+                .get()
+                .uri("/api/research-groups?view=summary&minBudget=10&orderBy=budget&orderType=desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResearchGroupWithoutProjectsDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(result)
+                .extracting(ResearchGroupWithoutProjectsDto::getName)
+                .containsExactly("FEMTO-Lézeres Csoport","Neuroendokrinológia","Nano-Bio-Imaging Core Facility");
+        webTestClient
+                .get()
+                .uri("/api/research-groups?view=summary")
+                .exchange()
+                .expectBody()
+                .jsonPath("$[0].projectSet").doesNotExist();
+    }
+
     @Test
     @DisplayName("Read filtered and sorted research groups (1)")
     void testFilteredResearchGroups(){
@@ -245,6 +304,110 @@ public class ResearchGroupControllerWebClientIT {
                 .containsExactly("Neuroendokrinológia","FEMTO-Lézeres Csoport","NAP kutatócsoport");
     }
 
+    @Test
+    @DisplayName("Stream filtered and sorted research groups over R2DBC")
+    void testReactiveResearchGroups(){
+        List<ResearchGroupDto> result=webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/research-groups/reactive")
+                        .queryParam("minCountOfResearchers","4")
+                        .queryParam("orderBy","countOfResearchers")
+                        .queryParam("orderType","desc")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .returnResult(ResearchGroupDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertThat(result)
+                .extracting(ResearchGroupDto::getName)
+                .containsExactly("Neuroendokrinológia","NAP kutatócsoport","FEMTO-Lézeres Csoport");
+        assertThat(result.get(2).getLocation()).isEqualTo(Location.BIOFIZIKA);
+        assertThat(result).allSatisfy(researchGroup -> assertThat(researchGroup.getProjectSet()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Read research groups page by page with cursor")
+    void testResearchGroupPagesWithCursor(){
+        List<String> names=new ArrayList<>();
+        String cursor=null;
+        int pages=0;
+        do {
+            String actualCursor=cursor;
+            ResearchGroupPageDto page=webTestClient
+                    .get()
+                    .uri(builder -> builder.path("/api/research-groups/page")
+                            .queryParam("orderBy","budget")
+                            .queryParam("orderType","desc")
+                            .queryParam("size","3")
+                            .queryParamIfPresent("cursor",Optional.ofNullable(actualCursor))
+                            .build())
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(ResearchGroupPageDto.class)
+                    .returnResult()
+                    .getResponseBody();
+            page.getContent().forEach(researchGroup -> names.add(researchGroup.getName()));
+            cursor=page.getNextCursor();
+            pages++;
+        } while (cursor!=null);
+
+        assertThat(pages).isEqualTo(2);
+        assertThat(names).containsExactly("FEMTO-Lézeres Csoport","Neuroendokrinológia","Nano-Bio-Imaging Core Facility","NAP kutatócsoport");
+    }
+
+    @Test
+    @DisplayName("Read research groups page with a cursor of another order")
+    void testResearchGroupPageWithMismatchedCursor(){
+        ResearchGroupPageDto firstPage=webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/research-groups/page")
+                        .queryParam("orderBy","name")
+                        .queryParam("size","1")
+                        .build())
+                .exchange()
+                .expectBody(ResearchGroupPageDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        Problem result=webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/research-groups/page")
+                        .queryParam("orderBy","founded")
+                        .queryParam("cursor",firstPage.getNextCursor())
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("Cursor doesn't match the requested order!",result.getDetail());
+        assertEquals("parameter/not-valid",result.getType().getPath());
+    }
+
+    @Test
+    @DisplayName("Search research groups by name ignoring case and accents")
+    void testSearchResearchGroups(){
+        List<ResearchGroupWithoutProjectsDto> result=webTestClient
+                .get()
+                .uri(builder -> builder.path("/api/research-groups/search")
+                        .queryParam("name","lezeres CS")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ResearchGroupWithoutProjectsDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(result)
+                .extracting(ResearchGroupWithoutProjectsDto::getId)
+                .containsExactly(researchGroupDto.getId());
+    }
+
     @Test
     @DisplayName("Read a research group by id")
     void testGetResearchGroupById(){
@@ -315,6 +478,47 @@ public class ResearchGroupControllerWebClientIT {
         assertThat(result.getProjectSet()).hasSize(0);
     }
 
+    @Test
+    @DisplayName("Update a research group at the version given in If-Match")
+    void testUpdateResearchGroupWithIfMatch(){
+        UpdateResearchGroupCommand updateResearchGroupCommand=new UpdateResearchGroupCommand();
+        updateResearchGroupCommand.setBudget(30);
+        ResearchGroupDto updated=webTestClient
+                .put()
+                .uri("/api/research-groups/update/{id}",researchGroupDto.getId())
+                .header(HttpHeaders.IF_MATCH,"\"0.0.0\"")
+                .bodyValue(updateResearchGroupCommand)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG,"\"1.1.0\"")
+                .expectBody(ResearchGroupDto.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(updated.getVersion()).isEqualTo(1);
+
+        Problem result=webTestClient
+                .put()
+                .uri("/api/research-groups/update/{id}",researchGroupDto.getId())
+                .header(HttpHeaders.IF_MATCH,"\"0.0.0\"")
+                .bodyValue(updateResearchGroupCommand)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(String.format("Research group with id: %d has been modified, current version: 1",researchGroupDto.getId()),result.getDetail());
+        assertEquals("research-groups/version-conflict",result.getType().getPath());
+        assertThat(result.getParameters()).containsEntry("currentVersion",1);
+
+        webTestClient
+                .get()
+                .uri("/api/research-groups/{id}",researchGroupDto.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG,"\"1.1.0\"");
+    }
+
     @Test
     @DisplayName("Update a research group with invalid budget")
     void testUpdateResearchGroupWithInvalidBudget(){
@@ -358,9 +562,25 @@ public class ResearchGroupControllerWebClientIT {
 
         assertThat(result)
                 .hasSize(3)
-                .contains(new ResearchGroupDto(1L,"Nano-Bio-Imaging Core Facility",LocalDate.of(2019,7,19),3, Location.ÁOK_ÚJ_ÉPÜLET,13,new HashSet<>()))
+                .contains(new ResearchGroupDto(1L,0L,"Nano-Bio-Imaging Core Facility",LocalDate.of(2019,7,19),3, Location.ÁOK_ÚJ_ÉPÜLET,13,new HashSet<>()))
                 .extracting(ResearchGroupDto::getName)
                 .doesNotContain("FEMTO-Lézeres Csoport")
                 .containsOnly("NAP kutatócsoport","Nano-Bio-Imaging Core Facility","Neuroendokrinológia");
     }
+
+    @Test
+    @DisplayName("Delete a research group with wrong id")
+    void testDeleteResearchGroupWithWrongId(){
+        Problem result=webTestClient
+                .delete()
+                .uri("/api/research-groups/delete/-1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("Research group with id: -1 not found",result.getDetail());
+        assertEquals("research-groups/not-found",result.getType().getPath());
+    }
 }
@@ -0,0 +1,189 @@
+package research;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import research.dtos.*;
+import research.model.Location;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"})
+class SecondLevelCacheWebClientIT {
+    @Autowired
+    WebTestClient webTestClient;
+
+    ResearchGroupDto researchGroupDto;
+    ProjectDto projectDto;
+
+    @BeforeEach
+    void init(){
+        researchGroupDto=webTestClient
+                .post()
+                .uri("/api/research-groups")
+                .bodyValue(new CreateResearchGroupCommand("FEMTO-Lézeres Csoport",LocalDate.of(2016,6,1),7,Location.BIOFIZIKA,15))
+                .exchange()
+                .expectBody(ResearchGroupDto.class)
+                .returnResult()
+                .getResponseBody();
+        projectDto=webTestClient
+                .post()
+                .uri("/api/projects")
+                .bodyValue(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195))
+                .exchange()
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    @DisplayName("Repeated reads of a research group are served from the cache")
+    void testRepeatedReadIsCacheHit(){
+        long hitsBefore=researchGroupCacheHits();
+
+        readResearchGroup();
+        readResearchGroup();
+
+        assertThat(researchGroupCacheHits()).isGreaterThan(hitsBefore);
+    }
+
+    @Test
+    @DisplayName("Cached project set of a group is evicted when the group is linked and the project is deleted")
+    void testProjectSetEvictedOnLinkAndDelete(){
+        assertThat(readResearchGroup().getProjectSet()).isEmpty();
+
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/{id}/add-group")
+                        .queryParam("groupId",researchGroupDto.getId())
+                        .build(projectDto.getId()))
+                .exchange()
+                .expectStatus().isOk();
+
+        assertThat(readResearchGroup().getProjectSet())
+                .extracting(ProjectWithoutGroupsDto::getName)
+                .containsOnly("Covid-19");
+
+        webTestClient
+                .delete()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/delete/{id}").build(projectDto.getId()))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertThat(readResearchGroup().getProjectSet()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Cached group set of a project is evicted when the linked group is deleted")
+    void testGroupSetEvictedOnGroupDelete(){
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/{id}/add-group")
+                        .queryParam("groupId",researchGroupDto.getId())
+                        .build(projectDto.getId()))
+                .exchange()
+                .expectStatus().isOk();
+        assertThat(readProject().getResearchGroupSet()).hasSize(1);
+
+        webTestClient
+                .delete()
+                .uri("/api/research-groups/delete/{id}",researchGroupDto.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        assertThat(readProject().getResearchGroupSet()).isEmpty();
+        webTestClient
+                .get()
+                .uri("/api/research-groups/{id}",researchGroupDto.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Only the linked projects are evicted when a research group changes")
+    void testLinkedProjectsEvictedOnGroupUpdate(){
+        ProjectDto unlinked=webTestClient
+                .post()
+                .uri("/api/projects")
+                .bodyValue(new CreateProjectCommand("Alzheimer",LocalDate.of(2019,10,1),80))
+                .exchange()
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/{id}/add-group")
+                        .queryParam("groupId",researchGroupDto.getId())
+                        .build(projectDto.getId()))
+                .exchange()
+                .expectStatus().isOk();
+        assertThat(readProject().getGroupBudget()).isEqualTo(15);
+        readProject(unlinked.getId());
+
+        webTestClient
+                .put()
+                .uri("/api/research-groups/update/{id}",researchGroupDto.getId())
+                .bodyValue(new UpdateResearchGroupCommand(null,null,null,null,25))
+                .exchange()
+                .expectStatus().isOk();
+
+        long hitsBefore=cacheHits("research.model.Project");
+        assertThat(readProject(unlinked.getId()).getGroupBudget()).isZero();
+        assertThat(cacheHits("research.model.Project")).isEqualTo(hitsBefore+1);
+        assertThat(readProject().getGroupBudget()).isEqualTo(25);
+        assertThat(cacheHits("research.model.Project")).isEqualTo(hitsBefore+1);
+    }
+
+    private ProjectDto readProject(){
+        return readProject(projectDto.getId());
+    }
+
+    private ProjectDto readProject(long id){
+        return webTestClient
+                .get()
+                .uri("/api/projects/{id}",id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private ResearchGroupDto readResearchGroup(){
+        return webTestClient
+                .get()
+                .uri("/api/research-groups/{id}",researchGroupDto.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ResearchGroupDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private long researchGroupCacheHits(){
+        return cacheHits("research.model.ResearchGroup");
+    }
+
+    private long cacheHits(String name){
+        List<CacheStatisticsDto> statistics=webTestClient
+                .get()
+                .uri("/api/cache-statistics")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CacheStatisticsDto.class)
+                .returnResult()
+                .getResponseBody();
+        return statistics.stream()
+                .filter(cacheStatistics -> cacheStatistics.getName().equals(name))
+                .findFirst()
+                .orElseThrow()
+                .getHits();
+    }
+}
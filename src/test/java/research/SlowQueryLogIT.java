@@ -0,0 +1,36 @@
+package research;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.context.jdbc.Sql;
+import research.dtos.CreateProjectCommand;
+import research.service.ProjectsAndGroupsService;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "research.slow-query-log.threshold=PT0S")
+@ExtendWith(OutputCaptureExtension.class)
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"})
+class SlowQueryLogIT {
+    @Autowired
+    ProjectsAndGroupsService service;
+
+    @Test
+    @DisplayName("Statements over the threshold are logged with their parameters and the calling service method")
+    void testSlowStatementLogged(CapturedOutput output) throws InterruptedException {
+        service.createProject(new CreateProjectCommand("Slow query test",LocalDate.of(2020,1,1),10));
+
+        for (int i = 0; i < 100 && !output.getOut().contains("Slow query test"); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(output.getOut())
+                .containsPattern("Slow statement, \\d+ ms, from ProjectsAndGroupsService\\.createProject: insert into projects .*parameters \\[.*Slow query test")
+                .doesNotContain("Hibernate: insert");
+    }
+}
@@ -0,0 +1,185 @@
+package research;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.zalando.problem.Problem;
+import research.dtos.*;
+import research.model.Location;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql(statements = {"DELETE FROM project_researchgroup","DELETE FROM research_groups", "DELETE FROM projects"})
+class StatisticsControllerWebClientIT {
+    @Autowired
+    WebTestClient webTestClient;
+
+    ProjectDto covid;
+    ProjectDto alzheimer;
+    ResearchGroupDto femto;
+
+    @BeforeEach
+    void init(){
+        femto=createResearchGroup(new CreateResearchGroupCommand("FEMTO-Lézeres Csoport",LocalDate.of(2016,6,1),7,Location.BIOFIZIKA,15));
+        ResearchGroupDto lendulet=createResearchGroup(new CreateResearchGroupCommand("Lendület Csoport",LocalDate.of(2012,3,1),12,Location.BIOFIZIKA,40));
+        createResearchGroup(new CreateResearchGroupCommand("Molekuláris Neurobiológia",LocalDate.of(2005,9,1),20,Location.SZENTÁGOTHAI_KUTATÓKÖZPONT,100));
+        covid=createProject(new CreateProjectCommand("Covid-19",LocalDate.of(2019,2,23),195));
+        alzheimer=createProject(new CreateProjectCommand("Alzheimer",LocalDate.of(2019,10,1),80));
+        createProject(new CreateProjectCommand("Dopamin",LocalDate.of(2021,1,15),30));
+        addGroup(covid,femto);
+        addGroup(covid,lendulet);
+        addGroup(alzheimer,lendulet);
+    }
+
+    @Test
+    @DisplayName("Budget and researcher totals per location")
+    void testLocationStatistics(){
+        assertThat(readStatistics().getLocations())
+                .extracting(LocationStatisticsDto::getLocation,LocationStatisticsDto::getResearchGroupCount,
+                        LocationStatisticsDto::getTotalBudget,LocationStatisticsDto::getAverageBudget,LocationStatisticsDto::getTotalResearchers)
+                .containsExactlyInAnyOrder(
+                        tuple(Location.BIOFIZIKA,2L,55L,27.5,19L),
+                        tuple(Location.SZENTÁGOTHAI_KUTATÓKÖZPONT,1L,100L,100.0,20L));
+    }
+
+    @Test
+    @DisplayName("Projects and budget per start year")
+    void testStartYearStatistics(){
+        assertThat(readStatistics().getStartYears())
+                .extracting(StartYearStatisticsDto::getYear,StartYearStatisticsDto::getProjectCount,StartYearStatisticsDto::getTotalBudget)
+                .containsExactly(
+                        tuple(2019,2L,275L),
+                        tuple(2021,1L,30L));
+    }
+
+    @Test
+    @DisplayName("Number of projects per number of research groups")
+    void testGroupCountStatistics(){
+        assertThat(readStatistics().getGroupCounts())
+                .extracting(GroupCountStatisticsDto::getResearchGroupCount,GroupCountStatisticsDto::getProjectCount)
+                .containsExactly(
+                        tuple(0,1L),
+                        tuple(1,1L),
+                        tuple(2,1L));
+    }
+
+    @Test
+    @DisplayName("Number of research groups per project page by page, including projects without groups")
+    void testProjectParticipations(){
+        assertThat(readProjectParticipations(0,2))
+                .extracting(ProjectParticipationDto::getName,ProjectParticipationDto::getResearchGroupCount)
+                .containsExactly(
+                        tuple("Covid-19",2),
+                        tuple("Alzheimer",1));
+        assertThat(readProjectParticipations(1,2))
+                .extracting(ProjectParticipationDto::getName,ProjectParticipationDto::getResearchGroupCount)
+                .containsExactly(tuple("Dopamin",0));
+    }
+
+    @Test
+    @DisplayName("Read project participations with an invalid size")
+    void testProjectParticipationsWithInvalidSize(){
+        Problem result=webTestClient
+                .get()
+                .uri("/api/statistics/project-participations?size=1001")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(Problem.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(result.getDetail()).isEqualTo("Size must be between 1 and 1000!");
+    }
+
+    @Test
+    @DisplayName("Cached statistics are recomputed after a change")
+    void testStatisticsFollowChanges(){
+        readStatistics();
+
+        addGroup(alzheimer,femto);
+        webTestClient
+                .delete()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/delete/{id}").build(covid.getId()))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        StatisticsDto result=readStatistics();
+        assertThat(readProjectParticipations(0,10))
+                .extracting(ProjectParticipationDto::getName,ProjectParticipationDto::getResearchGroupCount)
+                .containsExactly(
+                        tuple("Alzheimer",2),
+                        tuple("Dopamin",0));
+        assertThat(result.getGroupCounts())
+                .extracting(GroupCountStatisticsDto::getResearchGroupCount,GroupCountStatisticsDto::getProjectCount)
+                .containsExactly(
+                        tuple(0,1L),
+                        tuple(2,1L));
+        assertThat(result.getStartYears())
+                .extracting(StartYearStatisticsDto::getYear,StartYearStatisticsDto::getProjectCount)
+                .containsExactly(
+                        tuple(2019,1L),
+                        tuple(2021,1L));
+    }
+
+    private StatisticsDto readStatistics(){
+        return webTestClient
+                .get()
+                .uri("/api/statistics")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(StatisticsDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private List<ProjectParticipationDto> readProjectParticipations(int page, int size){
+        return webTestClient
+                .get()
+                .uri("/api/statistics/project-participations?page={page}&size={size}",page,size)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ProjectParticipationDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private ResearchGroupDto createResearchGroup(CreateResearchGroupCommand command){
+        return webTestClient
+                .post()
+                .uri("/api/research-groups")
+                .bodyValue(command)
+                .exchange()
+                .expectBody(ResearchGroupDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private ProjectDto createProject(CreateProjectCommand command){
+        return webTestClient
+                .post()
+                .uri("/api/projects")
+                .bodyValue(command)
+                .exchange()
+                .expectBody(ProjectDto.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private void addGroup(ProjectDto project, ResearchGroupDto researchGroup){
+        webTestClient
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("/api/projects/{id}/add-group")
+                        .queryParam("groupId",researchGroup.getId())
+                        .build(project.getId()))
+                .exchange()
+                .expectStatus().isOk();
+    }
+}